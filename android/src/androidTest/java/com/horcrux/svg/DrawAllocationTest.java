@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.facebook.drawee.backends.pipeline.Fresco;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.uimanager.DisplayMetricsHolder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Checks that redrawing an unchanged tree doesn't allocate, once its paths and bounds are cached.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DrawAllocationTest {
+    private static final int SIZE = 200;
+    private static final long IMAGE_TIMEOUT_MS = 5000;
+    // A 1x1 PNG, decoded by the image pipeline like any other source
+    private static final String IMAGE_URI = "data:image/png;base64," +
+        "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8DwHwAFBQIAX8jx0gAAAABJRU5ErkJggg==";
+
+    private SvgView mSvg;
+    private Bitmap mBitmap;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(context);
+        if (!Fresco.hasBeenInitialized()) {
+            Fresco.initialize(context);
+        }
+        HeadlessRenderer renderer = new HeadlessRenderer(new ReactApplicationContext(context));
+        mSvg = renderer.build(createTree());
+        mBitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+    }
+
+    @After
+    public void tearDown() {
+        mBitmap.recycle();
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void redrawDoesNotAllocate() {
+        Canvas canvas = new Canvas(mBitmap);
+        // Draw until the image is decoded and drawn from the memory cache
+        ImageView image = findImage(mSvg);
+        assertNotNull(image);
+        long deadline = SystemClock.uptimeMillis() + IMAGE_TIMEOUT_MS;
+        do {
+            mSvg.drawChildren(canvas);
+            SystemClock.sleep(10);
+        } while (image.getPaintBounds() == null && SystemClock.uptimeMillis() < deadline);
+        assertNotNull("The image wasn't loaded", image.getPaintBounds());
+        // The first draws compute and cache the paths, bounds, text layout and glyph contexts
+        mSvg.drawChildren(canvas);
+        mSvg.drawChildren(canvas);
+
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        mSvg.drawChildren(canvas);
+        Debug.stopAllocCounting();
+
+        assertEquals(0, Debug.getThreadAllocCount());
+    }
+
+    private static ImageView findImage(ViewGroup parent) {
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            if (child instanceof ImageView) {
+                return (ImageView) child;
+            }
+            if (child instanceof ViewGroup) {
+                ImageView image = findImage((ViewGroup) child);
+                if (image != null) {
+                    return image;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A viewBox scaled svg with a group of filled and stroked shapes, a path, a use of the rect,
+     * text and an image.
+     */
+    private static ReadableMap createTree() {
+        JavaOnlyMap rect = node("RNSVGRect", JavaOnlyMap.of(
+            "name", "square",
+            "x", 10, "y", 10, "width", 30, "height", 30,
+            "fill", JavaOnlyArray.of(0, 0xff3366cc)
+        ));
+        JavaOnlyMap circle = node("RNSVGCircle", JavaOnlyMap.of(
+            "cx", 60, "cy", 60, "r", 20,
+            "fill", JavaOnlyArray.of(0, 0xffcc6633),
+            "stroke", JavaOnlyArray.of(0, 0xff000000),
+            "strokeWidth", 2
+        ));
+        JavaOnlyMap path = node("RNSVGPath", JavaOnlyMap.of(
+            "d", "M10 80 L50 95 L90 80 Z",
+            "fill", JavaOnlyArray.of(0, 0xff33cc66)
+        ));
+        JavaOnlyMap use = node("RNSVGUse", JavaOnlyMap.of(
+            "href", "square", "x", 50, "y", 0
+        ));
+        JavaOnlyMap tspan = node("RNSVGTSpan", JavaOnlyMap.of(
+            "content", "12345",
+            "fill", JavaOnlyArray.of(0, 0xff000000)
+        ));
+        JavaOnlyMap text = node("RNSVGText", JavaOnlyMap.of(
+            "x", JavaOnlyArray.of("10"), "y", JavaOnlyArray.of("70"),
+            "font", JavaOnlyMap.of("fontSize", "12")
+        ));
+        text.putArray("children", JavaOnlyArray.of(tspan));
+        JavaOnlyMap image = node("RNSVGImage", JavaOnlyMap.of(
+            "x", 60, "y", 60, "width", 30, "height", 30,
+            "align", "xMidYMid", "meetOrSlice", 0,
+            "src", JavaOnlyMap.of("uri", IMAGE_URI)
+        ));
+        JavaOnlyMap group = node("RNSVGGroup", JavaOnlyMap.of(
+            "opacity", 0.8,
+            "stroke", JavaOnlyArray.of(0, 0xff336699),
+            "propList", JavaOnlyArray.of("stroke")
+        ));
+        group.putArray("children", JavaOnlyArray.of(rect, circle, path, use, text, image));
+
+        JavaOnlyMap svg = node("RNSVGSvgView", JavaOnlyMap.of(
+            "bbWidth", String.valueOf(SIZE), "bbHeight", String.valueOf(SIZE),
+            "minX", 0, "minY", 0, "vbWidth", 100, "vbHeight", 100,
+            "align", "xMidYMid", "meetOrSlice", 0
+        ));
+        svg.putArray("children", JavaOnlyArray.of(group));
+        return svg;
+    }
+
+    private static JavaOnlyMap node(String type, JavaOnlyMap props) {
+        JavaOnlyMap node = new JavaOnlyMap();
+        node.putString("type", type);
+        node.putMap("props", props);
+        return node;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Bitmap;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the fixed-point luminanceToAlpha kernel of {@link LuminanceToAlpha} with the double
+ * loop masks were converted with before.
+ */
+@RunWith(AndroidJUnit4.class)
+public class LuminanceToAlphaBenchmark {
+    private static final String TAG = "RNSVGBenchmark";
+    private static final int SIZE = 1024;
+    private static final int RUNS = 5;
+
+    private int[] mSource;
+    private Bitmap mBitmap;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(42);
+        mSource = new int[SIZE * SIZE];
+        for (int i = 0; i < mSource.length; i++) {
+            mSource[i] = random.nextInt();
+        }
+        mBitmap = Bitmap.createBitmap(SIZE, SIZE, Bitmap.Config.ARGB_8888);
+    }
+
+    @After
+    public void tearDown() {
+        mBitmap.recycle();
+    }
+
+    @Test
+    public void kernelMatchesRec601Luminance() {
+        int[] pixels = mSource.clone();
+        LuminanceToAlpha.apply(pixels, 0, pixels.length);
+        for (int i = 0; i < pixels.length; i++) {
+            int color = mSource[i];
+            int r = (color >> 16) & 0xFF;
+            int g = (color >> 8) & 0xFF;
+            int b = color & 0xFF;
+            int a = color >>> 24;
+            double expected = a * (0.299 * r + 0.587 * g + 0.114 * b) / 255;
+            assertEquals(0, pixels[i] & 0x00ffffff);
+            assertEquals(expected, pixels[i] >>> 24, 1);
+        }
+    }
+
+    @Test
+    public void kernelIsFasterThanDoubleLoop() {
+        // Warm up both
+        convertWithDoubles(mSource.clone());
+        LuminanceToAlpha.apply(mSource.clone(), 0, mSource.length);
+
+        long doubles = Long.MAX_VALUE;
+        long kernel = Long.MAX_VALUE;
+        long bitmap = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            int[] pixels = mSource.clone();
+            long start = SystemClock.elapsedRealtimeNanos();
+            convertWithDoubles(pixels);
+            doubles = Math.min(doubles, SystemClock.elapsedRealtimeNanos() - start);
+
+            pixels = mSource.clone();
+            start = SystemClock.elapsedRealtimeNanos();
+            LuminanceToAlpha.apply(pixels, 0, pixels.length);
+            kernel = Math.min(kernel, SystemClock.elapsedRealtimeNanos() - start);
+
+            // Includes copying the pixels and the parallel stripes
+            mBitmap.setPixels(mSource, 0, SIZE, 0, 0, SIZE, SIZE);
+            start = SystemClock.elapsedRealtimeNanos();
+            LuminanceToAlpha.apply(mBitmap);
+            bitmap = Math.min(bitmap, SystemClock.elapsedRealtimeNanos() - start);
+        }
+
+        Log.i(TAG, "luminanceToAlpha " + SIZE + "x" + SIZE + ": double loop " + doubles / 1000 +
+            " us, kernel " + kernel / 1000 + " us, bitmap " + bitmap / 1000 + " us");
+        assertTrue(kernel < doubles);
+    }
+
+    /**
+     * The conversion masks used before the kernel, including its blue weight of 0.144.
+     */
+    private static void convertWithDoubles(int[] pixels) {
+        for (int i = 0; i < pixels.length; i++) {
+            int color = pixels[i];
+
+            int r = (color >> 16) & 0xFF;
+            int g = (color >> 8) & 0xFF;
+            int b = color & 0xFF;
+            int a = color >>> 24;
+
+            double luminance = saturate(((0.299 * r) + (0.587 * g) + (0.144 * b)) / 255);
+            int alpha = (int) (a * luminance);
+            pixels[i] = (alpha << 24);
+        }
+    }
+
+    private static double saturate(double v) {
+        return v <= 0 ? 0 : (v >= 1 ? 1 : v);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.content.Context;
+import android.graphics.Paint;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.uimanager.DisplayMetricsHolder;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares merging inherited properties through the typed slots of {@link RenderableView} with
+ * the reflection based merge it replaced.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MergePropertiesBenchmark {
+    private static final String TAG = "RNSVGBenchmark";
+    private static final int WARMUP_ITERATIONS = 10000;
+    private static final int ITERATIONS = 100000;
+
+    private static final String[] GROUP_PROPS = {
+        "fill", "fillOpacity", "stroke", "strokeWidth", "strokeOpacity", "strokeLinecap"
+    };
+    private static final String[] CHILD_PROPS = {"strokeOpacity"};
+
+    private GroupView mGroup;
+    private RectView mChild;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(context);
+        ReactApplicationContext reactContext = new ReactApplicationContext(context);
+
+        mGroup = new GroupView(reactContext);
+        mGroup.setPropList(JavaOnlyArray.of((Object[]) GROUP_PROPS));
+        mGroup.fill = JavaOnlyArray.of(0, 0xff3366cc);
+        mGroup.fillOpacity = 0.5f;
+        mGroup.stroke = JavaOnlyArray.of(0, 0xff000000);
+        mGroup.strokeWidth = new SVGLength(3);
+        mGroup.strokeOpacity = 0.25f;
+        mGroup.strokeLinecap = Paint.Cap.SQUARE;
+
+        mChild = new RectView(reactContext);
+        mChild.setPropList(JavaOnlyArray.of((Object[]) CHILD_PROPS));
+        mChild.strokeOpacity = 0.75f;
+    }
+
+    @Test
+    public void mergesLikeReflection() throws Exception {
+        ReflectionMerge reflection = new ReflectionMerge();
+        reflection.merge(mChild, mGroup);
+        Object[] expected = getMergedValues(mChild);
+        reflection.reset(mChild);
+        Object[] original = getMergedValues(mChild);
+
+        mChild.mergeProperties(mGroup);
+        assertEquals(Arrays.asList(expected), Arrays.asList(getMergedValues(mChild)));
+        assertSame(mGroup.fill, mChild.fill);
+        assertEquals(0.75f, mChild.strokeOpacity, 0);
+
+        mChild.resetProperties();
+        assertEquals(Arrays.asList(original), Arrays.asList(getMergedValues(mChild)));
+    }
+
+    @Test
+    public void slotsAreFasterThanReflection() throws Exception {
+        ReflectionMerge reflection = new ReflectionMerge();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mChild.mergeProperties(mGroup);
+            mChild.resetProperties();
+            reflection.merge(mChild, mGroup);
+            reflection.reset(mChild);
+        }
+
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mChild.mergeProperties(mGroup);
+            mChild.resetProperties();
+        }
+        long slots = SystemClock.elapsedRealtimeNanos() - start;
+
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < ITERATIONS; i++) {
+            reflection.merge(mChild, mGroup);
+            reflection.reset(mChild);
+        }
+        long reflected = SystemClock.elapsedRealtimeNanos() - start;
+
+        Log.i(TAG, "mergeProperties: slots " + slots / ITERATIONS + " ns, reflection " +
+            reflected / ITERATIONS + " ns per merge and reset");
+        assertTrue(slots < reflected);
+    }
+
+    private static Object[] getMergedValues(RenderableView view) throws Exception {
+        Object[] values = new Object[GROUP_PROPS.length];
+        for (int i = 0; i < GROUP_PROPS.length; i++) {
+            values[i] = view.getClass().getField(GROUP_PROPS[i]).get(view);
+        }
+        return values;
+    }
+
+    /**
+     * The reflection based merge of the properties named by the propList of the parent, as it
+     * was implemented before the slots.
+     */
+    private static class ReflectionMerge {
+        private final List<String> mTargetProps = Arrays.asList(GROUP_PROPS);
+        private final List<String> mOwnProps = Arrays.asList(CHILD_PROPS);
+        private ArrayList<Object> mOriginProperties;
+
+        void merge(RenderableView view, RenderableView target) throws Exception {
+            mOriginProperties = new ArrayList<>();
+            ArrayList<String> attributeList = new ArrayList<>(mOwnProps);
+            for (int i = 0, size = mTargetProps.size(); i < size; i++) {
+                String fieldName = mTargetProps.get(i);
+                Field field = view.getClass().getField(fieldName);
+                Object value = field.get(target);
+                mOriginProperties.add(field.get(view));
+                if (!attributeList.contains(fieldName)) {
+                    attributeList.add(fieldName);
+                    field.set(view, value);
+                }
+            }
+        }
+
+        void reset(RenderableView view) throws Exception {
+            for (int i = mTargetProps.size() - 1; i >= 0; i--) {
+                Field field = view.getClass().getField(mTargetProps.get(i));
+                field.set(view, mOriginProperties.get(i));
+            }
+            mOriginProperties = null;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import javax.annotation.Nullable;
+
+/**
+ * Process wide pool of ARGB_8888 backing bitmaps shared by all {@link SvgView} instances.
+ *
+ * Bitmaps are keyed by their width and height, handed out cleared, and kept in least recently
+ * released order. When the pooled bitmaps exceed {@link #MAX_POOL_SIZE_BYTES} the oldest ones are
+ * recycled.
+ */
+public class BitmapPool {
+
+    private static final int MAX_POOL_SIZE_BYTES = (int) Math.min(
+            Runtime.getRuntime().maxMemory() / 8,
+            32 * 1024 * 1024
+    );
+
+    private static final LinkedList<Bitmap> sPool = new LinkedList<>();
+    private static int sPoolSizeBytes = 0;
+    private static int sHitCount = 0;
+    private static int sMissCount = 0;
+
+    /**
+     * Returns a cleared bitmap of the requested size. If {@code current} already has the requested
+     * size it is erased and reused, otherwise it is released back to the pool and a pooled bitmap
+     * of the right size is used, allocating a new one only when none is available.
+     *
+     * @param current bitmap currently owned by the caller, or null
+     * @param width   requested width in px
+     * @param height  requested height in px
+     * @return a transparent, mutable bitmap of size width x height
+     */
+    static synchronized Bitmap obtain(@Nullable Bitmap current, int width, int height) {
+        if (current != null && !current.isRecycled()) {
+            if (current.getWidth() == width && current.getHeight() == height) {
+                current.eraseColor(Color.TRANSPARENT);
+                sHitCount++;
+                return current;
+            }
+            release(current);
+        }
+
+        Iterator<Bitmap> iterator = sPool.iterator();
+        while (iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                iterator.remove();
+                sPoolSizeBytes -= bitmap.getByteCount();
+                bitmap.eraseColor(Color.TRANSPARENT);
+                sHitCount++;
+                return bitmap;
+            }
+        }
+
+        sMissCount++;
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * Returns a bitmap to the pool, evicting the least recently released bitmaps when the pool
+     * grows past its byte budget.
+     */
+    static synchronized void release(@Nullable Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        int size = bitmap.getByteCount();
+        if (size > MAX_POOL_SIZE_BYTES) {
+            bitmap.recycle();
+            return;
+        }
+        sPool.addLast(bitmap);
+        sPoolSizeBytes += size;
+        while (sPoolSizeBytes > MAX_POOL_SIZE_BYTES) {
+            Bitmap eldest = sPool.removeFirst();
+            sPoolSizeBytes -= eldest.getByteCount();
+            eldest.recycle();
+        }
+    }
+
+    /**
+     * Recycles every pooled bitmap, e.g. in response to memory pressure.
+     */
+    public static synchronized void clear() {
+        for (Bitmap bitmap : sPool) {
+            bitmap.recycle();
+        }
+        sPool.clear();
+        sPoolSizeBytes = 0;
+    }
+
+    public static synchronized int getHitCount() {
+        return sHitCount;
+    }
+
+    public static synchronized int getMissCount() {
+        return sMissCount;
+    }
+
+    public static synchronized int getPoolSizeBytes() {
+        return sPoolSizeBytes;
+    }
+
+    public static synchronized void resetCounters() {
+        sHitCount = 0;
+        sMissCount = 0;
+    }
+}
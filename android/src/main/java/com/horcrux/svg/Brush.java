@@ -24,6 +24,10 @@ import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.common.ReactConstants;
 
+import java.util.ArrayList;
+
+import javax.annotation.Nullable;
+
 class Brush {
     private final BrushType mType;
     private final SVGLength[] mPoints;
@@ -35,9 +39,82 @@ class Brush {
     private boolean mUseContentObjectBoundingBoxUnits;
 
     private Matrix mMatrix;
-    private Rect mUserSpaceBoundingBox;
+    private final Rect mUserSpaceBoundingBox = new Rect();
+    // Reused by every setupPaint
+    private final RectF mPaintRect = new RectF();
     private PatternView mPattern;
 
+    // Gradient stops parsed from mColors, colors without opacity applied
+    private @Nullable float[] mStops;
+    private @Nullable int[] mStopColors;
+
+    /**
+     * Gradient shader built for one paint rect, scale, opacity and font size.
+     */
+    private static class CachedShader {
+        final RectF rect;
+        final float scale;
+        final float opacity;
+        final float textSize;
+        final Shader shader;
+
+        CachedShader(RectF rect, float scale, float opacity, float textSize, Shader shader) {
+            this.rect = new RectF(rect);
+            this.scale = scale;
+            this.opacity = opacity;
+            this.textSize = textSize;
+            this.shader = shader;
+        }
+
+        boolean matches(RectF rect, float scale, float opacity, float textSize) {
+            return this.rect.equals(rect) && this.scale == scale &&
+                this.opacity == opacity && this.textSize == textSize;
+        }
+    }
+
+    // Most recently used shaders first
+    private static final int MAX_CACHED_SHADERS = 8;
+    private final ArrayList<CachedShader> mCachedShaders = new ArrayList<>(MAX_CACHED_SHADERS);
+
+    /**
+     * Pattern tile rendered for one tile rect, content size, scale and opacity.
+     */
+    private static class CachedTile {
+        final double x;
+        final double y;
+        final double width;
+        final double height;
+        final float contentWidth;
+        final float contentHeight;
+        final float scale;
+        final float opacity;
+        final BitmapShader shader;
+
+        CachedTile(double x, double y, double width, double height, float contentWidth,
+                   float contentHeight, float scale, float opacity, BitmapShader shader) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.contentWidth = contentWidth;
+            this.contentHeight = contentHeight;
+            this.scale = scale;
+            this.opacity = opacity;
+            this.shader = shader;
+        }
+
+        boolean matches(double x, double y, double width, double height,
+                        float contentWidth, float contentHeight, float scale, float opacity) {
+            return this.x == x && this.y == y && this.width == width && this.height == height &&
+                this.contentWidth == contentWidth && this.contentHeight == contentHeight &&
+                this.scale == scale && this.opacity == opacity;
+        }
+    }
+
+    // Most recently used tiles first, fewer than shaders as each holds a bitmap
+    private static final int MAX_CACHED_TILES = 4;
+    private final ArrayList<CachedTile> mCachedTiles = new ArrayList<>(MAX_CACHED_TILES);
+
     Brush(BrushType type, SVGLength[] points, BrushUnits units) {
         mType = type;
         mPoints = points;
@@ -63,23 +140,65 @@ class Brush {
         USER_SPACE_ON_USE
     }
 
-    private static void parseGradientStops(ReadableArray value, int stopsCount, float[] stops, int[] stopsColors, float opacity) {
+    /**
+     * Parses the flat [offset, color, offset, color, ...] stop array once, keeping the offsets
+     * and colors as primitive arrays. Returns false if the gradient has no stops.
+     */
+    private boolean parseGradientStops() {
+        if (mStops != null) {
+            return true;
+        }
+        int size = mColors.size();
+        if (size == 0) {
+            FLog.w(ReactConstants.TAG, "Gradient contains no stops");
+            return false;
+        }
+        int stopsCount = size / 2;
+        float[] stops = new float[stopsCount];
+        int[] stopsColors = new int[stopsCount];
         for (int i = 0; i < stopsCount; i++) {
             int stopIndex = i * 2;
-            stops[i] = (float) value.getDouble(stopIndex);
-            int color = value.getInt(stopIndex + 1);
+            stops[i] = (float) mColors.getDouble(stopIndex);
+            stopsColors[i] = mColors.getInt(stopIndex + 1);
+        }
+
+        if (stops.length == 1) {
+            // Gradient with only one stop will make LinearGradient/RadialGradient
+            // throw. It may happen when source SVG contains only one stop or
+            // two stops at the same spot (see lib/extract/extractGradient.js).
+            // Although it's mistake SVGs like this can be produced by vector
+            // editors or other tools, so let's handle that gracefully.
+            stopsColors = new int[] { stopsColors[0], stopsColors[0] };
+            stops = new float[] { stops[0], stops[0] };
+            FLog.w(ReactConstants.TAG, "Gradient contains only one stop");
+        }
+
+        mStops = stops;
+        mStopColors = stopsColors;
+        return true;
+    }
+
+    private static int[] applyOpacity(int[] colors, float opacity) {
+        int[] stopsColors = new int[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            int color = colors[i];
             int alpha = color >>> 24;
             int combined = Math.round((float)alpha * opacity);
             stopsColors[i] = combined << 24 | (color & 0x00ffffff);
         }
+        return stopsColors;
     }
 
     void setUserSpaceBoundingBox(Rect userSpaceBoundingBox) {
-        mUserSpaceBoundingBox = userSpaceBoundingBox;
+        // Copied, the canvas bounds of the SvgView are reused by the next draw
+        mUserSpaceBoundingBox.set(userSpaceBoundingBox);
     }
 
     void setGradientColors(ReadableArray colors) {
         mColors = colors;
+        mStops = null;
+        mStopColors = null;
+        mCachedShaders.clear();
     }
 
     void setGradientTransform(Matrix matrix) {
@@ -87,18 +206,44 @@ class Brush {
     }
 
     private RectF getPaintRect(RectF pathBoundingBox) {
-        RectF rect = mUseObjectBoundingBox ? pathBoundingBox : new RectF(mUserSpaceBoundingBox);
-        float width = rect.width();
-        float height = rect.height();
-        float x = 0f;
-        float y = 0f;
-
+        RectF rect = mPaintRect;
         if (mUseObjectBoundingBox) {
-            x = rect.left;
-            y = rect.top;
+            rect.set(pathBoundingBox);
+        } else {
+            rect.set(0, 0, mUserSpaceBoundingBox.width(), mUserSpaceBoundingBox.height());
+        }
+        return rect;
+    }
+
+    private BitmapShader createPatternShader(double x, double y, double w, double h,
+                                             float width, float height, float scale, float opacity) {
+        Bitmap bitmap = Bitmap.createBitmap(
+                (int) w,
+                (int) h,
+                Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+
+        RectF vbRect = mPattern.getViewBox();
+        if (vbRect != null && vbRect.width() > 0 && vbRect.height() > 0) {
+            RectF eRect = new RectF((float) x, (float) y, (float) w, (float) h);
+            Matrix mViewBoxMatrix = ViewBox.getTransform(vbRect, eRect, mPattern.mAlign, mPattern.mMeetOrSlice);
+            canvas.concat(mViewBoxMatrix);
+        }
+
+        if (mUseContentObjectBoundingBoxUnits) {
+            canvas.scale(width / scale, height / scale);
+        }
+
+        mPattern.draw(canvas, new Paint(), opacity);
+
+        Matrix patternMatrix = new Matrix();
+        if (mMatrix != null) {
+            patternMatrix.preConcat(mMatrix);
         }
 
-        return new RectF(x, y, x + width, y + height);
+        BitmapShader bitmapShader = new BitmapShader(bitmap, Shader.TileMode.REPEAT, Shader.TileMode.REPEAT);
+        bitmapShader.setLocalMatrix(patternMatrix);
+        return bitmapShader;
     }
 
     private double getVal(SVGLength length, double relative, float scale, float textSize) {
@@ -124,57 +269,49 @@ class Brush {
                 return;
             }
 
-            Bitmap bitmap = Bitmap.createBitmap(
-                    (int) w,
-                    (int) h,
-                    Bitmap.Config.ARGB_8888);
-            Canvas canvas = new Canvas(bitmap);
-
-            RectF vbRect = mPattern.getViewBox();
-            if (vbRect != null && vbRect.width() > 0 && vbRect.height() > 0) {
-                RectF eRect = new RectF((float) x, (float) y, (float) w, (float) h);
-                Matrix mViewBoxMatrix = ViewBox.getTransform(vbRect, eRect, mPattern.mAlign, mPattern.mMeetOrSlice);
-                canvas.concat(mViewBoxMatrix);
-            }
-
-            if (mUseContentObjectBoundingBoxUnits) {
-                canvas.scale(width / scale, height / scale);
+            float contentWidth = mUseContentObjectBoundingBoxUnits ? width : 0;
+            float contentHeight = mUseContentObjectBoundingBoxUnits ? height : 0;
+            for (int i = 0; i < mCachedTiles.size(); i++) {
+                CachedTile cached = mCachedTiles.get(i);
+                if (cached.matches(x, y, w, h, contentWidth, contentHeight, scale, opacity)) {
+                    if (i != 0) {
+                        mCachedTiles.remove(i);
+                        mCachedTiles.add(0, cached);
+                    }
+                    paint.setShader(cached.shader);
+                    return;
+                }
             }
 
-            mPattern.draw(canvas, new Paint(), opacity);
-
-            Matrix patternMatrix = new Matrix();
-            if (mMatrix != null) {
-                patternMatrix.preConcat(mMatrix);
+            BitmapShader shader = createPatternShader(x, y, w, h, width, height, scale, opacity);
+            if (mCachedTiles.size() == MAX_CACHED_TILES) {
+                mCachedTiles.remove(MAX_CACHED_TILES - 1);
             }
-
-            BitmapShader bitmapShader = new BitmapShader(bitmap, Shader.TileMode.REPEAT, Shader.TileMode.REPEAT);
-            bitmapShader.setLocalMatrix(patternMatrix);
-            paint.setShader(bitmapShader);
+            mCachedTiles.add(0, new CachedTile(x, y, w, h, contentWidth, contentHeight, scale, opacity, shader));
+            paint.setShader(shader);
             return;
         }
 
-        int size = mColors.size();
-        if (size == 0) {
-            FLog.w(ReactConstants.TAG, "Gradient contains no stops");
+        if (!parseGradientStops()) {
             return;
         }
-        int stopsCount = size / 2;
-        int[] stopsColors = new int[stopsCount];
-        float[] stops = new float[stopsCount];
-        parseGradientStops(mColors, stopsCount, stops, stopsColors, opacity);
 
-        if (stops.length == 1) {
-            // Gradient with only one stop will make LinearGradient/RadialGradient
-            // throw. It may happen when source SVG contains only one stop or
-            // two stops at the same spot (see lib/extract/extractGradient.js).
-            // Although it's mistake SVGs like this can be produced by vector
-            // editors or other tools, so let's handle that gracefully.
-            stopsColors = new int[] { stopsColors[0], stopsColors[0] };
-            stops = new float[] { stops[0], stops[0] };
-            FLog.w(ReactConstants.TAG, "Gradient contains only one stop");
+        for (int i = 0; i < mCachedShaders.size(); i++) {
+            CachedShader cached = mCachedShaders.get(i);
+            if (cached.matches(rect, scale, opacity, textSize)) {
+                if (i != 0) {
+                    mCachedShaders.remove(i);
+                    mCachedShaders.add(0, cached);
+                }
+                paint.setShader(cached.shader);
+                return;
+            }
         }
 
+        int[] stopsColors = applyOpacity(mStopColors, opacity);
+        float[] stops = mStops;
+        Shader shader = null;
+
         if (mType == BrushType.LINEAR_GRADIENT) {
             double x1 = getVal(mPoints[0], width, scale, textSize) + offsetX;
             double y1 = getVal(mPoints[1], height, scale, textSize) + offsetY;
@@ -196,7 +333,7 @@ class Brush {
                 linearGradient.setLocalMatrix(m);
             }
 
-            paint.setShader(linearGradient);
+            shader = linearGradient;
         } else if (mType == BrushType.RADIAL_GRADIENT) {
             double rx = getVal(mPoints[2], width, scale, textSize);
             double ry = getVal(mPoints[3], height, scale, textSize);
@@ -227,7 +364,15 @@ class Brush {
             }
 
             radialGradient.setLocalMatrix(radialMatrix);
-            paint.setShader(radialGradient);
+            shader = radialGradient;
+        }
+
+        if (shader != null) {
+            if (mCachedShaders.size() == MAX_CACHED_SHADERS) {
+                mCachedShaders.remove(MAX_CACHED_SHADERS - 1);
+            }
+            mCachedShaders.add(0, new CachedShader(rect, scale, opacity, textSize, shader));
+            paint.setShader(shader);
         }
     }
 }
@@ -47,6 +47,25 @@ class CircleView extends RenderableView {
         invalidate();
     }
 
+    @Override
+    boolean setLengthProp(String name, SVGLength length) {
+        switch (name) {
+            case "cx":
+                mCx = length;
+                break;
+            case "cy":
+                mCy = length;
+                break;
+            case "r":
+                mR = length;
+                break;
+            default:
+                return super.setLengthProp(name, length);
+        }
+        invalidate();
+        return true;
+    }
+
     @Override
     Path getPath(Canvas canvas, Paint paint) {
         Path path = new Path();
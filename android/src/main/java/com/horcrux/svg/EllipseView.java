@@ -54,6 +54,28 @@ class EllipseView extends RenderableView {
         invalidate();
     }
 
+    @Override
+    boolean setLengthProp(String name, SVGLength length) {
+        switch (name) {
+            case "cx":
+                mCx = length;
+                break;
+            case "cy":
+                mCy = length;
+                break;
+            case "rx":
+                mRx = length;
+                break;
+            case "ry":
+                mRy = length;
+                break;
+            default:
+                return super.setLengthProp(name, length);
+        }
+        invalidate();
+        return true;
+    }
+
     @Override
     Path getPath(Canvas canvas, Paint paint) {
         Path path = new Path();
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.common.ReactConstants;
+
+import javax.annotation.Nullable;
+
+/**
+ * Options of an SvgView export, as passed to toDataURL from JS.
+ */
+class ExportOptions {
+    int width;
+    int height;
+    int threads = TiledRasterizer.DEFAULT_THREAD_COUNT;
+    boolean reportProgress;
+    Bitmap.CompressFormat format = Bitmap.CompressFormat.PNG;
+    int quality = 100;
+    // Drawn behind the image when the format has no alpha, i.e. JPEG
+    int backgroundColor = Color.WHITE;
+    // Write the image to a file and return its URI instead of a Base64 string
+    boolean toFile;
+    @Nullable String path;
+
+    /**
+     * @param options       options from JS, or null
+     * @param defaultWidth  width used when the options don't specify one
+     * @param defaultHeight height used when the options don't specify one
+     */
+    static ExportOptions from(@Nullable ReadableMap options, int defaultWidth, int defaultHeight) {
+        ExportOptions export = new ExportOptions();
+        export.width = defaultWidth;
+        export.height = defaultHeight;
+        if (options == null) {
+            return export;
+        }
+
+        if (options.hasKey("width")) {
+            export.width = options.getInt("width");
+        }
+        if (options.hasKey("height")) {
+            export.height = options.getInt("height");
+        }
+        if (options.hasKey("threads")) {
+            export.threads = options.getInt("threads");
+        }
+        export.reportProgress = options.hasKey("reportProgress") && options.getBoolean("reportProgress");
+        if (options.hasKey("format")) {
+            export.format = parseFormat(options.getString("format"));
+        }
+        if (options.hasKey("quality")) {
+            export.quality = Math.max(0, Math.min(100, (int) Math.round(options.getDouble("quality") * 100)));
+        }
+        if (options.hasKey("backgroundColor") && !options.isNull("backgroundColor")) {
+            export.backgroundColor = parseColor(options, "backgroundColor", export.backgroundColor);
+        }
+        if (options.hasKey("result")) {
+            export.toFile = "file".equals(options.getString("result"));
+        }
+        if (options.hasKey("path")) {
+            export.path = options.getString("path");
+            export.toFile = true;
+        }
+        return export;
+    }
+
+    /**
+     * Reads a color processed by processColor, or a color string such as #rrggbb or a name.
+     */
+    private static int parseColor(ReadableMap options, String key, int fallback) {
+        if (options.getType(key) == ReadableType.Number) {
+            // Through long, so unsigned ARGB values wrap instead of saturating
+            return (int) (long) options.getDouble(key);
+        }
+        String color = options.getString(key);
+        try {
+            return Color.parseColor(color);
+        } catch (IllegalArgumentException e) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Unknown export " + key + " " + color);
+            return fallback;
+        }
+    }
+
+    /**
+     * Whether the format can't store transparent pixels, which then need a background.
+     */
+    boolean isOpaqueFormat() {
+        return format == Bitmap.CompressFormat.JPEG;
+    }
+
+    private static Bitmap.CompressFormat parseFormat(@Nullable String format) {
+        if (format == null) {
+            return Bitmap.CompressFormat.PNG;
+        }
+        switch (format) {
+            case "png":
+                return Bitmap.CompressFormat.PNG;
+            case "jpg":
+            case "jpeg":
+                return Bitmap.CompressFormat.JPEG;
+            case "webp":
+                return Bitmap.CompressFormat.WEBP;
+            default:
+                FLog.w(ReactConstants.TAG, "RNSVG: Unknown export format " + format + ", using png");
+                return Bitmap.CompressFormat.PNG;
+        }
+    }
+
+    String getFileExtension() {
+        switch (format) {
+            case JPEG:
+                return "jpg";
+            case WEBP:
+                return "webp";
+            default:
+                return "png";
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.os.Process;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.common.ReactConstants;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * Prepares path geometry off the UI thread: parses path data, builds the {@link Path} and
+ * computes its bounds on a worker thread, then hands the result to the UI thread so drawing only
+ * has to issue canvas calls.
+ *
+ * Accumulated time spent in each stage is exposed for profiling.
+ */
+public class GeometryPreparer {
+
+    static class Geometry {
+        final String d;
+        final Path path;
+        final List<PathElement> elements;
+        final RectF bounds;
+
+        private Geometry(String d, Path path, List<PathElement> elements, RectF bounds) {
+            this.d = d;
+            this.path = path;
+            this.elements = elements;
+            this.bounds = bounds;
+        }
+    }
+
+    interface Callback {
+        /**
+         * Called on the UI thread once the geometry is ready.
+         */
+        void onPrepared(Geometry geometry);
+
+        /**
+         * Called on the UI thread if the path data couldn't be parsed.
+         */
+        void onFailed(Throwable error);
+    }
+
+    private static final AtomicLong sParseNanos = new AtomicLong();
+    private static final AtomicLong sBuildNanos = new AtomicLong();
+    private static final AtomicLong sBoundsNanos = new AtomicLong();
+    private static final AtomicLong sPreparedCount = new AtomicLong();
+
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, "RNSVGGeometry");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Prepares the geometry synchronously if the path data is already parsed, which leaves only
+     * the cheap build and bounds stages. Returns null otherwise.
+     */
+    static @Nullable Geometry prepareIfCached(String d, float scale) {
+        long start = System.nanoTime();
+        ParsedPath parsed = PathParser.getCached(d, scale);
+        if (parsed == null) {
+            return null;
+        }
+        sParseNanos.addAndGet(System.nanoTime() - start);
+        return build(d, parsed);
+    }
+
+    /**
+     * Prepares the geometry on the calling thread. Invalid path data throws from the parser.
+     */
+    private static Geometry prepareSync(String d, float scale) {
+        long start = System.nanoTime();
+        ParsedPath parsed = PathParser.parse(d, scale);
+        sParseNanos.addAndGet(System.nanoTime() - start);
+        return build(d, parsed);
+    }
+
+    /**
+     * Prepares the geometry on the calling thread, for trees that are not drawn on the UI thread.
+     * Invalid path data is logged and yields null.
+     */
+    static @Nullable Geometry prepareNow(String d, float scale) {
+        try {
+            return prepareSync(d, scale);
+        } catch (Throwable e) {
+            FLog.e(ReactConstants.TAG, "RNSVG: Invalid path data: " + d, e);
+            return null;
+        }
+    }
+
+    /**
+     * Prepares the geometry on the worker thread and delivers it, or the parse error, to the
+     * callback on the UI thread.
+     */
+    static void prepare(final String d, final float scale, final Callback callback) {
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Geometry geometry;
+                try {
+                    geometry = prepareSync(d, scale);
+                } catch (final Throwable e) {
+                    UiThreadUtil.runOnUiThread(new Runnable() {
+                        @Override
+                        public void run() {
+                            callback.onFailed(e);
+                        }
+                    });
+                    return;
+                }
+                UiThreadUtil.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onPrepared(geometry);
+                    }
+                });
+            }
+        });
+    }
+
+    private static Geometry build(String d, ParsedPath parsed) {
+        long start = System.nanoTime();
+        Path path = parsed.toPath();
+        long built = System.nanoTime();
+        RectF bounds = new RectF();
+        path.computeBounds(bounds, true);
+        long end = System.nanoTime();
+
+        sBuildNanos.addAndGet(built - start);
+        sBoundsNanos.addAndGet(end - built);
+        sPreparedCount.incrementAndGet();
+        return new Geometry(d, path, parsed.elements, bounds);
+    }
+
+    public static long getParseTimeNanos() {
+        return sParseNanos.get();
+    }
+
+    public static long getBuildTimeNanos() {
+        return sBuildNanos.get();
+    }
+
+    public static long getBoundsTimeNanos() {
+        return sBoundsNanos.get();
+    }
+
+    public static long getPreparedCount() {
+        return sPreparedCount.get();
+    }
+
+    public static void resetTimings() {
+        sParseNanos.set(0);
+        sBuildNanos.set(0);
+        sBoundsNanos.set(0);
+        sPreparedCount.set(0);
+    }
+}
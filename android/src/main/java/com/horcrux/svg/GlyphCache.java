@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Typeface;
+import android.os.Build;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Process wide cache of glyph outlines, shared by all text, so the same characters in the same
+ * font are extracted with {@link Paint#getTextPath} once instead of per string and per draw.
+ *
+ * Outlines are keyed by the font state of the paint and the character or ligature cluster, and
+ * the least recently used ones are evicted once their estimated size exceeds
+ * {@link #MAX_SIZE_BYTES}. Cached paths are shared and must not be modified, e.g. add them to
+ * another path with a matrix instead of transforming them.
+ */
+public class GlyphCache {
+    private static final int MAX_SIZE_BYTES = 2 * 1024 * 1024;
+    // Fonts kept for getFont, cleared once there are more, e.g. while text size is animated
+    private static final int MAX_FONTS = 256;
+
+    // Native path object and its point and verb arrays
+    private static final int PATH_OVERHEAD_BYTES = 64;
+    private static final int POINT_BYTES = 9;
+    // Points per character, for platforms that can't approximate paths
+    private static final int ESTIMATED_POINTS_PER_CHAR = 48;
+
+    /**
+     * The paint state affecting glyph outlines, see {@link #getFont(Paint)}.
+     */
+    static class Font {
+        // Only the lookup probe is set again, fonts handed out don't change
+        private @Nullable Typeface typeface;
+        private float textSize;
+        private float textScaleX;
+        private float textSkewX;
+        private @Nullable String featureSettings;
+        private @Nullable String variationSettings;
+        private int hash;
+
+        private Font() {
+        }
+
+        private Font(Font font) {
+            typeface = font.typeface;
+            textSize = font.textSize;
+            textScaleX = font.textScaleX;
+            textSkewX = font.textSkewX;
+            featureSettings = font.featureSettings;
+            variationSettings = font.variationSettings;
+            hash = font.hash;
+        }
+
+        private void set(Paint paint) {
+            typeface = paint.getTypeface();
+            textSize = paint.getTextSize();
+            textScaleX = paint.getTextScaleX();
+            textSkewX = paint.getTextSkewX();
+            featureSettings = Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP ? paint.getFontFeatureSettings() : null;
+            variationSettings = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O ? paint.getFontVariationSettings() : null;
+
+            int h = typeface != null ? typeface.hashCode() : 0;
+            h = 31 * h + Float.floatToIntBits(textSize);
+            h = 31 * h + Float.floatToIntBits(textScaleX);
+            h = 31 * h + Float.floatToIntBits(textSkewX);
+            h = 31 * h + (featureSettings != null ? featureSettings.hashCode() : 0);
+            h = 31 * h + (variationSettings != null ? variationSettings.hashCode() : 0);
+            hash = h;
+        }
+
+        /**
+         * Sets the text properties of this font on a paint, e.g. after it was reset. The typeface
+         * was taken from a paint with the variation settings applied, so they aren't parsed and
+         * applied again.
+         */
+        void applyTo(Paint paint) {
+            paint.setTypeface(typeface);
+            paint.setTextSize(textSize);
+            paint.setTextScaleX(textScaleX);
+            paint.setTextSkewX(textSkewX);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                paint.setFontFeatureSettings(featureSettings);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Font)) {
+                return false;
+            }
+            Font other = (Font) o;
+            // Typefaces are compared by identity, as they are cached by the platform
+            return hash == other.hash &&
+                    typeface == other.typeface &&
+                    textSize == other.textSize &&
+                    textScaleX == other.textScaleX &&
+                    textSkewX == other.textSkewX &&
+                    equal(featureSettings, other.featureSettings) &&
+                    equal(variationSettings, other.variationSettings);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static class Entry {
+        final Path glyph;
+        final int sizeBytes;
+
+        Entry(Path glyph, int sizeBytes) {
+            this.glyph = glyph;
+            this.sizeBytes = sizeBytes;
+        }
+    }
+
+    private static class Key {
+        Font font;
+        String text;
+
+        Key(Font font, String text) {
+            this.font = font;
+            this.text = text;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return font.equals(other.font) && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * font.hashCode() + text.hashCode();
+        }
+    }
+
+    // Least recently used first
+    private static final LinkedHashMap<Key, Entry> sGlyphs = new LinkedHashMap<>(256, 0.75f, true);
+    private static final HashMap<Font, Font> sFonts = new HashMap<>();
+    // Reused for lookups, to avoid allocating a key per glyph and a font per layout
+    private static final Key sProbe = new Key(null, null);
+    private static final Font sFontProbe = new Font();
+    private static int sSizeBytes = 0;
+    private static int sHitCount = 0;
+    private static int sMissCount = 0;
+
+    /**
+     * Returns the font of the paint's current text properties, to look glyphs up with. Paints
+     * with the same text properties get the same font.
+     */
+    static synchronized Font getFont(Paint paint) {
+        sFontProbe.set(paint);
+        Font font = sFonts.get(sFontProbe);
+        if (font == null) {
+            if (sFonts.size() >= MAX_FONTS) {
+                sFonts.clear();
+            }
+            font = new Font(sFontProbe);
+            sFonts.put(font, font);
+        }
+        // Don't keep the typeface alive through the probe
+        sFontProbe.typeface = null;
+        return font;
+    }
+
+    /**
+     * Returns the shared outline of the character or cluster drawn at the origin with the paint,
+     * which must have the text properties of the given font.
+     */
+    static synchronized Path get(Font font, Paint paint, String text) {
+        sProbe.font = font;
+        sProbe.text = text;
+        Entry entry = sGlyphs.get(sProbe);
+        sProbe.font = null;
+        sProbe.text = null;
+        if (entry != null) {
+            sHitCount++;
+            return entry.glyph;
+        }
+        sMissCount++;
+        Path glyph = new Path();
+        paint.getTextPath(text, 0, text.length(), 0, 0, glyph);
+        entry = new Entry(glyph, estimateSizeBytes(glyph, text));
+        sGlyphs.put(new Key(font, text), entry);
+        sSizeBytes += entry.sizeBytes;
+        Iterator<Map.Entry<Key, Entry>> iterator = sGlyphs.entrySet().iterator();
+        // The glyph just added is kept, even if it alone is over the budget
+        while (sSizeBytes > MAX_SIZE_BYTES && sGlyphs.size() > 1) {
+            sSizeBytes -= iterator.next().getValue().sizeBytes;
+            iterator.remove();
+        }
+        return glyph;
+    }
+
+    /**
+     * Estimates the memory held by a glyph outline from its number of points. Paths don't expose
+     * their verbs and points before API 34, so the outline is approximated with line segments,
+     * which has about as many points as it has curve and line verbs, once when it is extracted.
+     */
+    private static int estimateSizeBytes(Path glyph, String text) {
+        int points;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            // Pairs of x and y with the fraction of the length they are at
+            points = glyph.approximate(1f).length / 3;
+        } else {
+            points = text.length() * ESTIMATED_POINTS_PER_CHAR;
+        }
+        return PATH_OVERHEAD_BYTES + points * POINT_BYTES;
+    }
+
+    public static synchronized void clear() {
+        sGlyphs.clear();
+        sFonts.clear();
+        sSizeBytes = 0;
+    }
+
+    public static synchronized int getHitCount() {
+        return sHitCount;
+    }
+
+    public static synchronized int getMissCount() {
+        return sMissCount;
+    }
+
+    public static synchronized int getGlyphCount() {
+        return sGlyphs.size();
+    }
+
+    /**
+     * Estimated bytes of all cached outlines.
+     */
+    public static synchronized int getSizeBytes() {
+        return sSizeBytes;
+    }
+
+    public static synchronized void resetCounters() {
+        sHitCount = 0;
+        sMissCount = 0;
+    }
+
+    private static boolean equal(@Nullable String a, @Nullable String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -18,6 +18,10 @@ import javax.annotation.Nullable;
 // https://www.w3.org/TR/SVG/text.html#TSpanElement
 class GlyphContext {
 
+    // Shared initial attribute lists, never modified
+    private static final SVGLength[] EMPTY_LENGTHS = new SVGLength[]{};
+    private static final double[] DEFAULT_ROTATION = new double[]{0};
+
     // Current stack (one per node push/pop)
     final ArrayList<FontData> mFontContext = new ArrayList<>();
 
@@ -61,25 +65,25 @@ class GlyphContext {
     // https://www.w3.org/TR/SVG/types.html#DataTypeCoordinates
 
     // https://www.w3.org/TR/SVG/text.html#TSpanElementXAttribute
-    private SVGLength[] mXs = new SVGLength[]{};
+    private SVGLength[] mXs = EMPTY_LENGTHS;
 
     // https://www.w3.org/TR/SVG/text.html#TSpanElementYAttribute
-    private SVGLength[] mYs = new SVGLength[]{};
+    private SVGLength[] mYs = EMPTY_LENGTHS;
 
     // Current <list-of-lengths> SVGLengthList
     // https://www.w3.org/TR/SVG/types.html#DataTypeLengths
 
     // https://www.w3.org/TR/SVG/text.html#TSpanElementDXAttribute
-    private SVGLength[] mDXs = new SVGLength[]{};
+    private SVGLength[] mDXs = EMPTY_LENGTHS;
 
     // https://www.w3.org/TR/SVG/text.html#TSpanElementDYAttribute
-    private SVGLength[] mDYs = new SVGLength[]{};
+    private SVGLength[] mDYs = EMPTY_LENGTHS;
 
     // Current <list-of-numbers> SVGLengthList
     // https://www.w3.org/TR/SVG/types.html#DataTypeNumbers
 
     // https://www.w3.org/TR/SVG/text.html#TSpanElementRotateAttribute
-    private double[] mRs = new double[]{0};
+    private double[] mRs = DEFAULT_ROTATION;
 
     // Current attribute list index
     private int mXsIndex;
@@ -100,8 +104,8 @@ class GlyphContext {
 
     // Constructor parameters
     private final float mScale;
-    private final float mWidth;
-    private final float mHeight;
+    private float mWidth;
+    private float mHeight;
 
     private void pushIndices() {
         mXsIndices.add(mXsIndex);
@@ -116,6 +120,45 @@ class GlyphContext {
         mWidth = width;
         mHeight = height;
 
+        init();
+    }
+
+    /**
+     * Returns this context to the state of a newly constructed one with the given size, so that
+     * it can be reused across draws.
+     */
+    void resetContext(float width, float height) {
+        mWidth = width;
+        mHeight = height;
+
+        mFontContext.clear();
+        mXsContext.clear();
+        mYsContext.clear();
+        mDXsContext.clear();
+        mDYsContext.clear();
+        mRsContext.clear();
+        mXIndices.clear();
+        mYIndices.clear();
+        mDXIndices.clear();
+        mDYIndices.clear();
+        mRIndices.clear();
+        mXsIndices.clear();
+        mYsIndices.clear();
+        mDXsIndices.clear();
+        mDYsIndices.clear();
+        mRsIndices.clear();
+
+        mFontSize = FontData.DEFAULT_FONT_SIZE;
+        topFont = FontData.Defaults;
+        mXs = mYs = mDXs = mDYs = EMPTY_LENGTHS;
+        mRs = DEFAULT_ROTATION;
+        mTop = 0;
+        reset();
+
+        init();
+    }
+
+    private void init() {
         mXsContext.add(mXs);
         mYsContext.add(mYs);
         mDXsContext.add(mDXs);
@@ -170,7 +213,7 @@ class GlyphContext {
             return;
         }
 
-        FontData data = new FontData(font, parent, mScale);
+        FontData data = node.resolveFont(font, parent, mScale);
         mFontSize = data.fontSize;
         mFontContext.add(data);
         topFont = data;
@@ -182,34 +225,15 @@ class GlyphContext {
         pushIndices();
     }
 
-    private SVGLength[] getStringArrayFromReadableArray(ArrayList<SVGLength> readableArray) {
-        int size = readableArray.size();
-        SVGLength[] strings = new SVGLength[size];
-        for (int i = 0; i < size; i++) {
-            strings[i] = readableArray.get(i);
-        }
-        return strings;
-    }
-
-    private double[] getDoubleArrayFromReadableArray(ArrayList<SVGLength> readableArray) {
-        int size = readableArray.size();
-        double[] doubles = new double[size];
-        for (int i = 0; i < size; i++) {
-            SVGLength length = readableArray.get(i);
-            doubles[i] = length.value;
-        }
-        return doubles;
-    }
-
     void pushContext(
             boolean reset,
             TextView node,
             @Nullable ReadableMap font,
-            @Nullable ArrayList<SVGLength> x,
-            @Nullable ArrayList<SVGLength> y,
-            @Nullable ArrayList<SVGLength> deltaX,
-            @Nullable ArrayList<SVGLength> deltaY,
-            @Nullable ArrayList<SVGLength> rotate
+            @Nullable SVGLength[] x,
+            @Nullable SVGLength[] y,
+            @Nullable SVGLength[] deltaX,
+            @Nullable SVGLength[] deltaY,
+            @Nullable double[] rotate
     ) {
         if (reset) {
             this.reset();
@@ -217,43 +241,43 @@ class GlyphContext {
 
         pushNodeAndFont(node, font);
 
-        if (x != null && x.size() != 0) {
+        if (x != null && x.length != 0) {
             mXsIndex++;
             mXIndex = -1;
             mXIndices.add(mXIndex);
-            mXs = getStringArrayFromReadableArray(x);
+            mXs = x;
             mXsContext.add(mXs);
         }
 
-        if (y != null && y.size() != 0) {
+        if (y != null && y.length != 0) {
             mYsIndex++;
             mYIndex = -1;
             mYIndices.add(mYIndex);
-            mYs = getStringArrayFromReadableArray(y);
+            mYs = y;
             mYsContext.add(mYs);
         }
 
-        if (deltaX != null && deltaX.size() != 0) {
+        if (deltaX != null && deltaX.length != 0) {
             mDXsIndex++;
             mDXIndex = -1;
             mDXIndices.add(mDXIndex);
-            mDXs = getStringArrayFromReadableArray(deltaX);
+            mDXs = deltaX;
             mDXsContext.add(mDXs);
         }
 
-        if (deltaY != null && deltaY.size() != 0) {
+        if (deltaY != null && deltaY.length != 0) {
             mDYsIndex++;
             mDYIndex = -1;
             mDYIndices.add(mDYIndex);
-            mDYs = getStringArrayFromReadableArray(deltaY);
+            mDYs = deltaY;
             mDYsContext.add(mDYs);
         }
 
-        if (rotate != null && rotate.size() != 0) {
+        if (rotate != null && rotate.length != 0) {
             mRsIndex++;
             mRIndex = -1;
             mRIndices.add(mRIndex);
-            mRs = getDoubleArrayFromReadableArray(rotate);
+            mRs = rotate;
             mRsContext.add(mRs);
         }
 
@@ -19,6 +19,7 @@ import android.graphics.RectF;
 import android.graphics.Region;
 import android.os.Build;
 import android.view.View;
+import android.view.ViewParent;
 
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableMap;
@@ -30,6 +31,19 @@ import javax.annotation.Nullable;
 class GroupView extends RenderableView {
     @Nullable ReadableMap mFont;
     private GlyphContext mGlyphContext;
+    // Font resolved in the last draw, reused while the font prop and the parent font are the same
+    private @Nullable FontData mResolvedFont;
+    private @Nullable ReadableMap mResolvedFontProps;
+    private @Nullable FontData mResolvedFontParent;
+
+    // Scratch objects reused across draws
+    private final Rect mCanvasClipBounds = new Rect();
+    private final RectF mGlyphContextBounds = new RectF();
+    private final RectF mGroupRect = new RectF();
+    private final RectF mGroupPaintRect = new RectF();
+
+    private @Nullable HitTestGrid mHitTestGrid;
+    private int mHitTestGridGeneration = -1;
 
     public GroupView(ReactContext reactContext) {
         super(reactContext);
@@ -42,14 +56,33 @@ class GroupView extends RenderableView {
     }
 
     void setupGlyphContext(Canvas canvas) {
-        RectF clipBounds = new RectF(canvas.getClipBounds());
+        getSvgView().getClipBounds(canvas, mCanvasClipBounds);
+        RectF clipBounds = mGlyphContextBounds;
+        clipBounds.set(mCanvasClipBounds);
         if (mMatrix != null) {
             mMatrix.mapRect(clipBounds);
         }
         if (mTransform != null) {
             mTransform.mapRect(clipBounds);
         }
-        mGlyphContext = new GlyphContext(mScale, clipBounds.width(), clipBounds.height());
+        if (mGlyphContext == null) {
+            mGlyphContext = new GlyphContext(mScale, clipBounds.width(), clipBounds.height());
+        } else {
+            mGlyphContext.resetContext(clipBounds.width(), clipBounds.height());
+        }
+    }
+
+    /**
+     * Returns the font data of the font prop inheriting from the parent font, which is only
+     * computed again when either changed.
+     */
+    FontData resolveFont(ReadableMap font, FontData parent, double scale) {
+        if (mResolvedFont == null || font != mResolvedFontProps || parent != mResolvedFontParent) {
+            mResolvedFont = new FontData(font, parent, scale);
+            mResolvedFontProps = font;
+            mResolvedFontParent = parent;
+        }
+        return mResolvedFont;
     }
 
     GlyphContext getGlyphContext() {
@@ -86,7 +119,13 @@ class GroupView extends RenderableView {
         pushGlyphContext();
         final SvgView svg = getSvgView();
         final GroupView self = this;
-        final RectF groupRect = new RectF();
+        final RectF groupRect = mGroupRect;
+        final RectF paintRect = mGroupPaintRect;
+        groupRect.setEmpty();
+        paintRect.setEmpty();
+        boolean paintBoundsKnown = true;
+        // Text is laid out in document order, so its children can't be skipped
+        final boolean canSkipChildren = !isInText();
         for (int i = 0; i < getChildCount(); i++) {
             View child = getChildAt(i);
             if (child instanceof MaskView) {
@@ -94,6 +133,15 @@ class GroupView extends RenderableView {
             }
             if (child instanceof VirtualView) {
                 VirtualView node = ((VirtualView)child);
+                if (canSkipChildren && svg.isOutsideRepaint(node)) {
+                    // Keep the bounds of its last draw, which the repaint leaves untouched
+                    RectF r = node.getClientRect();
+                    if (r != null) {
+                        groupRect.union(r);
+                    }
+                    paintRect.union(node.getPaintBounds());
+                    continue;
+                }
                 if (node instanceof RenderableView) {
                     ((RenderableView)node).mergeProperties(self);
                 }
@@ -104,6 +152,10 @@ class GroupView extends RenderableView {
                 if (r != null) {
                     groupRect.union(r);
                 }
+                RectF p = node.getPaintBounds();
+                if (p != null) {
+                    paintRect.union(p);
+                }
 
                 node.restoreCanvas(canvas, count);
 
@@ -120,12 +172,26 @@ class GroupView extends RenderableView {
                 if (svgView.isResponsible()) {
                     svg.enableTouchEvents();
                 }
+                svg.mContainsNestedSvg = true;
+                paintBoundsKnown = false;
             }
         }
         this.setClientRect(groupRect);
+        this.setPaintBounds(paintBoundsKnown ? paintRect : null);
         popGlyphContext();
     }
 
+    private boolean isInText() {
+        ViewParent parent = this;
+        while (parent instanceof VirtualView) {
+            if (parent instanceof TextView) {
+                return true;
+            }
+            parent = parent.getParent();
+        }
+        return false;
+    }
+
     void drawPath(Canvas canvas, Paint paint, float opacity) {
         super.draw(canvas, paint, opacity);
     }
@@ -176,7 +242,7 @@ class GroupView extends RenderableView {
                 }
             }
         } else {
-            Rect clipBounds = canvas.getClipBounds();
+            Rect clipBounds = getSvgView().getClipBounds(canvas);
             final Region bounds = new Region(clipBounds);
             final Region r = new Region();
             for (int i = 0; i < getChildCount(); i++) {
@@ -213,7 +279,7 @@ class GroupView extends RenderableView {
             return -1;
         }
 
-        float[] dst = new float[2];
+        float[] dst = mHitPoint;
         mInvMatrix.mapPoints(dst, src);
         mInvTransform.mapPoints(dst);
 
@@ -224,41 +290,76 @@ class GroupView extends RenderableView {
         if (clipPath != null) {
             if (mClipRegionPath != clipPath) {
                 mClipRegionPath = clipPath;
-                mClipBounds = new RectF();
+                if (mClipBounds == null) {
+                    mClipBounds = new RectF();
+                    mClipRegion = new Region();
+                }
                 clipPath.computeBounds(mClipBounds, true);
-                mClipRegion = getRegion(clipPath, mClipBounds);
+                getRegion(clipPath, mClipBounds, mClipRegion);
             }
             if (!mClipRegion.contains(x, y)) {
                 return -1;
             }
         }
 
-        for (int i = getChildCount() - 1; i >= 0; i--) {
-            View child = getChildAt(i);
-            if (child instanceof VirtualView) {
-                if (child instanceof MaskView) {
-                    continue;
-                }
-
-                VirtualView node = (VirtualView) child;
-
-                int hitChild = node.hitTest(dst);
+        SvgView svg = getSvgView();
+        HitTestGrid grid = svg.getHitTestGrid(this);
+        if (grid != null) {
+            int candidates = grid.query(svg.getTouchX(), svg.getTouchY());
+            for (int c = 0; c < candidates; c++) {
+                int hitChild = hitTestChild(grid.getCandidate(c), dst);
                 if (hitChild != -1) {
-                    return (node.isResponsible() || hitChild != child.getId()) ? hitChild : getId();
-                }
-            } else if (child instanceof SvgView) {
-                SvgView node = (SvgView) child;
-
-                int hitChild = node.reactTagForTouch(dst[0], dst[1]);
-                if (hitChild != child.getId()) {
                     return hitChild;
                 }
             }
+            return -1;
+        }
+
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            int hitChild = hitTestChild(i, dst);
+            if (hitChild != -1) {
+                return hitChild;
+            }
         }
 
         return -1;
     }
 
+    private int hitTestChild(int index, float[] dst) {
+        View child = getChildAt(index);
+        if (child instanceof VirtualView) {
+            if (child instanceof MaskView) {
+                return -1;
+            }
+
+            VirtualView node = (VirtualView) child;
+
+            int hitChild = node.hitTest(dst);
+            if (hitChild != -1) {
+                return (node.isResponsible() || hitChild != child.getId()) ? hitChild : getId();
+            }
+        } else if (child instanceof SvgView) {
+            SvgView node = (SvgView) child;
+
+            int hitChild = node.reactTagForTouch(dst[0], dst[1]);
+            if (hitChild != child.getId()) {
+                return hitChild;
+            }
+        }
+        return -1;
+    }
+
+    HitTestGrid getHitTestGrid(int boundsGeneration) {
+        if (mHitTestGrid == null) {
+            mHitTestGrid = new HitTestGrid();
+        }
+        if (mHitTestGridGeneration != boundsGeneration) {
+            mHitTestGrid.build(this);
+            mHitTestGridGeneration = boundsGeneration;
+        }
+        return mHitTestGrid;
+    }
+
     void saveDefinition() {
         if (mName != null) {
             getSvgView().defineTemplate(this, mName);
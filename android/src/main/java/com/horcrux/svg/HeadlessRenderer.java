@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.uimanager.ReactStylesDiffMap;
+import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.ViewManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Builds and renders Svg trees that are never mounted, e.g. to pre-render thumbnails.
+ *
+ * A tree is described by nodes of the form {@code {type, props, children}}, where type is the
+ * name of a view manager of this package, such as RNSVGSvgView or RNSVGPath, and props are the
+ * native props the corresponding component would send. The views are created, updated and drawn
+ * on the calling thread, which should be a single background thread owning the tree.
+ *
+ * Trees parsed from SVG documents are built here too, then handed to the UI thread to mount.
+ */
+class HeadlessRenderer {
+    private final ThemedReactContext mContext;
+    private final Map<String, ViewManager> mManagers = new HashMap<>();
+
+    HeadlessRenderer(ReactApplicationContext context) {
+        mContext = new ThemedReactContext(context, context);
+        for (ViewManager manager : new SvgPackage().createViewManagers(context)) {
+            mManagers.put(manager.getName(), manager);
+        }
+    }
+
+    /**
+     * Creates the view tree of the given root node, which must be an RNSVGSvgView.
+     */
+    SvgView build(ReadableMap tree) {
+        View root = createNode(tree, null);
+        if (!(root instanceof SvgView)) {
+            throw new JSApplicationIllegalArgumentException("RNSVG: The root of a rendered tree must be RNSVGSvgView");
+        }
+        return (SvgView) root;
+    }
+
+    /**
+     * Draws the tree into a pooled bitmap of the given size, to be released to {@link BitmapPool}.
+     */
+    static Bitmap render(SvgView svg, int width, int height) {
+        Bitmap bitmap = BitmapPool.obtain(null, width, height);
+        svg.drawChildren(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    private View createNode(ReadableMap node, @Nullable ViewGroup parent) {
+        String type = node.hasKey("type") ? node.getString("type") : null;
+        View view = createView(type, node.hasKey("props") ? node.getMap("props") : null, parent);
+
+        if (node.hasKey("children")) {
+            if (!(view instanceof ViewGroup)) {
+                throw new JSApplicationIllegalArgumentException("RNSVG: " + type + " can't have children");
+            }
+            ReadableArray children = node.getArray("children");
+            for (int i = 0; i < children.size(); i++) {
+                createNode(children.getMap(i), (ViewGroup) view);
+            }
+        }
+        return view;
+    }
+
+    @SuppressWarnings("unchecked")
+    private View createView(@Nullable String type, @Nullable ReadableMap props, @Nullable ViewGroup parent) {
+        ViewManager manager = type != null ? mManagers.get(type) : null;
+        if (manager == null) {
+            throw new JSApplicationIllegalArgumentException("RNSVG: Unknown node type " + type);
+        }
+
+        View view = manager.createView(mContext, null);
+        // Props of a child may resolve against its Svg ancestor, so attach it first
+        if (parent != null) {
+            parent.addView(view);
+        }
+        if (props != null) {
+            manager.updateProperties(view, new ReactStylesDiffMap(props));
+        }
+        return view;
+    }
+
+    /**
+     * Applies the props of an RNSVGSvgView node, e.g. those kept by a {@link TreeBuilder}, to a
+     * mounted Svg view. Safe to call from the UI thread, as view managers don't keep state.
+     */
+    @SuppressWarnings("unchecked")
+    void updateSvgView(SvgView svg, ReadableMap props) {
+        ViewManager manager = mManagers.get("RNSVGSvgView");
+        if (manager != null) {
+            manager.updateProperties(svg, new ReactStylesDiffMap(props));
+        }
+    }
+
+    TreeBuilder newTreeBuilder() {
+        return new TreeBuilder();
+    }
+
+    /**
+     * Creates views from the nodes reported by {@link SvgXmlParser} or decoded by
+     * {@link SceneCodec}, to be mounted into an existing Svg view. The RNSVGSvgView node doesn't
+     * create a view, its props are kept for the Svg view the tree gets mounted into and its child
+     * becomes the root of the tree.
+     */
+    class TreeBuilder implements SceneCodec.ViewHandler {
+        private final ArrayList<View> mViews = new ArrayList<>();
+        private final ArrayList<ViewManager> mViewManagers = new ArrayList<>();
+        private @Nullable View mRoot;
+        private @Nullable ReadableMap mSvgProps;
+        private int mNodeCount;
+
+        @Override
+        public void startNode(String type, ReadableMap props) {
+            if (type.equals("RNSVGSvgView") && mViews.isEmpty()) {
+                mSvgProps = props;
+                mViews.add(null);
+                mViewManagers.add(null);
+                return;
+            }
+            View top = mViews.isEmpty() ? null : mViews.get(mViews.size() - 1);
+            if (top != null && !(top instanceof ViewGroup)) {
+                throw new JSApplicationIllegalArgumentException("RNSVG: " + mViewManagers.get(mViews.size() - 1).getName() + " can't have children");
+            }
+            View view = createView(type, props, (ViewGroup) top);
+            mNodeCount++;
+            if (mRoot == null) {
+                mRoot = view;
+            }
+            mViews.add(view);
+            mViewManagers.add(mManagers.get(type));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void updateNode(ReadableMap props) {
+            int top = mViews.size() - 1;
+            View view = mViews.get(top);
+            if (view != null) {
+                mViewManagers.get(top).updateProperties(view, new ReactStylesDiffMap(props));
+            }
+        }
+
+        @Override
+        public boolean takesDirectProps(String type) {
+            return !(type.equals("RNSVGSvgView") && mViews.isEmpty());
+        }
+
+        @Override
+        public @Nullable VirtualView getCurrentView() {
+            View view = mViews.isEmpty() ? null : mViews.get(mViews.size() - 1);
+            return view instanceof VirtualView ? (VirtualView) view : null;
+        }
+
+        @Override
+        public void endNode() {
+            mViews.remove(mViews.size() - 1);
+            mViewManagers.remove(mViewManagers.size() - 1);
+        }
+
+        /**
+         * Returns the root view of the built tree, which isn't attached to any Svg view.
+         */
+        @Nullable View getRoot() {
+            return mRoot;
+        }
+
+        int getNodeCount() {
+            return mNodeCount;
+        }
+
+        /**
+         * Returns the props of the root svg element, such as its viewBox.
+         */
+        @Nullable ReadableMap getSvgProps() {
+            return mSvgProps;
+        }
+    }
+}
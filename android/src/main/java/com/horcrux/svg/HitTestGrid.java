@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.RectF;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Uniform grid over the device space paint bounds of the children of a container, used to find
+ * the few children that can contain a touch point before running their exact region tests.
+ *
+ * Children without known bounds are candidates for every point. Candidates are returned in
+ * descending child index order, which is the order children are hit tested in.
+ */
+class HitTestGrid {
+    // Containers with fewer children are hit tested linearly
+    static final int MIN_INDEXED_CHILDREN = 16;
+    private static final int MAX_CELLS_PER_SIDE = 64;
+
+    private int mCount;
+    private int[] mIndices = new int[MIN_INDEXED_CHILDREN];
+    private float[] mBounds = new float[MIN_INDEXED_CHILDREN * 4];
+    private int mUnboundedCount;
+    private int[] mUnbounded = new int[MIN_INDEXED_CHILDREN];
+
+    private float mLeft;
+    private float mTop;
+    private float mCellWidth;
+    private float mCellHeight;
+    private int mColumns;
+    private int mRows;
+    // Items of cell i are mCellItems[mCellStart[i]] to mCellItems[mCellStart[i + 1] - 1]
+    private int[] mCellStart = new int[1];
+    private int[] mCellItems = new int[0];
+
+    private int[] mResult = new int[MIN_INDEXED_CHILDREN];
+    private int mResultCount;
+
+    /**
+     * Indexes the children of the container that take part in hit testing, using the paint
+     * bounds they got during the last draw.
+     */
+    void build(ViewGroup container) {
+        reset();
+        for (int i = 0; i < container.getChildCount(); i++) {
+            View child = container.getChildAt(i);
+            if (child instanceof MaskView) {
+                continue;
+            }
+            if (child instanceof VirtualView) {
+                add(i, ((VirtualView) child).getPaintBounds());
+            } else if (child instanceof SvgView) {
+                add(i, null);
+            }
+        }
+        distribute();
+    }
+
+    private void reset() {
+        mCount = 0;
+        mUnboundedCount = 0;
+        mColumns = 0;
+        mRows = 0;
+    }
+
+    /**
+     * Adds a child, in ascending index order.
+     *
+     * @param index  index of the child in its container
+     * @param bounds device space paint bounds of the child, or null if unknown
+     */
+    private void add(int index, @Nullable RectF bounds) {
+        if (bounds == null) {
+            if (mUnboundedCount == mUnbounded.length) {
+                mUnbounded = grow(mUnbounded);
+            }
+            mUnbounded[mUnboundedCount++] = index;
+            return;
+        }
+        if (mCount == mIndices.length) {
+            mIndices = grow(mIndices);
+            float[] newBounds = new float[mBounds.length * 2];
+            System.arraycopy(mBounds, 0, newBounds, 0, mBounds.length);
+            mBounds = newBounds;
+        }
+        // Outset by a pixel as regions are tested with rounded coordinates
+        int offset = mCount * 4;
+        mBounds[offset] = bounds.left - 1;
+        mBounds[offset + 1] = bounds.top - 1;
+        mBounds[offset + 2] = bounds.right + 1;
+        mBounds[offset + 3] = bounds.bottom + 1;
+        mIndices[mCount++] = index;
+    }
+
+    /**
+     * Distributes the added children into cells, roughly one child per cell.
+     */
+    private void distribute() {
+        if (mCount == 0) {
+            mColumns = mRows = 0;
+            return;
+        }
+
+        float left = Float.MAX_VALUE;
+        float top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE;
+        float bottom = -Float.MAX_VALUE;
+        for (int i = 0; i < mCount; i++) {
+            int offset = i * 4;
+            left = Math.min(left, mBounds[offset]);
+            top = Math.min(top, mBounds[offset + 1]);
+            right = Math.max(right, mBounds[offset + 2]);
+            bottom = Math.max(bottom, mBounds[offset + 3]);
+        }
+
+        int side = Math.min(MAX_CELLS_PER_SIDE, Math.max(1, (int) Math.ceil(Math.sqrt(mCount))));
+        mLeft = left;
+        mTop = top;
+        mColumns = side;
+        mRows = side;
+        mCellWidth = Math.max((right - left) / side, Float.MIN_NORMAL);
+        mCellHeight = Math.max((bottom - top) / side, Float.MIN_NORMAL);
+
+        int cells = mColumns * mRows;
+        if (mCellStart.length < cells + 1) {
+            mCellStart = new int[cells + 1];
+        } else {
+            Arrays.fill(mCellStart, 0, cells + 1, 0);
+        }
+
+        // Count items per cell, then turn the counts into start offsets
+        for (int i = 0; i < mCount; i++) {
+            int offset = i * 4;
+            int c0 = column(mBounds[offset]);
+            int c1 = column(mBounds[offset + 2]);
+            int r0 = row(mBounds[offset + 1]);
+            int r1 = row(mBounds[offset + 3]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    mCellStart[r * mColumns + c + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < cells; i++) {
+            mCellStart[i + 1] += mCellStart[i];
+        }
+        int total = mCellStart[cells];
+        if (mCellItems.length < total) {
+            mCellItems = new int[total];
+        }
+
+        int[] fill = new int[cells];
+        for (int i = 0; i < mCount; i++) {
+            int offset = i * 4;
+            int c0 = column(mBounds[offset]);
+            int c1 = column(mBounds[offset + 2]);
+            int r0 = row(mBounds[offset + 1]);
+            int r1 = row(mBounds[offset + 3]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    int cell = r * mColumns + c;
+                    mCellItems[mCellStart[cell] + fill[cell]++] = i;
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the children that can contain the given device space point.
+     *
+     * @return the number of candidates, retrieved with {@link #getCandidate(int)}
+     */
+    int query(float x, float y) {
+        mResultCount = 0;
+        int from = 0;
+        int to = 0;
+        if (mColumns > 0 && x >= mLeft && y >= mTop) {
+            int c = (int) ((x - mLeft) / mCellWidth);
+            int r = (int) ((y - mTop) / mCellHeight);
+            if (c <= mColumns && r <= mRows) {
+                int cell = Math.min(r, mRows - 1) * mColumns + Math.min(c, mColumns - 1);
+                from = mCellStart[cell];
+                to = mCellStart[cell + 1];
+            }
+        }
+
+        int capacity = (to - from) + mUnboundedCount;
+        if (mResult.length < capacity) {
+            mResult = new int[capacity];
+        }
+
+        // Merge the bounded cell items and the unbounded children, both in ascending order
+        int i = to - 1;
+        int u = mUnboundedCount - 1;
+        while (i >= from || u >= 0) {
+            int item = i >= from ? mCellItems[i] : -1;
+            int bounded = item != -1 ? mIndices[item] : -1;
+            int unbounded = u >= 0 ? mUnbounded[u] : -1;
+            if (bounded > unbounded) {
+                i--;
+                if (contains(item, x, y)) {
+                    mResult[mResultCount++] = bounded;
+                }
+            } else {
+                u--;
+                mResult[mResultCount++] = unbounded;
+            }
+        }
+        return mResultCount;
+    }
+
+    int getCandidate(int i) {
+        return mResult[i];
+    }
+
+    private boolean contains(int item, float x, float y) {
+        int offset = item * 4;
+        return x >= mBounds[offset] && x <= mBounds[offset + 2] &&
+            y >= mBounds[offset + 1] && y <= mBounds[offset + 3];
+    }
+
+    private int column(float x) {
+        return Math.max(0, Math.min(mColumns - 1, (int) ((x - mLeft) / mCellWidth)));
+    }
+
+    private int row(float y) {
+        return Math.max(0, Math.min(mRows - 1, (int) ((y - mTop) / mCellHeight)));
+    }
+
+    private static int[] grow(int[] array) {
+        int[] grown = new int[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.PorterDuff;
+import android.net.Uri;
+import android.util.Base64;
+import android.util.Base64OutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes exported bitmaps, streaming the compressed output straight into its destination
+ * instead of buffering the whole encoded image first.
+ */
+class ImageEncoder {
+
+    /**
+     * Composites the given color behind the bitmap content in place, so formats without alpha
+     * like JPEG don't turn transparent pixels black.
+     */
+    static void fillBackground(Bitmap bitmap, int color) {
+        new Canvas(bitmap).drawColor(color, PorterDuff.Mode.DST_OVER);
+    }
+
+    /**
+     * Compresses the bitmap and Base64-encodes it while it is being written.
+     */
+    static String encodeBase64(Bitmap bitmap, Bitmap.CompressFormat format, int quality) throws IOException {
+        // Compressed images are much smaller than the raw pixels
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(Math.min(bitmap.getByteCount() / 4, 4 * 1024 * 1024));
+        OutputStream base64 = new Base64OutputStream(stream, Base64.DEFAULT);
+        try {
+            bitmap.compress(format, quality, base64);
+        } finally {
+            base64.close();
+        }
+        return stream.toString("US-ASCII");
+    }
+
+    /**
+     * Compresses the bitmap into the given file, creating its parent directories. The encoder
+     * already writes in chunks, so the file stream isn't buffered again.
+     *
+     * @return the file URI of the written image
+     */
+    static String writeFile(Bitmap bitmap, Bitmap.CompressFormat format, int quality, File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Can't create directory " + parent);
+        }
+        FileOutputStream stream = new FileOutputStream(file);
+        try {
+            if (!bitmap.compress(format, quality, stream)) {
+                throw new IOException("Can't encode image into " + file);
+            }
+        } finally {
+            stream.close();
+        }
+        return Uri.fromFile(file).toString();
+    }
+}
@@ -53,6 +53,18 @@ class ImageView extends RenderableView {
     private String mAlign;
     private int mMeetOrSlice;
     private final AtomicBoolean mLoading = new AtomicBoolean(false);
+    // Request of the current source, and its decoded image once drawn from the memory cache,
+    // which is kept so redraws don't go through the image pipeline
+    private @Nullable ImageRequest mRequest;
+    private @Nullable CloseableReference<CloseableImage> mImageReference;
+
+    // Scratch objects reused across draws
+    private final RectF mRenderRect = new RectF();
+    private final RectF mImageRect = new RectF();
+    private final RectF mImagePaintBounds = new RectF();
+    private final Matrix mImageMatrix = new Matrix();
+    private final Paint mAlphaPaint = new Paint();
+    private final Path mRectPath = new Path();
 
     public ImageView(ReactContext reactContext) {
         super(reactContext);
@@ -86,6 +98,8 @@ class ImageView extends RenderableView {
     public void setSrc(@Nullable ReadableMap src) {
         if (src != null) {
             uriString = src.getString("uri");
+            mRequest = null;
+            releaseImage();
 
             if (uriString == null || uriString.isEmpty()) {
                 //TODO: give warning about this
@@ -120,10 +134,18 @@ class ImageView extends RenderableView {
 
     @Override
     void draw(final Canvas canvas, final Paint paint, final float opacity) {
+        Bitmap retained = getRetainedBitmap();
+        if (retained != null) {
+            doRender(canvas, paint, retained, opacity * mOpacity);
+            return;
+        }
         if (!mLoading.get()) {
             ImagePipeline imagePipeline = Fresco.getImagePipeline();
-            ImageSource imageSource = new ImageSource(mContext, uriString);
-            ImageRequest request = ImageRequest.fromUri(imageSource.getUri());
+            if (mRequest == null) {
+                ImageSource imageSource = new ImageSource(mContext, uriString);
+                mRequest = ImageRequest.fromUri(imageSource.getUri());
+            }
+            ImageRequest request = mRequest;
             boolean inMemoryCache = imagePipeline.isInBitmapMemoryCache(request);
 
             if (inMemoryCache) {
@@ -136,11 +158,33 @@ class ImageView extends RenderableView {
 
     @Override
     Path getPath(Canvas canvas, Paint paint) {
-        Path path = new Path();
+        Path path = mRectPath;
+        path.reset();
         path.addRect(getRect(), Path.Direction.CW);
         return path;
     }
 
+    private @Nullable Bitmap getRetainedBitmap() {
+        if (mImageReference == null || !mImageReference.isValid()) {
+            return null;
+        }
+        CloseableImage image = mImageReference.get();
+        if (!(image instanceof CloseableBitmap)) {
+            return null;
+        }
+        Bitmap bitmap = ((CloseableBitmap) image).getUnderlyingBitmap();
+        return bitmap != null && !bitmap.isRecycled() ? bitmap : null;
+    }
+
+    /**
+     * Releases the decoded image kept for redraws, e.g. when the source changes or the view is
+     * dropped.
+     */
+    void releaseImage() {
+        CloseableReference.closeSafely(mImageReference);
+        mImageReference = null;
+    }
+
     private void loadBitmap(final ImagePipeline imagePipeline, final ImageRequest request) {
         mLoading.set(true);
         final DataSource<CloseableReference<CloseableImage>> dataSource
@@ -179,7 +223,8 @@ class ImageView extends RenderableView {
             h = mImageHeight * mScale;
         }
 
-        return new RectF((float) x, (float) y, (float) (x + w), (float) (y + h));
+        mRenderRect.set((float) x, (float) y, (float) (x + w), (float) (y + h));
+        return mRenderRect;
     }
 
     private void doRender(Canvas canvas, Paint paint, Bitmap bitmap, float opacity) {
@@ -188,23 +233,26 @@ class ImageView extends RenderableView {
             mImageHeight = bitmap.getHeight();
         }
 
+        canvas.clipPath(getPath(canvas, paint));
         RectF renderRect = getRect();
-        RectF vbRect = new RectF(0, 0, mImageWidth, mImageHeight);
-        Matrix transform = ViewBox.getTransform(vbRect, renderRect, mAlign, mMeetOrSlice);
+        RectF vbRect = mImageRect;
+        vbRect.set(0, 0, mImageWidth, mImageHeight);
+        Matrix transform = mImageMatrix;
+        ViewBox.getTransform(vbRect, renderRect, mAlign, mMeetOrSlice, transform);
         transform.mapRect(vbRect);
 
-        canvas.clipPath(getPath(canvas, paint));
-
         Path clipPath = getClipPath(canvas, paint);
         if (clipPath != null) {
             canvas.clipPath(clipPath);
         }
 
-        Paint alphaPaint = new Paint();
+        Paint alphaPaint = mAlphaPaint;
         alphaPaint.setAlpha((int) (opacity * 255));
         canvas.drawBitmap(bitmap, null, vbRect, alphaPaint);
         mCTM.mapRect(vbRect);
         this.setClientRect(vbRect);
+        mImagePaintBounds.set(vbRect);
+        this.setPaintBounds(mImagePaintBounds);
     }
 
     private void tryRenderFromBitmapCache(ImagePipeline imagePipeline, ImageRequest request, Canvas canvas, Paint paint, float opacity) {
@@ -231,6 +279,9 @@ class ImageView extends RenderableView {
                 }
 
                 doRender(canvas, paint, bitmap, opacity);
+                // Keep the image for redraws, it's released with the source
+                releaseImage();
+                mImageReference = imageReference.clone();
 
             } catch (Exception e) {
                 throw new IllegalStateException(e);
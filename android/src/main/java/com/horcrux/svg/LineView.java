@@ -53,6 +53,28 @@ class LineView extends RenderableView {
         invalidate();
     }
 
+    @Override
+    boolean setLengthProp(String name, SVGLength length) {
+        switch (name) {
+            case "x1":
+                mX1 = length;
+                break;
+            case "y1":
+                mY1 = length;
+                break;
+            case "x2":
+                mX2 = length;
+                break;
+            case "y2":
+                mY2 = length;
+                break;
+            default:
+                return super.setLengthProp(name, length);
+        }
+        invalidate();
+        return true;
+    }
+
     @Override
     Path getPath(Canvas canvas, Paint paint) {
         Path path = new Path();
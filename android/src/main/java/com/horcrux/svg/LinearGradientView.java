@@ -37,6 +37,7 @@ class LinearGradientView extends DefinitionView {
         0, 0, 1
     };
     private Matrix mMatrix = null;
+    private @Nullable Brush mBrush;
 
     public LinearGradientView(ReactContext reactContext) {
         super(reactContext);
@@ -104,14 +105,30 @@ class LinearGradientView extends DefinitionView {
         invalidate();
     }
 
+    @Override
+    public void invalidate() {
+        clearDefinitionCache();
+        super.invalidate();
+    }
+
+    @Override
+    void clearDefinitionCache() {
+        mBrush = null;
+    }
+
     @Override
     void saveDefinition() {
         if (mName != null) {
-            SVGLength[] points = new SVGLength[]{mX1, mY1, mX2, mY2};
-            Brush brush = new Brush(Brush.BrushType.LINEAR_GRADIENT, points, mGradientUnits);
-            brush.setGradientColors(mGradient);
-            if (mMatrix != null) {
-                brush.setGradientTransform(mMatrix);
+            // Keep the brush, and the shaders it built, until the gradient changes
+            Brush brush = mBrush;
+            if (brush == null) {
+                SVGLength[] points = new SVGLength[]{mX1, mY1, mX2, mY2};
+                brush = new Brush(Brush.BrushType.LINEAR_GRADIENT, points, mGradientUnits);
+                brush.setGradientColors(mGradient);
+                if (mMatrix != null) {
+                    brush.setGradientTransform(mMatrix);
+                }
+                mBrush = brush;
             }
 
             SvgView svg = getSvgView();
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorMatrix;
+import android.graphics.ColorMatrixColorFilter;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Implements the luminanceToAlpha filter primitive used by masks
+ * https://www.w3.org/TR/SVG11/filters.html#feColorMatrixElement
+ *
+ * By default the conversion is done by Skia through a {@link ColorMatrixColorFilter}. The
+ * software path uses a fixed-point kernel and splits masks above {@link #PARALLEL_THRESHOLD}
+ * pixels into row stripes converted on a small worker pool.
+ */
+public class LuminanceToAlpha {
+
+    // Rec. 601 luma weights in 16.16 fixed point, they add up to 1 << 16
+    private static final int RED_WEIGHT = 19595;
+    private static final int GREEN_WEIGHT = 38470;
+    private static final int BLUE_WEIGHT = 7471;
+
+    static final int PARALLEL_THRESHOLD = 512 * 512;
+    private static final int THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static volatile boolean sUseColorFilter = true;
+    private static volatile ExecutorService sExecutor;
+
+    private static final Paint sFilterPaint = new Paint();
+    static {
+        ColorMatrix matrix = new ColorMatrix(new float[]{
+            0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0,
+            0.299f, 0.587f, 0.114f, 0, 0
+        });
+        sFilterPaint.setColorFilter(new ColorMatrixColorFilter(matrix));
+        sFilterPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC));
+    }
+
+    /**
+     * Selects whether masks are converted by a color filter (the default) or by the software
+     * kernel, e.g. to compare both.
+     */
+    public static void setUseColorFilter(boolean useColorFilter) {
+        sUseColorFilter = useColorFilter;
+    }
+
+    static boolean usesColorFilter() {
+        return sUseColorFilter;
+    }
+
+    /**
+     * Prepares a canvas for rendering mask content that will be converted with the color filter.
+     * Color matrices operate on unpremultiplied colors, so the content is composited over opaque
+     * black, which makes the color channels equal to the premultiplied values and the resulting
+     * luminance already scaled by the content alpha.
+     */
+    static void prepareColorFilterSource(Canvas canvas) {
+        canvas.drawColor(Color.BLACK);
+    }
+
+    /**
+     * Converts the source rendered after {@link #prepareColorFilterSource} into an alpha only
+     * mask drawn into the destination bitmap.
+     */
+    static void applyColorFilter(Bitmap source, Bitmap destination) {
+        Canvas canvas = new Canvas(destination);
+        synchronized (sFilterPaint) {
+            canvas.drawBitmap(source, 0, 0, sFilterPaint);
+        }
+    }
+
+    /**
+     * Converts the bitmap in place with the software kernel.
+     */
+    static void apply(Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        final int[] pixels = new int[width * height];
+        bitmap.getPixels(pixels, 0, width, 0, 0, width, height);
+
+        if (pixels.length >= PARALLEL_THRESHOLD && THREAD_COUNT > 1) {
+            applyParallel(pixels, width, height);
+        } else {
+            apply(pixels, 0, pixels.length);
+        }
+
+        bitmap.setPixels(pixels, 0, width, 0, 0, width, height);
+    }
+
+    /**
+     * Converts the unpremultiplied ARGB pixels in [from, to) in place.
+     */
+    static void apply(int[] pixels, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int color = pixels[i];
+
+            int a = color >>> 24;
+            if (a == 0) {
+                pixels[i] = 0;
+                continue;
+            }
+
+            int r = (color >> 16) & 0xFF;
+            int g = (color >> 8) & 0xFF;
+            int b = color & 0xFF;
+
+            int luminance = (RED_WEIGHT * r + GREEN_WEIGHT * g + BLUE_WEIGHT * b + 0x8000) >>> 16;
+            // a * luminance / 255, rounded
+            int alpha = a * luminance + 128;
+            alpha = (alpha + (alpha >> 8)) >> 8;
+            pixels[i] = alpha << 24;
+        }
+    }
+
+    private static void applyParallel(final int[] pixels, int width, int height) {
+        int stripes = Math.min(THREAD_COUNT + 1, height);
+        int rowsPerStripe = (height + stripes - 1) / stripes;
+        final CountDownLatch done = new CountDownLatch(stripes - 1);
+        ExecutorService executor = getExecutor();
+
+        // The calling thread converts the first stripe itself
+        for (int stripe = 1; stripe < stripes; stripe++) {
+            final int from = Math.min(stripe * rowsPerStripe, height) * width;
+            final int to = Math.min((stripe + 1) * rowsPerStripe, height) * width;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        apply(pixels, from, to);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        apply(pixels, 0, Math.min(rowsPerStripe, height) * width);
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Interrupted while converting mask");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService getExecutor() {
+        if (sExecutor == null) {
+            synchronized (LuminanceToAlpha.class) {
+                if (sExecutor == null) {
+                    sExecutor = Executors.newFixedThreadPool(THREAD_COUNT, new ThreadFactory() {
+                        private int mCount;
+
+                        @Override
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, "RNSVGMask-" + mCount++);
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                }
+            }
+        }
+        return sExecutor;
+    }
+}
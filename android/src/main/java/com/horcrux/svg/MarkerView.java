@@ -28,7 +28,8 @@ class MarkerView extends GroupView {
     private SVGLength mMarkerWidth;
     private SVGLength mMarkerHeight;
     private String mMarkerUnits;
-    private String mOrient;
+    // Parsed orient, -1 for auto
+    private double mOrientAngle = -1;
 
     private float mMinX;
     private float mMinY;
@@ -38,6 +39,11 @@ class MarkerView extends GroupView {
     int mMeetOrSlice;
 
     Matrix markerTransform = new Matrix();
+    // Reused by every marker drawn
+    private final RectF mViewportRect = new RectF();
+    private final RectF mViewBoxRect = new RectF();
+    private final Matrix mViewBoxMatrix = new Matrix();
+    private final float[] mViewBoxValues = new float[9];
 
     public MarkerView(ReactContext reactContext) {
         super(reactContext);
@@ -75,7 +81,7 @@ class MarkerView extends GroupView {
 
     @ReactProp(name = "orient")
     public void setOrient(String orient) {
-        mOrient = orient;
+        mOrientAngle = orient == null || "auto".equals(orient) ? -1 : Double.parseDouble(orient);
         invalidate();
     }
 
@@ -136,7 +142,7 @@ class MarkerView extends GroupView {
         Point origin = position.origin;
         markerTransform.setTranslate((float)origin.x * mScale, (float)origin.y * mScale);
 
-        double markerAngle = "auto".equals(mOrient) ? -1 : Double.parseDouble(mOrient);
+        double markerAngle = mOrientAngle;
         float degrees = 180 + (float) (markerAngle == -1 ? position.angle : markerAngle);
         markerTransform.preRotate(degrees);
 
@@ -147,12 +153,14 @@ class MarkerView extends GroupView {
 
         double width = relativeOnWidth(mMarkerWidth) / mScale;
         double height = relativeOnHeight(mMarkerHeight) / mScale;
-        RectF eRect = new RectF(0, 0, (float)width, (float)height);
+        RectF eRect = mViewportRect;
+        eRect.set(0, 0, (float)width, (float)height);
         if (mAlign != null) {
-            RectF vbRect = new RectF(mMinX * mScale, mMinY * mScale, (mMinX + mVbWidth) * mScale, (mMinY + mVbHeight) * mScale);
-            Matrix viewBoxMatrix = ViewBox.getTransform(vbRect, eRect, mAlign, mMeetOrSlice);
-            float[] values = new float[9];
-            viewBoxMatrix.getValues(values);
+            RectF vbRect = mViewBoxRect;
+            vbRect.set(mMinX * mScale, mMinY * mScale, (mMinX + mVbWidth) * mScale, (mMinY + mVbHeight) * mScale);
+            ViewBox.getTransform(vbRect, eRect, mAlign, mMeetOrSlice, mViewBoxMatrix);
+            float[] values = mViewBoxValues;
+            mViewBoxMatrix.getValues(values);
             markerTransform.preScale(values[Matrix.MSCALE_X], values[Matrix.MSCALE_Y]);
         }
 
@@ -10,7 +10,11 @@
 package com.horcrux.svg;
 
 import android.annotation.SuppressLint;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
 import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
 
 import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.Dynamic;
@@ -19,6 +23,8 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.common.ReactConstants;
 import com.facebook.react.uimanager.annotations.ReactProp;
 
+import java.util.ArrayList;
+
 import javax.annotation.Nullable;
 
 @SuppressLint("ViewConstructor")
@@ -42,6 +48,29 @@ class MaskView extends GroupView {
     };
     private Matrix mMatrix = null;
 
+    /**
+     * Luminance mask rendered for one canvas size and mask region.
+     */
+    private static class CachedMask {
+        final int width;
+        final int height;
+        final RectF region;
+        final Bitmap bitmap;
+
+        CachedMask(int width, int height, RectF region, Bitmap bitmap) {
+            this.width = width;
+            this.height = height;
+            this.region = region;
+            this.bitmap = bitmap;
+        }
+    }
+
+    // Most recently used masks first, a mask is rarely shared by more than a few differently sized elements
+    private static final int MAX_CACHED_MASKS = 4;
+    private final ArrayList<CachedMask> mCachedMasks = new ArrayList<>(MAX_CACHED_MASKS);
+    // Definition generation of the Svg the cached masks were rendered at
+    private int mCachedGeneration;
+
     public MaskView(ReactContext reactContext) {
         super(reactContext);
     }
@@ -115,6 +144,71 @@ class MaskView extends GroupView {
         invalidate();
     }
 
+    @Override
+    public void invalidate() {
+        clearDefinitionCache();
+        super.invalidate();
+    }
+
+    /**
+     * Returns the luminance mask for a canvas of the given size, rendering it only if the mask
+     * content, a definition it may reference or the region changed since it was last rendered at
+     * that size. The mask is drawn in the
+     * user space of the masked element, so the transform of the element does not affect it.
+     *
+     * @param width  width of the masked element's canvas in px
+     * @param height height of the masked element's canvas in px
+     * @param region mask region as left, top, right and bottom
+     * @return an alpha only bitmap owned by this mask
+     */
+    Bitmap getMaskBitmap(int width, int height, RectF region) {
+        // The content may reference gradients, patterns or templates defined outside the mask
+        int generation = getSvgView().getDefinitionGeneration();
+        if (generation != mCachedGeneration) {
+            mCachedMasks.clear();
+            mCachedGeneration = generation;
+        }
+        for (int i = 0; i < mCachedMasks.size(); i++) {
+            CachedMask cached = mCachedMasks.get(i);
+            if (cached.width == width && cached.height == height && cached.region.equals(region)) {
+                if (i != 0) {
+                    mCachedMasks.remove(i);
+                    mCachedMasks.add(0, cached);
+                }
+                return cached.bitmap;
+            }
+        }
+
+        Bitmap bitmap = BitmapPool.obtain(null, width, height);
+        if (LuminanceToAlpha.usesColorFilter()) {
+            Bitmap source = BitmapPool.obtain(null, width, height);
+            Canvas sourceCanvas = new Canvas(source);
+            sourceCanvas.clipRect(region);
+            LuminanceToAlpha.prepareColorFilterSource(sourceCanvas);
+            draw(sourceCanvas, new Paint(Paint.ANTI_ALIAS_FLAG), 1);
+            LuminanceToAlpha.applyColorFilter(source, bitmap);
+            BitmapPool.release(source);
+        } else {
+            Canvas maskCanvas = new Canvas(bitmap);
+            maskCanvas.clipRect(region);
+            draw(maskCanvas, new Paint(Paint.ANTI_ALIAS_FLAG), 1);
+            LuminanceToAlpha.apply(bitmap);
+        }
+
+        // Recorded pictures may still reference evicted masks, so they are left to the GC
+        // instead of being released to the pool
+        if (mCachedMasks.size() == MAX_CACHED_MASKS) {
+            mCachedMasks.remove(MAX_CACHED_MASKS - 1);
+        }
+        mCachedMasks.add(0, new CachedMask(width, height, new RectF(region), bitmap));
+        return bitmap;
+    }
+
+    @Override
+    void clearDefinitionCache() {
+        mCachedMasks.clear();
+    }
+
     @Override
     void saveDefinition() {
         if (mName != null) {
@@ -2,39 +2,269 @@ package com.horcrux.svg;
 
 import android.graphics.Path;
 import android.graphics.RectF;
+import android.util.LruCache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
+import javax.annotation.Nullable;
+
+/**
+ * Segment of parsed path data used for marker placement. Elements are shared through the path
+ * cache, so they and their points can't be modified once constructed.
+ */
 class PathElement {
-    ElementType type;
-    Point[] points;
+    final ElementType type;
+    private final Point[] points;
     PathElement(ElementType type, Point[] points) {
         this.type = type;
-        this.points = points;
+        this.points = points.clone();
+    }
+
+    int getPointCount() {
+        return points.length;
+    }
+
+    Point getPoint(int index) {
+        return points[index];
+    }
+}
+
+/**
+ * Immutable result of parsing path data: the path segments, already scaled, and the
+ * {@link PathElement} list used for marker placement. Instances are shared between all views
+ * using the same path data, so neither may be modified.
+ */
+class ParsedPath {
+    private static final byte MOVE_TO = 0;
+    private static final byte LINE_TO = 1;
+    private static final byte CUBIC_TO = 2;
+    private static final byte ARC_TO = 3;
+    private static final byte CLOSE = 4;
+
+    // Approximate sizes of the objects held, in bytes, see getSizeBytes
+    private static final int OBJECT_SIZE = 16;
+    private static final int ARRAY_SIZE = 16;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int POINT_SIZE = OBJECT_SIZE + 16;
+
+    private final byte[] mCommands;
+    private final float[] mCoords;
+    final List<PathElement> elements;
+
+    private ParsedPath(byte[] commands, float[] coords, ArrayList<PathElement> elements) {
+        mCommands = commands;
+        mCoords = coords;
+        this.elements = Collections.unmodifiableList(elements);
+    }
+
+    /**
+     * Builds a new {@link Path} from the parsed segments.
+     */
+    Path toPath() {
+        Path path = new Path();
+        RectF oval = null;
+        float[] c = mCoords;
+        int j = 0;
+        for (byte command : mCommands) {
+            switch (command) {
+                case MOVE_TO:
+                    path.moveTo(c[j], c[j + 1]);
+                    j += 2;
+                    break;
+                case LINE_TO:
+                    path.lineTo(c[j], c[j + 1]);
+                    j += 2;
+                    break;
+                case CUBIC_TO:
+                    path.cubicTo(c[j], c[j + 1], c[j + 2], c[j + 3], c[j + 4], c[j + 5]);
+                    j += 6;
+                    break;
+                case ARC_TO:
+                    if (oval == null) {
+                        oval = new RectF();
+                    }
+                    oval.set(c[j], c[j + 1], c[j + 2], c[j + 3]);
+                    path.arcTo(oval, c[j + 4], c[j + 5]);
+                    j += 6;
+                    break;
+                case CLOSE:
+                    path.close();
+                    break;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Estimates the memory held by this path in bytes, including the elements and their points.
+     */
+    int getSizeBytes() {
+        int size = OBJECT_SIZE + ARRAY_SIZE + mCommands.length + ARRAY_SIZE + mCoords.length * 4;
+        // The element list and its backing array
+        size += 2 * OBJECT_SIZE + ARRAY_SIZE + elements.size() * REFERENCE_SIZE;
+        for (int i = 0; i < elements.size(); i++) {
+            int points = elements.get(i).getPointCount();
+            size += OBJECT_SIZE + ARRAY_SIZE + points * (REFERENCE_SIZE + POINT_SIZE);
+        }
+        return size;
+    }
+
+    /**
+     * Records segments with the same calls as {@link Path}.
+     */
+    static class Builder {
+        private byte[] mCommands = new byte[16];
+        private float[] mCoords = new float[64];
+        private int mCommandCount;
+        private int mCoordCount;
+
+        private void add(byte command, int coordCount) {
+            if (mCommandCount == mCommands.length) {
+                mCommands = Arrays.copyOf(mCommands, mCommandCount * 2);
+            }
+            if (mCoordCount + coordCount > mCoords.length) {
+                mCoords = Arrays.copyOf(mCoords, Math.max(mCoords.length * 2, mCoordCount + coordCount));
+            }
+            mCommands[mCommandCount++] = command;
+        }
+
+        void moveTo(float x, float y) {
+            add(MOVE_TO, 2);
+            mCoords[mCoordCount++] = x;
+            mCoords[mCoordCount++] = y;
+        }
+
+        void lineTo(float x, float y) {
+            add(LINE_TO, 2);
+            mCoords[mCoordCount++] = x;
+            mCoords[mCoordCount++] = y;
+        }
+
+        void cubicTo(float x1, float y1, float x2, float y2, float x3, float y3) {
+            add(CUBIC_TO, 6);
+            mCoords[mCoordCount++] = x1;
+            mCoords[mCoordCount++] = y1;
+            mCoords[mCoordCount++] = x2;
+            mCoords[mCoordCount++] = y2;
+            mCoords[mCoordCount++] = x3;
+            mCoords[mCoordCount++] = y3;
+        }
+
+        void arcTo(RectF oval, float startAngle, float sweepAngle) {
+            add(ARC_TO, 6);
+            mCoords[mCoordCount++] = oval.left;
+            mCoords[mCoordCount++] = oval.top;
+            mCoords[mCoordCount++] = oval.right;
+            mCoords[mCoordCount++] = oval.bottom;
+            mCoords[mCoordCount++] = startAngle;
+            mCoords[mCoordCount++] = sweepAngle;
+        }
+
+        void close() {
+            add(CLOSE, 0);
+        }
+
+        ParsedPath build(ArrayList<PathElement> elements) {
+            return new ParsedPath(
+                    Arrays.copyOf(mCommands, mCommandCount),
+                    Arrays.copyOf(mCoords, mCoordCount),
+                    elements
+            );
+        }
     }
 }
 
+/**
+ * Parses SVG path data. Parser state lives in the instance, so separate instances can be used
+ * concurrently from any thread; results are cached by path data and scale.
+ */
 class PathParser {
-    static float mScale;
-
-    private static int i;
-    private static int l;
-    private static String s;
-    private static Path mPath;
-    static ArrayList<PathElement> elements;
-
-    private static float mPenX;
-    private static float mPenY;
-    private static float mPivotX;
-    private static float mPivotY;
-    private static float mPenDownX;
-    private static float mPenDownY;
-    private static boolean mPenDown;
-
-    static Path parse(String d) {
+    private static final int MAX_CACHE_BYTES = 2 * 1024 * 1024;
+
+    private static final LruCache<CacheKey, ParsedPath> sCache = new LruCache<CacheKey, ParsedPath>(MAX_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(CacheKey key, ParsedPath value) {
+            return key.getSizeBytes() + value.getSizeBytes();
+        }
+    };
+
+    private static class CacheKey {
+        private final String d;
+        private final float scale;
+
+        CacheKey(String d, float scale) {
+            this.d = d;
+            this.scale = scale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey key = (CacheKey) o;
+            return scale == key.scale && d.equals(key.d);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * d.hashCode() + Float.floatToIntBits(scale);
+        }
+
+        int getSizeBytes() {
+            // The key, its string and the characters
+            return 16 + 24 + 16 + d.length() * 2;
+        }
+    }
+
+    private final float mScale;
+
+    private int i;
+    private int l;
+    private String s;
+    private ParsedPath.Builder mPath;
+    private ArrayList<PathElement> elements;
+
+    private float mPenX;
+    private float mPenY;
+    private float mPivotX;
+    private float mPivotY;
+    private float mPenDownX;
+    private float mPenDownY;
+    private boolean mPenDown;
+
+    PathParser(float scale) {
+        mScale = scale;
+    }
+
+    static @Nullable ParsedPath getCached(String d, float scale) {
+        return sCache.get(new CacheKey(d, scale));
+    }
+
+    /**
+     * Returns the parsed representation of the given path data, parsing it only if it is not
+     * already cached for this scale.
+     */
+    static ParsedPath parse(String d, float scale) {
+        CacheKey key = new CacheKey(d, scale);
+        ParsedPath parsed = sCache.get(key);
+        if (parsed == null) {
+            parsed = new PathParser(scale).parse(d);
+            sCache.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    ParsedPath parse(String d) {
         elements = new ArrayList<>();
         char prev_cmd = ' ';
-        mPath = new Path();
+        mPath = new ParsedPath.Builder();
         l = d.length();
         s = d;
         i = 0;
@@ -190,14 +420,18 @@ class PathParser {
 
         }
 
-        return mPath;
+        ParsedPath parsed = mPath.build(elements);
+        mPath = null;
+        elements = null;
+        s = null;
+        return parsed;
     }
 
-    private static void move(float x, float y) {
+    private void move(float x, float y) {
         moveTo(x + mPenX, y + mPenY);
     }
 
-    private static void moveTo(float x, float y) {
+    private void moveTo(float x, float y) {
         //FLog.w(ReactConstants.TAG, "move x: " + x + " y: " + y);
         mPenDownX = mPivotX = mPenX = x;
         mPenDownY = mPivotY = mPenY = y;
@@ -205,11 +439,11 @@ class PathParser {
         elements.add(new PathElement(ElementType.kCGPathElementMoveToPoint, new Point[]{new Point(x,y)}));
     }
 
-    private static void line(float x, float y) {
+    private void line(float x, float y) {
         lineTo(x + mPenX, y + mPenY);
     }
 
-    private static void lineTo(float x, float y) {
+    private void lineTo(float x, float y) {
         //FLog.w(ReactConstants.TAG, "line x: " + x + " y: " + y);
         setPenDown();
         mPivotX = mPenX = x;
@@ -218,18 +452,18 @@ class PathParser {
         elements.add(new PathElement(ElementType.kCGPathElementAddLineToPoint, new Point[]{new Point(x,y)}));
     }
 
-    private static void curve(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
+    private void curve(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
         curveTo(c1x + mPenX, c1y + mPenY, c2x + mPenX, c2y + mPenY, ex + mPenX, ey + mPenY);
     }
 
-    private static void curveTo(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
+    private void curveTo(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
         //FLog.w(ReactConstants.TAG, "curve c1x: " + c1x + " c1y: " + c1y + "ex: " + ex + " ey: " + ey);
         mPivotX = c2x;
         mPivotY = c2y;
         cubicTo(c1x, c1y, c2x, c2y, ex, ey);
     }
 
-    private static void cubicTo(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
+    private void cubicTo(float c1x, float c1y, float c2x, float c2y, float ex, float ey) {
         setPenDown();
         mPenX = ex;
         mPenY = ey;
@@ -237,11 +471,11 @@ class PathParser {
         elements.add(new PathElement(ElementType.kCGPathElementAddCurveToPoint, new Point[]{new Point(c1x, c1y), new Point(c2x, c2y), new Point(ex, ey)}));
     }
 
-    private static void smoothCurve(float c1x, float c1y, float ex, float ey) {
+    private void smoothCurve(float c1x, float c1y, float ex, float ey) {
         smoothCurveTo(c1x + mPenX, c1y + mPenY, ex + mPenX, ey + mPenY);
     }
 
-    private static void smoothCurveTo(float c1x, float c1y, float ex, float ey) {
+    private void smoothCurveTo(float c1x, float c1y, float ex, float ey) {
         //FLog.w(ReactConstants.TAG, "smoothcurve c1x: " + c1x + " c1y: " + c1y + "ex: " + ex + " ey: " + ey);
         float c2x = c1x;
         float c2y = c1y;
@@ -252,11 +486,11 @@ class PathParser {
         cubicTo(c1x, c1y, c2x, c2y, ex, ey);
     }
 
-    private static void quadraticBezierCurve(float c1x, float c1y, float c2x, float c2y) {
+    private void quadraticBezierCurve(float c1x, float c1y, float c2x, float c2y) {
         quadraticBezierCurveTo(c1x + mPenX, c1y + mPenY, c2x + mPenX, c2y + mPenY);
     }
 
-    private static void quadraticBezierCurveTo(float c1x, float c1y, float c2x, float c2y) {
+    private void quadraticBezierCurveTo(float c1x, float c1y, float c2x, float c2y) {
         //FLog.w(ReactConstants.TAG, "quad c1x: " + c1x + " c1y: " + c1y + "c2x: " + c2x + " c2y: " + c2y);
         mPivotX = c1x;
         mPivotY = c1y;
@@ -269,11 +503,11 @@ class PathParser {
         cubicTo(c1x, c1y, c2x, c2y, ex, ey);
     }
 
-    private static void smoothQuadraticBezierCurve(float c1x, float c1y) {
+    private void smoothQuadraticBezierCurve(float c1x, float c1y) {
         smoothQuadraticBezierCurveTo(c1x + mPenX, c1y + mPenY);
     }
 
-    private static void smoothQuadraticBezierCurveTo(float c1x, float c1y) {
+    private void smoothQuadraticBezierCurveTo(float c1x, float c1y) {
         //FLog.w(ReactConstants.TAG, "smoothquad c1x: " + c1x + " c1y: " + c1y);
         float c2x = c1x;
         float c2y = c1y;
@@ -282,11 +516,11 @@ class PathParser {
         quadraticBezierCurveTo(c1x, c1y, c2x, c2y);
     }
 
-    private static void arc(float rx, float ry, float rotation, boolean outer, boolean clockwise, float x, float y) {
+    private void arc(float rx, float ry, float rotation, boolean outer, boolean clockwise, float x, float y) {
         arcTo(rx, ry, rotation, outer, clockwise, x + mPenX, y + mPenY);
     }
 
-    private static void arcTo(float rx, float ry, float rotation, boolean outer, boolean clockwise, float x, float y) {
+    private void arcTo(float rx, float ry, float rotation, boolean outer, boolean clockwise, float x, float y) {
         //FLog.w(ReactConstants.TAG, "arc rx: " + rx + " ry: " + ry + " rotation: " + rotation + " outer: " + outer + " clockwise: " + clockwise + " x: " + x + " y: " + y);
         float tX = mPenX;
         float tY = mPenY;
@@ -384,7 +618,7 @@ class PathParser {
         }
     }
 
-    private static void close() {
+    private void close() {
         if (mPenDown) {
             mPenX = mPenDownX;
             mPenY = mPenDownY;
@@ -394,7 +628,7 @@ class PathParser {
         }
     }
 
-    private static void arcToBezier(float cx, float cy, float rx, float ry, float sa, float ea, boolean clockwise, float rad) {
+    private void arcToBezier(float cx, float cy, float rx, float ry, float sa, float ea, boolean clockwise, float rad) {
         // Inverse Rotation + Scale Transform
         float cos = (float) Math.cos(rad);
         float sin = (float) Math.sin(rad);
@@ -442,7 +676,7 @@ class PathParser {
         }
     }
 
-    private static void setPenDown() {
+    private void setPenDown() {
         if (!mPenDown) {
             mPenDownX = mPenX;
             mPenDownY = mPenY;
@@ -450,16 +684,16 @@ class PathParser {
         }
     }
 
-    private static double round(double val) {
+    private double round(double val) {
         double multiplier = Math.pow(10, 4);
         return Math.round(val * multiplier) / multiplier;
     }
 
-    private static void skip_spaces() {
+    private void skip_spaces() {
         while (i < l && Character.isWhitespace(s.charAt(i))) i++;
     }
 
-    private static boolean is_cmd(char c) {
+    private boolean is_cmd(char c) {
         switch (c) {
             case 'M':
             case 'm':
@@ -486,17 +720,17 @@ class PathParser {
         return false;
     }
 
-    private static boolean is_number_start(char c) {
+    private boolean is_number_start(char c) {
         return (c >= '0' && c <= '9') || c == '.' || c == '-' || c == '+';
     }
 
-    private static boolean is_absolute(char c) {
+    private boolean is_absolute(char c) {
         return Character.isUpperCase(c);
     }
 
     // By the SVG spec 'large-arc' and 'sweep' must contain only one char
     // and can be written without any separators, e.g.: 10 20 30 01 10 20.
-    private static boolean parse_flag() {
+    private boolean parse_flag() {
         skip_spaces();
 
         char c = s.charAt(i);
@@ -517,7 +751,7 @@ class PathParser {
         return c == '1';
     }
 
-    private static float parse_list_number() {
+    private float parse_list_number() {
         if (i == l) {
             throw new Error("UnexpectedEnd");
         }
@@ -529,7 +763,7 @@ class PathParser {
         return n;
     }
 
-    private static float parse_number() {
+    private float parse_number() {
         // Strip off leading whitespaces.
         skip_spaces();
 
@@ -595,13 +829,13 @@ class PathParser {
         return n;
     }
 
-    private static void parse_list_separator() {
+    private void parse_list_separator() {
         if (i < l && s.charAt(i) == ',') {
             i += 1;
         }
     }
 
-    private static void skip_digits() {
+    private void skip_digits() {
         while (i < l && Character.isDigit(s.charAt(i))) i++;
     }
 }
@@ -13,29 +13,95 @@ import android.annotation.SuppressLint;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.RectF;
 
+import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.uimanager.annotations.ReactProp;
 
+import javax.annotation.Nullable;
+
 @SuppressLint("ViewConstructor")
 class PathView extends RenderableView {
-    private Path mPath;
+    private @Nullable Path mPath;
+    private @Nullable String mD;
+    private @Nullable GeometryPreparer.Geometry mGeometry;
+    // Drawn while there is no geometry
+    private final Path mEmptyPath = new Path();
 
     public PathView(ReactContext reactContext) {
         super(reactContext);
-        PathParser.mScale = mScale;
     }
 
     @ReactProp(name = "d")
-    public void setD(String d) {
-        mPath = PathParser.parse(d);
-        elements = PathParser.elements;
-        invalidate();
+    public void setD(@Nullable final String d) {
+        mD = d;
+        if (d == null) {
+            setGeometry(null);
+            invalidate();
+            return;
+        }
+        if (!UiThreadUtil.isOnUiThread()) {
+            // Headless trees are built and drawn on their own thread
+            setGeometry(GeometryPreparer.prepareNow(d, mScale));
+            invalidate();
+            return;
+        }
+        GeometryPreparer.Geometry geometry = GeometryPreparer.prepareIfCached(d, mScale);
+        if (geometry != null) {
+            setGeometry(geometry);
+            invalidate();
+            return;
+        }
+        // Keep drawing the previous geometry, or nothing on the first mount, until the new one
+        // is ready
+        GeometryPreparer.prepare(d, mScale, new GeometryPreparer.Callback() {
+            @Override
+            public void onPrepared(GeometryPreparer.Geometry geometry) {
+                if (!geometry.d.equals(mD)) {
+                    return;
+                }
+                setGeometry(geometry);
+                invalidate();
+                SvgView svg = getSvgView();
+                if (svg != null) {
+                    svg.invalidateNode(PathView.this);
+                }
+            }
+
+            @Override
+            public void onFailed(Throwable error) {
+                if (!d.equals(mD)) {
+                    return;
+                }
+                // Reported like an exception thrown by the prop setter
+                ((ReactContext) getContext()).handleException(new JSApplicationIllegalArgumentException(
+                        "Error while updating property 'd' of a view managed by: RNSVGPath", error));
+            }
+        });
+    }
+
+    private void setGeometry(@Nullable GeometryPreparer.Geometry geometry) {
+        mGeometry = geometry;
+        mPath = geometry != null ? geometry.path : null;
+        elements = geometry != null ? geometry.elements : null;
     }
 
     @Override
     Path getPath(Canvas canvas, Paint paint) {
+        if (mPath == null) {
+            return mEmptyPath;
+        }
         return mPath;
     }
 
+    @Override
+    boolean getPreparedBounds(RectF out) {
+        if (mGeometry == null) {
+            return false;
+        }
+        out.set(mGeometry.bounds);
+        return true;
+    }
 }
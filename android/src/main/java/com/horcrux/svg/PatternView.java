@@ -45,6 +45,7 @@ class PatternView extends GroupView {
         0, 0, 1
     };
     private Matrix mMatrix = null;
+    private @Nullable Brush mBrush;
 
     public PatternView(ReactContext reactContext) {
         super(reactContext);
@@ -160,16 +161,32 @@ class PatternView extends GroupView {
         return new RectF(mMinX * mScale, mMinY * mScale, (mMinX + mVbWidth) * mScale, (mMinY + mVbHeight) * mScale);
     }
 
+    @Override
+    public void invalidate() {
+        clearDefinitionCache();
+        super.invalidate();
+    }
+
+    @Override
+    void clearDefinitionCache() {
+        mBrush = null;
+    }
+
     @Override
     void saveDefinition() {
         if (mName != null) {
-            SVGLength[] points = new SVGLength[]{mX,mY,mW,mH};
-            Brush brush = new Brush(Brush.BrushType.PATTERN, points, mPatternUnits);
-            brush.setContentUnits(mPatternContentUnits);
-            brush.setPattern(this);
-
-            if (mMatrix != null) {
-                brush.setGradientTransform(mMatrix);
+            // Keep the brush, and the tile it rendered, until the pattern or its content changes
+            Brush brush = mBrush;
+            if (brush == null) {
+                SVGLength[] points = new SVGLength[]{mX,mY,mW,mH};
+                brush = new Brush(Brush.BrushType.PATTERN, points, mPatternUnits);
+                brush.setContentUnits(mPatternContentUnits);
+                brush.setPattern(this);
+
+                if (mMatrix != null) {
+                    brush.setGradientTransform(mMatrix);
+                }
+                mBrush = brush;
             }
 
             SvgView svg = getSvgView();
@@ -47,6 +47,26 @@ class PropHelper {
         return inputMatrixDataSize;
     }
 
+    /**
+     * Converts matrix data packed in the order of the matrix prop, as decoded by
+     * {@link SceneCodec}, like {@link #toMatrixData(ReadableArray, float[], float)}.
+     */
+    static int toMatrixData(float[] value, float[] sRawMatrix, float mScale) {
+        int fromSize = value.length;
+        if (fromSize != inputMatrixDataSize) {
+            return fromSize;
+        }
+
+        sRawMatrix[0] = value[0];
+        sRawMatrix[1] = value[2];
+        sRawMatrix[2] = value[4] * mScale;
+        sRawMatrix[3] = value[1];
+        sRawMatrix[4] = value[3];
+        sRawMatrix[5] = value[5] * mScale;
+
+        return inputMatrixDataSize;
+    }
+
     /**
      * Converts length string into px / user units
      * in the current user coordinate system
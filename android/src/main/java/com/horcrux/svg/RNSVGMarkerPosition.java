@@ -1,6 +1,7 @@
 package com.horcrux.svg;
 
 import java.util.ArrayList;
+import java.util.List;
 
 enum RNSVGMarkerType {
     kStartMarker,
@@ -17,8 +18,8 @@ enum ElementType {
 }
 
 class Point {
-    double x;
-    double y;
+    final double x;
+    final double y;
     Point(double x, double y){
         this.x = x;
         this.y = y;
@@ -52,7 +53,7 @@ class RNSVGMarkerPosition {
         this.angle = angle;
     }
 
-    static ArrayList<RNSVGMarkerPosition> fromPath(ArrayList<PathElement> elements) {
+    static ArrayList<RNSVGMarkerPosition> fromPath(List<PathElement> elements) {
         positions_ = new ArrayList<>();
         element_index_ = 0;
         origin_ = new Point(0, 0);
@@ -125,24 +126,23 @@ class RNSVGMarkerPosition {
 
     private static SegmentData ExtractPathElementFeatures(PathElement element) {
         SegmentData data = new SegmentData();
-        Point[] points = element.points;
         switch (element.type) {
             case kCGPathElementAddCurveToPoint:
-                data.position = points[2];
-                data.start_tangent = subtract(points[0], origin_);
-                data.end_tangent = subtract(points[2], points[1]);
+                data.position = element.getPoint(2);
+                data.start_tangent = subtract(element.getPoint(0), origin_);
+                data.end_tangent = subtract(element.getPoint(2), element.getPoint(1));
                 if (isZero(data.start_tangent))
-                    ComputeQuadTangents(data, points[0], points[1], points[2]);
+                    ComputeQuadTangents(data, element.getPoint(0), element.getPoint(1), element.getPoint(2));
                 else if (isZero(data.end_tangent))
-                    ComputeQuadTangents(data, origin_, points[0], points[1]);
+                    ComputeQuadTangents(data, origin_, element.getPoint(0), element.getPoint(1));
                 break;
             case kCGPathElementAddQuadCurveToPoint:
-                data.position = points[1];
-                ComputeQuadTangents(data, origin_, points[0], points[1]);
+                data.position = element.getPoint(1);
+                ComputeQuadTangents(data, origin_, element.getPoint(0), element.getPoint(1));
                 break;
             case kCGPathElementMoveToPoint:
             case kCGPathElementAddLineToPoint:
-                data.position = points[0];
+                data.position = element.getPoint(0);
                 data.start_tangent = subtract(data.position, origin_);
                 data.end_tangent = subtract(data.position, origin_);
                 break;
@@ -172,7 +172,7 @@ class RNSVGMarkerPosition {
         origin_ = segment_data.position;
         // If this is a 'move to' segment, save the point for use with 'close'.
         if (element.type == ElementType.kCGPathElementMoveToPoint)
-            subpath_start_ = element.points[0];
+            subpath_start_ = element.getPoint(0);
         else if (element.type == ElementType.kCGPathElementCloseSubpath)
             subpath_start_ = new Point(0, 0);
         ++element_index_;
@@ -38,6 +38,7 @@ class RadialGradientView extends DefinitionView {
         0, 0, 1
     };
     private Matrix mMatrix = null;
+    private @Nullable Brush mBrush;
 
     public RadialGradientView(ReactContext reactContext) {
         super(reactContext);
@@ -117,14 +118,30 @@ class RadialGradientView extends DefinitionView {
         invalidate();
     }
 
+    @Override
+    public void invalidate() {
+        clearDefinitionCache();
+        super.invalidate();
+    }
+
+    @Override
+    void clearDefinitionCache() {
+        mBrush = null;
+    }
+
     @Override
     void saveDefinition() {
         if (mName != null) {
-            SVGLength[] points = new SVGLength[]{mFx,mFy,mRx,mRy,mCx,mCy};
-            Brush brush = new Brush(Brush.BrushType.RADIAL_GRADIENT, points, mGradientUnits);
-            brush.setGradientColors(mGradient);
-            if (mMatrix != null) {
-                brush.setGradientTransform(mMatrix);
+            // Keep the brush, and the shaders it built, until the gradient changes
+            Brush brush = mBrush;
+            if (brush == null) {
+                SVGLength[] points = new SVGLength[]{mFx,mFy,mRx,mRy,mCx,mCy};
+                brush = new Brush(Brush.BrushType.RADIAL_GRADIENT, points, mGradientUnits);
+                brush.setGradientColors(mGradient);
+                if (mMatrix != null) {
+                    brush.setGradientTransform(mMatrix);
+                }
+                mBrush = brush;
             }
 
             SvgView svg = getSvgView();
@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.Nullable;
+
+/**
+ * Cache of rendered Svg views, keyed by the content hash of their tree, or a content key given by
+ * the app, together with the size, scale and tint color of the output.
+ *
+ * Rendered bitmaps are shared in memory by all views with the same key, which is always derived
+ * from the content hash, even when the app gives its own key for the files. A shared bitmap is
+ * reference counted and never drawn into again, and once no view uses it, it is kept in least
+ * recently used order until the memory budget is exceeded. The memory methods are called on the
+ * UI thread.
+ *
+ * Bitmaps are also stored in the app cache directory, as raw premultiplied ARGB_8888 pixels
+ * behind a small header, so loading one is a single read into a pooled bitmap. Files are read and
+ * written on a background thread, and the least recently used ones are deleted once the
+ * directory grows past its byte budget.
+ */
+public class RasterCache {
+
+    interface LoadCallback {
+        /**
+         * Called on the UI thread with the shared bitmap holding the cached pixels, or null on a
+         * miss. The receiver holds a reference to the bitmap, see {@link #release(String)}.
+         */
+        void onLoaded(@Nullable Bitmap bitmap);
+    }
+
+    /**
+     * Shared bitmap and the number of views using it.
+     */
+    private static class Entry {
+        final Bitmap bitmap;
+        int references = 1;
+
+        Entry(Bitmap bitmap) {
+            this.bitmap = bitmap;
+        }
+    }
+
+    private static final int MAX_MEMORY_SIZE_BYTES = (int) Math.min(
+            Runtime.getRuntime().maxMemory() / 8,
+            32 * 1024 * 1024
+    );
+
+    // Least recently used first
+    private static final LinkedHashMap<String, Entry> sEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private static final HashMap<String, ArrayList<LoadCallback>> sPendingLoads = new HashMap<>();
+    private static int sMemorySizeBytes = 0;
+    private static int sHitCount = 0;
+    private static int sDiskHitCount = 0;
+    private static int sMissCount = 0;
+
+    private static final String DIRECTORY = "RNSVG/rasters";
+    private static final int MAGIC = 0x524e5352; // RNSR
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static volatile long sMaxSizeBytes = 32 * 1024 * 1024;
+    // Bytes written since the directory size was last checked, -1 before the first check
+    private static long sUncheckedBytes = -1;
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static final ExecutorService sExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "RNSVGRasterCache");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Sets the byte budget of the cache directory, 32 MB by default.
+     */
+    public static void setMaxSize(long bytes) {
+        sMaxSizeBytes = bytes;
+    }
+
+    /**
+     * Deletes every cached raster.
+     */
+    public static void clear(final Context context) {
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                File[] files = getDirectory(context).listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        //noinspection ResultOfMethodCallIgnored
+                        file.delete();
+                    }
+                }
+                sUncheckedBytes = -1;
+            }
+        });
+    }
+
+    /**
+     * Returns the key of the output of a view with the given content hash or key.
+     */
+    static String key(String contentKey, int width, int height, float scale, int tintColor) {
+        String key = contentKey + '|' + width + 'x' + height + '@' + scale + '#' + tintColor;
+        return hash(key.getBytes(UTF_8));
+    }
+
+    /**
+     * Returns the hex encoded SHA-1 hash of the given bytes.
+     */
+    static String hash(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(bytes);
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+                hex[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xf];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the shared bitmap of the given key with a new reference to it, or null if it isn't
+     * in memory.
+     */
+    static synchronized @Nullable Bitmap acquire(String key) {
+        Entry entry = sEntries.get(key);
+        if (entry == null || entry.bitmap.isRecycled()) {
+            return null;
+        }
+        entry.references++;
+        sHitCount++;
+        return entry.bitmap;
+    }
+
+    /**
+     * Shares a rendered bitmap under the given key, handing its ownership to the cache. If another
+     * view shared a bitmap under the key first, that one is used and the given one is pooled.
+     *
+     * @return the shared bitmap, with a reference held by the caller
+     */
+    static synchronized Bitmap publish(String key, Bitmap bitmap) {
+        Entry entry = sEntries.get(key);
+        if (entry != null && !entry.bitmap.isRecycled()) {
+            if (entry.bitmap != bitmap) {
+                BitmapPool.release(bitmap);
+            }
+            entry.references++;
+            return entry.bitmap;
+        }
+        sEntries.put(key, new Entry(bitmap));
+        sMemorySizeBytes += bitmap.getByteCount();
+        trimMemory(MAX_MEMORY_SIZE_BYTES);
+        return bitmap;
+    }
+
+    /**
+     * Drops a reference to the shared bitmap of the given key.
+     */
+    static synchronized void release(String key) {
+        Entry entry = sEntries.get(key);
+        if (entry != null && entry.references > 0) {
+            entry.references--;
+            if (entry.references == 0) {
+                trimMemory(MAX_MEMORY_SIZE_BYTES);
+            }
+        }
+    }
+
+    private static void trimMemory(int maxSizeBytes) {
+        Iterator<Map.Entry<String, Entry>> iterator = sEntries.entrySet().iterator();
+        while (sMemorySizeBytes > maxSizeBytes && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            // Bitmaps in use can't be evicted, but still count towards the budget
+            if (entry.references == 0) {
+                iterator.remove();
+                sMemorySizeBytes -= entry.bitmap.getByteCount();
+                BitmapPool.release(entry.bitmap);
+            }
+        }
+    }
+
+    /**
+     * Releases every shared bitmap no view uses, e.g. in response to memory pressure.
+     */
+    public static synchronized void clearMemory() {
+        trimMemory(0);
+    }
+
+    /**
+     * Number of lookups answered by a shared bitmap in memory.
+     */
+    public static synchronized int getHitCount() {
+        return sHitCount;
+    }
+
+    /**
+     * Number of lookups answered by a file in the cache directory.
+     */
+    public static synchronized int getDiskHitCount() {
+        return sDiskHitCount;
+    }
+
+    /**
+     * Number of lookups that had to render the view.
+     */
+    public static synchronized int getMissCount() {
+        return sMissCount;
+    }
+
+    /**
+     * Bytes of all shared bitmaps in memory, used or not.
+     */
+    public static synchronized int getMemorySizeBytes() {
+        return sMemorySizeBytes;
+    }
+
+    /**
+     * Bytes of the shared bitmaps currently used by views.
+     */
+    public static synchronized int getUsedMemorySizeBytes() {
+        int size = 0;
+        for (Entry entry : sEntries.values()) {
+            if (entry.references > 0) {
+                size += entry.bitmap.getByteCount();
+            }
+        }
+        return size;
+    }
+
+    public static synchronized void resetCounters() {
+        sHitCount = 0;
+        sDiskHitCount = 0;
+        sMissCount = 0;
+    }
+
+    /**
+     * Loads the cached raster of the given file key from the cache directory in the background,
+     * and shares it in memory under the given key. Concurrent loads of the same key read the file
+     * once.
+     */
+    static void load(final Context context, final String fileKey, final String key, final int width,
+                     final int height, LoadCallback callback) {
+        ArrayList<LoadCallback> callbacks = sPendingLoads.get(key);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return;
+        }
+        callbacks = new ArrayList<>();
+        callbacks.add(callback);
+        sPendingLoads.put(key, callbacks);
+
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final Bitmap bitmap = read(getFile(context, fileKey), width, height);
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        ArrayList<LoadCallback> callbacks = sPendingLoads.remove(key);
+                        Bitmap shared = null;
+                        synchronized (RasterCache.class) {
+                            if (bitmap != null) {
+                                shared = publish(key, bitmap);
+                                sDiskHitCount++;
+                                // Every callback gets its own reference
+                                sEntries.get(key).references += callbacks.size() - 1;
+                            } else {
+                                sMissCount++;
+                            }
+                        }
+                        for (LoadCallback callback : callbacks) {
+                            callback.onLoaded(shared);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Stores the pixels of the bitmap under the given key. The pixels are copied on the calling
+     * thread, so the bitmap can be drawn into again right away.
+     */
+    static void store(final Context context, final String key, Bitmap bitmap) {
+        final int width = bitmap.getWidth();
+        final int height = bitmap.getHeight();
+        final ByteBuffer pixels = ByteBuffer.allocateDirect(HEADER_SIZE + bitmap.getByteCount());
+        pixels.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height);
+        bitmap.copyPixelsToBuffer(pixels);
+        pixels.flip();
+        sExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                write(context, getFile(context, key), pixels);
+            }
+        });
+    }
+
+    private static @Nullable Bitmap read(File file, int width, int height) {
+        if (!file.isFile()) {
+            return null;
+        }
+        Bitmap bitmap = null;
+        try {
+            FileInputStream input = new FileInputStream(file);
+            try {
+                FileChannel channel = input.getChannel();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                readFully(channel, header);
+                if (header.getInt() != MAGIC || header.getInt() != VERSION ||
+                        header.getInt() != width || header.getInt() != height) {
+                    throw new IOException("Unexpected header");
+                }
+                bitmap = BitmapPool.obtain(null, width, height);
+                ByteBuffer pixels = ByteBuffer.allocateDirect(bitmap.getByteCount());
+                readFully(channel, pixels);
+                bitmap.copyPixelsFromBuffer(pixels);
+            } finally {
+                input.close();
+            }
+            //noinspection ResultOfMethodCallIgnored
+            file.setLastModified(System.currentTimeMillis());
+            return bitmap;
+        } catch (IOException | RuntimeException e) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Failed to read cached raster " + file, e);
+            BitmapPool.release(bitmap);
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            return null;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void write(Context context, File file, ByteBuffer pixels) {
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Can't create directory " + directory);
+            return;
+        }
+        try {
+            // Write to a temporary file first, so a raster is never read half written
+            File temp = File.createTempFile(file.getName(), ".tmp", directory);
+            FileOutputStream output = new FileOutputStream(temp);
+            try {
+                FileChannel channel = output.getChannel();
+                while (pixels.hasRemaining()) {
+                    channel.write(pixels);
+                }
+            } finally {
+                output.close();
+            }
+            if (!temp.renameTo(file)) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+                throw new IOException("Can't rename " + temp + " to " + file);
+            }
+        } catch (IOException e) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Failed to cache raster " + file, e);
+            return;
+        }
+
+        if (sUncheckedBytes >= 0) {
+            sUncheckedBytes += file.length();
+        }
+        // Listing the directory is only needed once enough was written to possibly exceed the budget
+        if (sUncheckedBytes < 0 || sUncheckedBytes > sMaxSizeBytes / 8) {
+            trim(getDirectory(context));
+        }
+    }
+
+    private static void trim(File directory) {
+        sUncheckedBytes = 0;
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        long maxSize = sMaxSizeBytes;
+        if (size <= maxSize) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File file, File other) {
+                long modified = file.lastModified();
+                long otherModified = other.lastModified();
+                return modified < otherModified ? -1 : modified == otherModified ? 0 : 1;
+            }
+        });
+        // Evict down to most of the budget, so the next writes don't trim again right away
+        long target = maxSize - maxSize / 8;
+        for (int i = 0; i < files.length && size > target; i++) {
+            size -= files[i].length();
+            //noinspection ResultOfMethodCallIgnored
+            files[i].delete();
+        }
+    }
+
+    private static File getFile(Context context, String key) {
+        return new File(getDirectory(context), key);
+    }
+
+    private static File getDirectory(Context context) {
+        return new File(context.getCacheDir(), DIRECTORY);
+    }
+}
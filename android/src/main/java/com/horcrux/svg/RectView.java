@@ -69,6 +69,34 @@ class RectView extends RenderableView {
         invalidate();
     }
 
+    @Override
+    boolean setLengthProp(String name, SVGLength length) {
+        switch (name) {
+            case "x":
+                mX = length;
+                break;
+            case "y":
+                mY = length;
+                break;
+            case "width":
+                mW = length;
+                break;
+            case "height":
+                mH = length;
+                break;
+            case "rx":
+                mRx = length;
+                break;
+            case "ry":
+                mRy = length;
+                break;
+            default:
+                return super.setLengthProp(name, length);
+        }
+        invalidate();
+        return true;
+    }
+
     @Override
     Path getPath(Canvas canvas, Paint paint) {
         Path path = new Path();
@@ -21,16 +21,18 @@ import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Region;
 
+import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.Dynamic;
 import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
 import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.common.ReactConstants;
 import com.facebook.react.uimanager.annotations.ReactProp;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -65,7 +67,7 @@ abstract public class RenderableView extends VirtualView {
     //static final int VECTOR_EFFECT_URI = 3;
 
     /*
-    Used in mergeProperties, keep public
+    Merged properties, see mergeProperties
     */
 
     public int vectorEffect = VECTOR_EFFECT_DEFAULT;
@@ -87,10 +89,49 @@ abstract public class RenderableView extends VirtualView {
     /*
     End merged properties
     */
-    private @Nullable ArrayList<String> mLastMergedList;
-    private @Nullable ArrayList<Object> mOriginProperties;
-    private @Nullable ArrayList<String> mPropList;
-    private @Nullable ArrayList<String> mAttributeList;
+
+    // Slots of the merged properties, used as bit indices in the attribute masks
+    private static final int VECTOR_EFFECT = 0;
+    private static final int STROKE = 1;
+    private static final int STROKE_DASHARRAY = 2;
+    private static final int STROKE_WIDTH = 3;
+    private static final int STROKE_OPACITY = 4;
+    private static final int STROKE_MITERLIMIT = 5;
+    private static final int STROKE_DASHOFFSET = 6;
+    private static final int STROKE_LINECAP = 7;
+    private static final int STROKE_LINEJOIN = 8;
+    private static final int FILL = 9;
+    private static final int FILL_OPACITY = 10;
+    private static final int FILL_RULE = 11;
+    private static final int PROPERTY_COUNT = 12;
+
+    private int mPropList;
+    private int mAttributeList;
+    private int mLastMergedList;
+    private final Object[] mOriginObjects = new Object[PROPERTY_COUNT];
+    private final float[] mOriginValues = new float[PROPERTY_COUNT];
+
+    private static final Paint sMaskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    static {
+        sMaskPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_IN));
+    }
+
+    // Scratch objects reused across draws
+    private final RectF mMaskRegion = new RectF();
+    private final RectF mPaintBox = new RectF();
+    private final RectF mPaintRect = new RectF();
+    private final RectF mScratchRect = new RectF();
+    private final RectF mClientRectScratch = new RectF();
+    private final Region mRegionClip = new Region();
+    // Marker positions of the last elements, recomputed when the path changes
+    private @Nullable List<PathElement> mMarkerElements;
+    private @Nullable ArrayList<RNSVGMarkerPosition> mMarkerPositions;
+    private @Nullable Path mScaledPath;
+    // Stroke paint of a path drawn before its outline was built, to compute the stroke path from
+    private @Nullable Paint mOutlineStrokePaint;
+    private @Nullable float[] mDashIntervals;
+    private @Nullable DashPathEffect mDashPathEffect;
+    private float mDashPhase;
 
     private static final Pattern regex = Pattern.compile("[0-9.-]+");
 
@@ -130,6 +171,15 @@ abstract public class RenderableView extends VirtualView {
         invalidate();
     }
 
+    /**
+     * Sets the fill prop from a brush array decoded by {@link SceneCodec}, without going through
+     * the view manager.
+     */
+    void setFillBrush(@Nullable ReadableArray fill) {
+        this.fill = fill;
+        invalidate();
+    }
+
     @ReactProp(name = "fillOpacity", defaultFloat = 1f)
     public void setFillOpacity(float fillOpacity) {
         this.fillOpacity = fillOpacity;
@@ -175,6 +225,15 @@ abstract public class RenderableView extends VirtualView {
         invalidate();
     }
 
+    /**
+     * Sets the stroke prop from a brush array decoded by {@link SceneCodec}, without going
+     * through the view manager.
+     */
+    void setStrokeBrush(@Nullable ReadableArray stroke) {
+        this.stroke = stroke;
+        invalidate();
+    }
+
     @ReactProp(name = "strokeOpacity", defaultFloat = 1f)
     public void setStrokeOpacity(float strokeOpacity) {
         this.strokeOpacity = strokeOpacity;
@@ -207,6 +266,16 @@ abstract public class RenderableView extends VirtualView {
         invalidate();
     }
 
+    @Override
+    boolean setLengthProp(String name, SVGLength length) {
+        if (!name.equals("strokeWidth")) {
+            return super.setLengthProp(name, length);
+        }
+        this.strokeWidth = length;
+        invalidate();
+        return true;
+    }
+
     @ReactProp(name = "strokeMiterlimit", defaultFloat = 4f)
     public void setStrokeMiterlimit(float strokeMiterlimit) {
         this.strokeMiterlimit = strokeMiterlimit;
@@ -254,20 +323,25 @@ abstract public class RenderableView extends VirtualView {
     @ReactProp(name = "propList")
     public void setPropList(@Nullable ReadableArray propList) {
         if (propList != null) {
-            mPropList = mAttributeList = new ArrayList<>();
+            int attributes = 0;
             for (int i = 0; i < propList.size(); i++) {
-                mPropList.add(propList.getString(i));
+                String name = propList.getString(i);
+                int slot = getPropertySlot(name);
+                if (slot != -1) {
+                    attributes |= 1 << slot;
+                } else {
+                    FLog.w(ReactConstants.TAG, "RNSVG: propList: " + name + " unrecognized");
+                }
             }
+            mPropList = mAttributeList = attributes;
         }
 
         invalidate();
     }
 
-    private static double saturate(double v) {
-        return v <= 0 ? 0 : (v >= 1 ? 1 : v);
-    }
-
+    @SuppressWarnings("deprecation")
     void render(Canvas canvas, Paint paint, float opacity) {
+        clearTemplateUse();
         MaskView mask = null;
         if (mMask != null) {
             SvgView root = getSvgView();
@@ -277,56 +351,25 @@ abstract public class RenderableView extends VirtualView {
             Rect clipBounds = canvas.getClipBounds();
             int height = clipBounds.height();
             int width = clipBounds.width();
-
-            Bitmap maskBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-            Bitmap original = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-            Bitmap result = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-
-            Canvas originalCanvas = new Canvas(original);
-            Canvas maskCanvas = new Canvas(maskBitmap);
-            Canvas resultCanvas = new Canvas(result);
-
-            // Clip to mask bounds and render the mask
-            float maskX = (float) relativeOnWidth(mask.mX);
-            float maskY = (float) relativeOnHeight(mask.mY);
-            float maskWidth = (float) relativeOnWidth(mask.mW);
-            float maskHeight = (float) relativeOnHeight(mask.mH);
-            maskCanvas.clipRect(maskX, maskY, maskWidth, maskHeight);
-
-            Paint maskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            mask.draw(maskCanvas, maskPaint, 1);
-
-            // Apply luminanceToAlpha filter primitive https://www.w3.org/TR/SVG11/filters.html#feColorMatrixElement
-            int nPixels = width * height;
-            int[] pixels = new int[nPixels];
-            maskBitmap.getPixels(pixels, 0, width, 0, 0, width, height);
-
-            for (int i = 0; i < nPixels; i++) {
-                int color = pixels[i];
-
-                int r = (color >> 16) & 0xFF;
-                int g = (color >> 8) & 0xFF;
-                int b = color & 0xFF;
-                int a = color >>> 24;
-
-                double luminance = saturate(((0.299 * r) + (0.587 * g) + (0.144 * b)) / 255);
-                int alpha = (int) (a * luminance);
-                int pixel = (alpha << 24);
-                pixels[i] = pixel;
+            if (width <= 0 || height <= 0) {
+                return;
             }
 
-            maskBitmap.setPixels(pixels, 0, width, 0, 0, width, height);
-
-            // Render content of current SVG Renderable to image
-            draw(originalCanvas, paint, opacity);
-
-            // Blend current element and mask
-            maskPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.DST_IN));
-            resultCanvas.drawBitmap(original, 0, 0, null);
-            resultCanvas.drawBitmap(maskBitmap, 0, 0, maskPaint);
-
-            // Render composited result into current render context
-            canvas.drawBitmap(result, 0, 0, paint);
+            // Clip to mask bounds
+            RectF maskRegion = mMaskRegion;
+            maskRegion.set(
+                (float) relativeOnWidth(mask.mX),
+                (float) relativeOnHeight(mask.mY),
+                (float) relativeOnWidth(mask.mW),
+                (float) relativeOnHeight(mask.mH)
+            );
+            Bitmap maskBitmap = mask.getMaskBitmap(width, height, maskRegion);
+
+            // Render content of current SVG Renderable into a layer and blend it with the mask
+            int count = canvas.saveLayer(maskRegion, null, Canvas.ALL_SAVE_FLAG);
+            draw(canvas, paint, opacity);
+            canvas.drawBitmap(maskBitmap, 0, 0, sMaskPaint);
+            canvas.restoreToCount(count);
         } else {
             draw(canvas, paint, opacity);
         }
@@ -339,46 +382,107 @@ abstract public class RenderableView extends VirtualView {
         if (opacity > MIN_OPACITY_FOR_DRAW) {
             boolean computePaths = mPath == null;
             if (computePaths) {
-                mPath = getPath(canvas, paint);
+                mPath = getShapePath(canvas, paint);
                 mPath.setFillType(fillRule);
+                mOutlineStrokePaint = null;
             }
             boolean nonScalingStroke = vectorEffect == VECTOR_EFFECT_NON_SCALING_STROKE;
             Path path = mPath;
             if (nonScalingStroke) {
-                Path scaled = new Path();
+                if (!hasOutline()) {
+                    buildOutline();
+                }
+                if (mScaledPath == null) {
+                    mScaledPath = new Path();
+                }
                 //noinspection deprecation
-                mPath.transform(mCTM, scaled);
+                mPath.transform(mCTM, mScaledPath);
                 canvas.setMatrix(null);
-                path = scaled;
+                path = mScaledPath;
             }
 
-            if (computePaths || path != mPath) {
-                mBox = new RectF();
-                path.computeBounds(mBox, true);
+            boolean computeBox = computePaths || path != mPath;
+            if (computeBox) {
+                if (mBox == null) {
+                    mBox = new RectF();
+                }
+                if (path != mPath || !getPreparedBounds(mBox)) {
+                    path.computeBounds(mBox, true);
+                }
             }
 
-            RectF clientRect = new RectF(mBox);
+            RectF clientRect = mClientRectScratch;
+            clientRect.set(mBox);
             mCTM.mapRect(clientRect);
             this.setClientRect(clientRect);
 
             clip(canvas, paint);
 
+            // Without an outline, the fill and stroke paths are only computed by initBounds
+            boolean outline = hasOutline();
             if (setupFillPaint(paint, opacity * fillOpacity)) {
                 if (computePaths) {
-                    mFillPath = new Path();
-                    paint.getFillPath(path, mFillPath);
+                    if (outline) {
+                        mFillPath = new Path();
+                        paint.getFillPath(path, mFillPath);
+                    } else {
+                        mFillPath = null;
+                    }
                 }
-                canvas.drawPath(path, paint);
+                drawShape(canvas, path, paint);
             }
             if (setupStrokePaint(paint, opacity * strokeOpacity)) {
                 if (computePaths) {
-                    mStrokePath = new Path();
-                    paint.getFillPath(path, mStrokePath);
+                    if (outline) {
+                        mStrokePath = new Path();
+                        paint.getFillPath(path, mStrokePath);
+                    } else {
+                        mStrokePath = null;
+                        mOutlineStrokePaint = new Paint(paint);
+                    }
                 }
-                canvas.drawPath(path, paint);
+                drawShape(canvas, path, paint);
             }
             renderMarkers(canvas, paint, opacity);
+            updatePaintBounds(computeBox, nonScalingStroke);
+        }
+    }
+
+    /**
+     * Draws the shape of the path with the fill or stroke paint. Subclasses may draw the same
+     * shape in a faster way, e.g. text as glyphs instead of outlines.
+     */
+    void drawShape(Canvas canvas, Path path, Paint paint) {
+        canvas.drawPath(path, paint);
+    }
+
+    private void updatePaintBounds(boolean computeBox, boolean deviceSpace) {
+        if (computeBox) {
+            mPaintBox.set(mBox);
+            if (mStrokePath != null) {
+                mStrokePath.computeBounds(mScratchRect, true);
+                mPaintBox.union(mScratchRect);
+            } else if (mOutlineStrokePaint != null) {
+                // Outset by as far as a stroke can reach, until the stroke path is computed
+                Paint stroke = mOutlineStrokePaint;
+                float outset = stroke.getStrokeWidth() / 2;
+                if (stroke.getStrokeJoin() == Paint.Join.MITER) {
+                    outset *= Math.max(1, stroke.getStrokeMiter());
+                }
+                mPaintBox.inset(-outset, -outset);
+            }
+        }
+        mPaintRect.set(mPaintBox);
+        if (!deviceSpace) {
+            mCTM.mapRect(mPaintRect);
+        }
+        if (mMarkerPath != null) {
+            RectF markerBounds = mScratchRect;
+            mMarkerPath.computeBounds(markerBounds, true);
+            mCTM.mapRect(markerBounds);
+            mPaintRect.union(markerBounds);
         }
+        setPaintBounds(mPaintRect);
     }
 
     void renderMarkers(Canvas canvas, Paint paint, float opacity) {
@@ -387,10 +491,19 @@ abstract public class RenderableView extends VirtualView {
         MarkerView markerEnd = (MarkerView)getSvgView().getDefinedMarker(mMarkerEnd);
         if (elements != null && (markerStart != null || markerMid != null  || markerEnd != null)) {
             contextElement = this;
-            ArrayList<RNSVGMarkerPosition> positions = RNSVGMarkerPosition.fromPath(elements);
+            if (mMarkerPositions == null || mMarkerElements != elements) {
+                mMarkerPositions = RNSVGMarkerPosition.fromPath(elements);
+                mMarkerElements = elements;
+            }
+            ArrayList<RNSVGMarkerPosition> positions = mMarkerPositions;
             float width = (float)(this.strokeWidth != null ? relativeOnOther(this.strokeWidth) : 1);
-            mMarkerPath = new Path();
-            for (RNSVGMarkerPosition position : positions) {
+            if (mMarkerPath == null) {
+                mMarkerPath = new Path();
+            } else {
+                mMarkerPath.reset();
+            }
+            for (int i = 0; i < positions.size(); i++) {
+                RNSVGMarkerPosition position = positions.get(i);
                 RNSVGMarkerType type = position.type;
                 MarkerView marker = null;
                 switch (type) {
@@ -453,11 +566,22 @@ abstract public class RenderableView extends VirtualView {
 
         if (strokeDasharray != null) {
             int length = strokeDasharray.length;
-            float[] intervals = new float[length];
+            if (mDashIntervals == null || mDashIntervals.length != length) {
+                mDashIntervals = new float[length];
+                mDashPathEffect = null;
+            }
             for (int i = 0; i < length; i++) {
-                intervals[i] = (float)relativeOnOther(strokeDasharray[i]);
+                float interval = (float)relativeOnOther(strokeDasharray[i]);
+                if (mDashIntervals[i] != interval) {
+                    mDashIntervals[i] = interval;
+                    mDashPathEffect = null;
+                }
             }
-            paint.setPathEffect(new DashPathEffect(intervals, strokeDashoffset));
+            if (mDashPathEffect == null || mDashPhase != strokeDashoffset) {
+                mDashPathEffect = new DashPathEffect(mDashIntervals, strokeDashoffset);
+                mDashPhase = strokeDashoffset;
+            }
+            paint.setPathEffect(mDashPathEffect);
         }
 
         return true;
@@ -511,13 +635,44 @@ abstract public class RenderableView extends VirtualView {
 
     abstract Path getPath(Canvas canvas, Paint paint);
 
+    /**
+     * Returns the path drawn by {@link #drawShape}. Unlike {@link #getPath}, its outline may not
+     * be built yet if the shape is drawn without it, see {@link #hasOutline}.
+     */
+    Path getShapePath(Canvas canvas, Paint paint) {
+        return getPath(canvas, paint);
+    }
+
+    /**
+     * Returns {@code false} while the outline of the path returned by {@link #getShapePath} isn't
+     * built, as {@link #drawShape} draws the shape without it, e.g. text as glyph runs.
+     */
+    boolean hasOutline() {
+        return true;
+    }
+
+    /**
+     * Builds the outline of the path returned by {@link #getShapePath} in place, for hit testing
+     * and bounds.
+     */
+    void buildOutline() {
+    }
+
+    /**
+     * Copies the bounds of the path returned by {@link #getPath}, if they were computed ahead of
+     * drawing, into {@code out}. Returns {@code false} if there are none.
+     */
+    boolean getPreparedBounds(RectF out) {
+        return false;
+    }
+
     @Override
     int hitTest(final float[] src) {
         if (mPath == null || !mInvertible || !mTransformInvertible) {
             return -1;
         }
 
-        float[] dst = new float[2];
+        float[] dst = mHitPoint;
         mInvMatrix.mapPoints(dst, src);
         mInvTransform.mapPoints(dst);
         int x = Math.round(dst[0]);
@@ -544,6 +699,14 @@ abstract public class RenderableView extends VirtualView {
     }
 
     void initBounds() {
+        if (mPath != null && !hasOutline()) {
+            buildOutline();
+        }
+        if (mStrokePath == null && mOutlineStrokePaint != null && mPath != null) {
+            mStrokePath = new Path();
+            mOutlineStrokePaint.getFillPath(mPath, mStrokePath);
+            mOutlineStrokePaint = null;
+        }
         if (mRegion == null && mFillPath != null) {
             mFillBounds = new RectF();
             mFillPath.computeBounds(mFillBounds, true);
@@ -568,55 +731,90 @@ abstract public class RenderableView extends VirtualView {
         if (clipPath != null) {
             if (mClipRegionPath != clipPath) {
                 mClipRegionPath = clipPath;
-                mClipBounds = new RectF();
+                if (mClipBounds == null) {
+                    mClipBounds = new RectF();
+                    mClipRegion = new Region();
+                }
                 clipPath.computeBounds(mClipBounds, true);
-                mClipRegion = getRegion(clipPath, mClipBounds);
+                getRegion(clipPath, mClipBounds, mClipRegion);
             }
         }
     }
 
     Region getRegion(Path path, RectF rectF) {
-        Region region = new Region();
-        region.setPath(path,
-                new Region(
-                        (int) Math.floor(rectF.left),
-                        (int) Math.floor(rectF.top),
-                        (int) Math.ceil(rectF.right),
-                        (int) Math.ceil(rectF.bottom)
-                )
+        return getRegion(path, rectF, new Region());
+    }
+
+    /**
+     * Sets the region to the area of the path, reusing it instead of allocating a new one.
+     */
+    Region getRegion(Path path, RectF rectF, Region region) {
+        Region clip = mRegionClip;
+        clip.set(
+                (int) Math.floor(rectF.left),
+                (int) Math.floor(rectF.top),
+                (int) Math.ceil(rectF.right),
+                (int) Math.ceil(rectF.bottom)
         );
+        region.setPath(path, clip);
 
         return region;
     }
 
-    private ArrayList<String> getAttributeList() {
-        return mAttributeList;
+    private static int getPropertySlot(String name) {
+        switch (name) {
+            case "vectorEffect":
+                return VECTOR_EFFECT;
+            case "stroke":
+                return STROKE;
+            case "strokeDasharray":
+                return STROKE_DASHARRAY;
+            case "strokeWidth":
+                return STROKE_WIDTH;
+            case "strokeOpacity":
+                return STROKE_OPACITY;
+            case "strokeMiterlimit":
+                return STROKE_MITERLIMIT;
+            case "strokeDashoffset":
+                return STROKE_DASHOFFSET;
+            case "strokeLinecap":
+                return STROKE_LINECAP;
+            case "strokeLinejoin":
+                return STROKE_LINEJOIN;
+            case "fill":
+                return FILL;
+            case "fillOpacity":
+                return FILL_OPACITY;
+            case "fillRule":
+                return FILL_RULE;
+            default:
+                return -1;
+        }
     }
 
+    /**
+     * Merges the properties set on {@code target} which are not set on this view, remembering the
+     * previous values so {@link #resetProperties} can restore them. Does not allocate, the
+     * attribute lists are bit masks of property slots.
+     */
     void mergeProperties(RenderableView target) {
-        ArrayList<String> targetAttributeList = target.getAttributeList();
+        int targetAttributeList = target.mAttributeList;
 
-        if (targetAttributeList == null ||
-                targetAttributeList.size() == 0) {
+        if (targetAttributeList == 0) {
             return;
         }
 
-        mOriginProperties = new ArrayList<>();
-        mAttributeList = mPropList == null ? new ArrayList<String>() : new ArrayList<>(mPropList);
+        mAttributeList = mPropList;
 
-        for (int i = 0, size = targetAttributeList.size(); i < size; i++) {
-            try {
-                String fieldName = targetAttributeList.get(i);
-                Field field = getClass().getField(fieldName);
-                Object value = field.get(target);
-                mOriginProperties.add(field.get(this));
-
-                if (!hasOwnProperty(fieldName)) {
-                    mAttributeList.add(fieldName);
-                    field.set(this, value);
-                }
-            } catch (Exception e) {
-                throw new IllegalStateException(e);
+        for (int slot = 0; slot < PROPERTY_COUNT; slot++) {
+            int bit = 1 << slot;
+            if ((targetAttributeList & bit) == 0) {
+                continue;
+            }
+            saveProperty(slot);
+            if ((mAttributeList & bit) == 0) {
+                mAttributeList |= bit;
+                copyProperty(slot, target);
             }
         }
 
@@ -624,23 +822,139 @@ abstract public class RenderableView extends VirtualView {
     }
 
     void resetProperties() {
-        if (mLastMergedList != null && mOriginProperties != null) {
-            try {
-                for (int i = mLastMergedList.size() - 1; i >= 0; i--) {
-                    Field field = getClass().getField(mLastMergedList.get(i));
-                    field.set(this, mOriginProperties.get(i));
+        if (mLastMergedList != 0) {
+            for (int slot = PROPERTY_COUNT - 1; slot >= 0; slot--) {
+                if ((mLastMergedList & (1 << slot)) != 0) {
+                    restoreProperty(slot);
                 }
-            } catch (Exception e) {
-                throw new IllegalStateException(e);
             }
 
-            mLastMergedList = null;
-            mOriginProperties = null;
+            mLastMergedList = 0;
             mAttributeList = mPropList;
         }
     }
 
-    private boolean hasOwnProperty(String propName) {
-        return mAttributeList != null && mAttributeList.contains(propName);
+    private void saveProperty(int slot) {
+        switch (slot) {
+            case VECTOR_EFFECT:
+                mOriginValues[slot] = vectorEffect;
+                break;
+            case STROKE:
+                mOriginObjects[slot] = stroke;
+                break;
+            case STROKE_DASHARRAY:
+                mOriginObjects[slot] = strokeDasharray;
+                break;
+            case STROKE_WIDTH:
+                mOriginObjects[slot] = strokeWidth;
+                break;
+            case STROKE_OPACITY:
+                mOriginValues[slot] = strokeOpacity;
+                break;
+            case STROKE_MITERLIMIT:
+                mOriginValues[slot] = strokeMiterlimit;
+                break;
+            case STROKE_DASHOFFSET:
+                mOriginValues[slot] = strokeDashoffset;
+                break;
+            case STROKE_LINECAP:
+                mOriginObjects[slot] = strokeLinecap;
+                break;
+            case STROKE_LINEJOIN:
+                mOriginObjects[slot] = strokeLinejoin;
+                break;
+            case FILL:
+                mOriginObjects[slot] = fill;
+                break;
+            case FILL_OPACITY:
+                mOriginValues[slot] = fillOpacity;
+                break;
+            case FILL_RULE:
+                mOriginObjects[slot] = fillRule;
+                break;
+        }
+    }
+
+    private void restoreProperty(int slot) {
+        switch (slot) {
+            case VECTOR_EFFECT:
+                vectorEffect = (int) mOriginValues[slot];
+                break;
+            case STROKE:
+                stroke = (ReadableArray) mOriginObjects[slot];
+                break;
+            case STROKE_DASHARRAY:
+                strokeDasharray = (SVGLength[]) mOriginObjects[slot];
+                break;
+            case STROKE_WIDTH:
+                strokeWidth = (SVGLength) mOriginObjects[slot];
+                break;
+            case STROKE_OPACITY:
+                strokeOpacity = mOriginValues[slot];
+                break;
+            case STROKE_MITERLIMIT:
+                strokeMiterlimit = mOriginValues[slot];
+                break;
+            case STROKE_DASHOFFSET:
+                strokeDashoffset = mOriginValues[slot];
+                break;
+            case STROKE_LINECAP:
+                strokeLinecap = (Paint.Cap) mOriginObjects[slot];
+                break;
+            case STROKE_LINEJOIN:
+                strokeLinejoin = (Paint.Join) mOriginObjects[slot];
+                break;
+            case FILL:
+                fill = (ReadableArray) mOriginObjects[slot];
+                break;
+            case FILL_OPACITY:
+                fillOpacity = mOriginValues[slot];
+                break;
+            case FILL_RULE:
+                fillRule = (Path.FillType) mOriginObjects[slot];
+                break;
+        }
+        mOriginObjects[slot] = null;
+    }
+
+    private void copyProperty(int slot, RenderableView target) {
+        switch (slot) {
+            case VECTOR_EFFECT:
+                vectorEffect = target.vectorEffect;
+                break;
+            case STROKE:
+                stroke = target.stroke;
+                break;
+            case STROKE_DASHARRAY:
+                strokeDasharray = target.strokeDasharray;
+                break;
+            case STROKE_WIDTH:
+                strokeWidth = target.strokeWidth;
+                break;
+            case STROKE_OPACITY:
+                strokeOpacity = target.strokeOpacity;
+                break;
+            case STROKE_MITERLIMIT:
+                strokeMiterlimit = target.strokeMiterlimit;
+                break;
+            case STROKE_DASHOFFSET:
+                strokeDashoffset = target.strokeDashoffset;
+                break;
+            case STROKE_LINECAP:
+                strokeLinecap = target.strokeLinecap;
+                break;
+            case STROKE_LINEJOIN:
+                strokeLinejoin = target.strokeLinejoin;
+                break;
+            case FILL:
+                fill = target.fill;
+                break;
+            case FILL_OPACITY:
+                fillOpacity = target.fillOpacity;
+                break;
+            case FILL_RULE:
+                fillRule = target.fillRule;
+                break;
+        }
     }
 }
@@ -400,11 +400,13 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "font")
         public void setFont(GroupView node, @Nullable ReadableMap font) {
+            node.hashProp("font", font);
             node.setFont(font);
         }
 
         @ReactProp(name = "fontSize")
         public void setFontSize(GroupView node, Dynamic fontSize) {
+            node.hashProp("fontSize", fontSize);
             JavaOnlyMap map = new JavaOnlyMap();
             switch (fontSize.getType()) {
                 case Number:
@@ -421,6 +423,7 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "fontWeight")
         public void setFontWeight(GroupView node, Dynamic fontWeight) {
+            node.hashProp("fontWeight", fontWeight);
             JavaOnlyMap map = new JavaOnlyMap();
             switch (fontWeight.getType()) {
                 case Number:
@@ -444,6 +447,7 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "d")
         public void setD(PathView node, String d) {
+            node.hashProp("d", d);
             node.setD(d);
         }
     }
@@ -459,61 +463,73 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "inlineSize")
         public void setInlineSize(TextView node, Dynamic inlineSize) {
+            node.hashProp("inlineSize", inlineSize);
             node.setInlineSize(inlineSize);
         }
 
         @ReactProp(name = "textLength")
         public void setTextLength(TextView node, Dynamic length) {
+            node.hashProp("textLength", length);
             node.setTextLength(length);
         }
 
         @ReactProp(name = "lengthAdjust")
         public void setLengthAdjust(TextView node, @Nullable String adjustment) {
+            node.hashProp("lengthAdjust", adjustment);
             node.setLengthAdjust(adjustment);
         }
 
         @ReactProp(name = "alignmentBaseline")
         public void setMethod(TextView node, @Nullable String alignment) {
+            node.hashProp("alignmentBaseline", alignment);
             node.setMethod(alignment);
         }
 
         @ReactProp(name = "baselineShift")
         public void setBaselineShift(TextView node, Dynamic baselineShift) {
+            node.hashProp("baselineShift", baselineShift);
             node.setBaselineShift(baselineShift);
         }
 
         @ReactProp(name = "verticalAlign")
         public void setVerticalAlign(TextView node, @Nullable String verticalAlign) {
+            node.hashProp("verticalAlign", verticalAlign);
             node.setVerticalAlign(verticalAlign);
         }
 
         @ReactProp(name = "rotate")
         public void setRotate(TextView node, Dynamic rotate) {
+            node.hashProp("rotate", rotate);
             node.setRotate(rotate);
         }
 
         @ReactProp(name = "dx")
         public void setDeltaX(TextView node, Dynamic deltaX) {
+            node.hashProp("dx", deltaX);
             node.setDeltaX(deltaX);
         }
 
         @ReactProp(name = "dy")
         public void setDeltaY(TextView node, Dynamic deltaY) {
+            node.hashProp("dy", deltaY);
             node.setDeltaY(deltaY);
         }
 
         @ReactProp(name = "x")
         public void setX(TextView node, Dynamic positionX) {
+            node.hashProp("x", positionX);
             node.setPositionX(positionX);
         }
 
         @ReactProp(name = "y")
         public void setY(TextView node, Dynamic positionY) {
+            node.hashProp("y", positionY);
             node.setPositionY(positionY);
         }
 
         @ReactProp(name = "font")
         public void setFont(TextView node, @Nullable ReadableMap font) {
+            node.hashProp("font", font);
             node.setFont(font);
         }
     }
@@ -525,6 +541,7 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "content")
         public void setContent(TSpanView node, @Nullable String content) {
+            node.hashProp("content", content);
             node.setContent(content);
         }
     }
@@ -536,31 +553,37 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "href")
         public void setHref(TextPathView node, String href) {
+            node.hashProp("href", href);
             node.setHref(href);
         }
 
         @ReactProp(name = "startOffset")
         public void setStartOffset(TextPathView node, Dynamic startOffset) {
+            node.hashProp("startOffset", startOffset);
             node.setStartOffset(startOffset);
         }
 
         @ReactProp(name = "method")
         public void setMethod(TextPathView node, @Nullable String method) {
+            node.hashProp("method", method);
             node.setMethod(method);
         }
 
         @ReactProp(name = "spacing")
         public void setSpacing(TextPathView node, @Nullable String spacing) {
+            node.hashProp("spacing", spacing);
             node.setSpacing(spacing);
         }
 
         @ReactProp(name = "side")
         public void setSide(TextPathView node, @Nullable String side) {
+            node.hashProp("side", side);
             node.setSide(side);
         }
 
         @ReactProp(name = "midLine")
         public void setSharp(TextPathView node, @Nullable String midLine) {
+            node.hashProp("midLine", midLine);
             node.setSharp(midLine);
         }
     }
@@ -572,37 +595,44 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "x")
         public void setX(ImageView node, Dynamic x) {
+            node.hashProp("x", x);
             node.setX(x);
         }
 
         @ReactProp(name = "y")
         public void setY(ImageView node, Dynamic y) {
+            node.hashProp("y", y);
             node.setY(y);
         }
 
         @ReactProp(name = "width")
         public void setWidth(ImageView node, Dynamic width) {
+            node.hashProp("width", width);
             node.setWidth(width);
         }
 
         @ReactProp(name = "height")
         public void setHeight(ImageView node, Dynamic height) {
+            node.hashProp("height", height);
             node.setHeight(height);
         }
 
         @ReactProp(name = "src")
         public void setSrc(ImageView node, @Nullable ReadableMap src) {
+            node.hashProp("src", src);
             node.setSrc(src);
         }
 
 
         @ReactProp(name = "align")
         public void setAlign(ImageView node, String align) {
+            node.hashProp("align", align);
             node.setAlign(align);
         }
 
         @ReactProp(name = "meetOrSlice")
         public void setMeetOrSlice(ImageView node, int meetOrSlice) {
+            node.hashProp("meetOrSlice", meetOrSlice);
             node.setMeetOrSlice(meetOrSlice);
         }
     }
@@ -614,16 +644,19 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "cx")
         public void setCx(CircleView node, Dynamic cx) {
+            node.hashProp("cx", cx);
             node.setCx(cx);
         }
 
         @ReactProp(name = "cy")
         public void setCy(CircleView node, Dynamic cy) {
+            node.hashProp("cy", cy);
             node.setCy(cy);
         }
 
         @ReactProp(name = "r")
         public void setR(CircleView node, Dynamic r) {
+            node.hashProp("r", r);
             node.setR(r);
         }
     }
@@ -635,21 +668,25 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "cx")
         public void setCx(EllipseView node, Dynamic cx) {
+            node.hashProp("cx", cx);
             node.setCx(cx);
         }
 
         @ReactProp(name = "cy")
         public void setCy(EllipseView node, Dynamic cy) {
+            node.hashProp("cy", cy);
             node.setCy(cy);
         }
 
         @ReactProp(name = "rx")
         public void setRx(EllipseView node, Dynamic rx) {
+            node.hashProp("rx", rx);
             node.setRx(rx);
         }
 
         @ReactProp(name = "ry")
         public void setRy(EllipseView node, Dynamic ry) {
+            node.hashProp("ry", ry);
             node.setRy(ry);
         }
     }
@@ -661,21 +698,25 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "x1")
         public void setX1(LineView node, Dynamic x1) {
+            node.hashProp("x1", x1);
             node.setX1(x1);
         }
 
         @ReactProp(name = "y1")
         public void setY1(LineView node, Dynamic y1) {
+            node.hashProp("y1", y1);
             node.setY1(y1);
         }
 
         @ReactProp(name = "x2")
         public void setX2(LineView node, Dynamic x2) {
+            node.hashProp("x2", x2);
             node.setX2(x2);
         }
 
         @ReactProp(name = "y2")
         public void setY2(LineView node, Dynamic y2) {
+            node.hashProp("y2", y2);
             node.setY2(y2);
         }
     }
@@ -687,31 +728,37 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "x")
         public void setX(RectView node, Dynamic x) {
+            node.hashProp("x", x);
             node.setX(x);
         }
 
         @ReactProp(name = "y")
         public void setY(RectView node, Dynamic y) {
+            node.hashProp("y", y);
             node.setY(y);
         }
 
         @ReactProp(name = "width")
         public void setWidth(RectView node, Dynamic width) {
+            node.hashProp("width", width);
             node.setWidth(width);
         }
 
         @ReactProp(name = "height")
         public void setHeight(RectView node, Dynamic height) {
+            node.hashProp("height", height);
             node.setHeight(height);
         }
 
         @ReactProp(name = "rx")
         public void setRx(RectView node, Dynamic rx) {
+            node.hashProp("rx", rx);
             node.setRx(rx);
         }
 
         @ReactProp(name = "ry")
         public void setRy(RectView node, Dynamic ry) {
+            node.hashProp("ry", ry);
             node.setRy(ry);
         }
     }
@@ -735,26 +782,31 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "href")
         public void setHref(UseView node, String href) {
+            node.hashProp("href", href);
             node.setHref(href);
         }
 
         @ReactProp(name = "x")
         public void setX(UseView node, Dynamic x) {
+            node.hashProp("x", x);
             node.setX(x);
         }
 
         @ReactProp(name = "y")
         public void setY(UseView node, Dynamic y) {
+            node.hashProp("y", y);
             node.setY(y);
         }
 
         @ReactProp(name = "width")
         public void setWidth(UseView node, Dynamic width) {
+            node.hashProp("width", width);
             node.setWidth(width);
         }
 
         @ReactProp(name = "height")
         public void setHeight(UseView node, Dynamic height) {
+            node.hashProp("height", height);
             node.setHeight(height);
         }
     }
@@ -766,31 +818,37 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "minX")
         public void setMinX(SymbolView node, float minX) {
+            node.hashProp("minX", minX);
             node.setMinX(minX);
         }
 
         @ReactProp(name = "minY")
         public void setMinY(SymbolView node, float minY) {
+            node.hashProp("minY", minY);
             node.setMinY(minY);
         }
 
         @ReactProp(name = "vbWidth")
         public void setVbWidth(SymbolView node, float vbWidth) {
+            node.hashProp("vbWidth", vbWidth);
             node.setVbWidth(vbWidth);
         }
 
         @ReactProp(name = "vbHeight")
         public void setVbHeight(SymbolView node, float vbHeight) {
+            node.hashProp("vbHeight", vbHeight);
             node.setVbHeight(vbHeight);
         }
 
         @ReactProp(name = "align")
         public void setAlign(SymbolView node, String align) {
+            node.hashProp("align", align);
             node.setAlign(align);
         }
 
         @ReactProp(name = "meetOrSlice")
         public void setMeetOrSlice(SymbolView node, int meetOrSlice) {
+            node.hashProp("meetOrSlice", meetOrSlice);
             node.setMeetOrSlice(meetOrSlice);
         }
     }
@@ -802,66 +860,79 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "x")
         public void setX(PatternView node, Dynamic x) {
+            node.hashProp("x", x);
             node.setX(x);
         }
 
         @ReactProp(name = "y")
         public void setY(PatternView node, Dynamic y) {
+            node.hashProp("y", y);
             node.setY(y);
         }
 
         @ReactProp(name = "width")
         public void setWidth(PatternView node, Dynamic width) {
+            node.hashProp("width", width);
             node.setWidth(width);
         }
 
         @ReactProp(name = "height")
         public void setHeight(PatternView node, Dynamic height) {
+            node.hashProp("height", height);
             node.setHeight(height);
         }
 
         @ReactProp(name = "patternUnits")
         public void setPatternUnits(PatternView node, int patternUnits) {
+            node.hashProp("patternUnits", patternUnits);
             node.setPatternUnits(patternUnits);
         }
 
         @ReactProp(name = "patternContentUnits")
         public void setPatternContentUnits(PatternView node, int patternContentUnits) {
+            node.hashProp("patternContentUnits", patternContentUnits);
             node.setPatternContentUnits(patternContentUnits);
         }
 
         @ReactProp(name = "patternTransform")
         public void setPatternTransform(PatternView node, @Nullable ReadableArray matrixArray) {
+            node.hashProp("patternTransform", matrixArray);
             node.setPatternTransform(matrixArray);
         }
 
         @ReactProp(name = "minX")
         public void setMinX(PatternView node, float minX) {
+            node.hashProp("minX", minX);
             node.setMinX(minX);
         }
 
         @ReactProp(name = "minY")
         public void setMinY(PatternView node, float minY) {
+            node.hashProp("minY", minY);
             node.setMinY(minY);
         }
 
         @ReactProp(name = "vbWidth")
         public void setVbWidth(PatternView node, float vbWidth) {
+            node.hashProp("vbWidth", vbWidth);
             node.setVbWidth(vbWidth);
         }
 
         @ReactProp(name = "vbHeight")
         public void setVbHeight(PatternView node, float vbHeight) {
+            node.hashProp("vbHeight", vbHeight);
             node.setVbHeight(vbHeight);
         }
 
         @ReactProp(name = "align")
         public void setAlign(PatternView node, String align) {
+            node.hashProp("align", align);
             node.setAlign(align);
         }
 
         @ReactProp(name = "meetOrSlice")
         public void setMeetOrSlice(PatternView node, int meetOrSlice) {
+            node.hashProp("meetOrSlice", meetOrSlice);
             node.setMeetOrSlice(meetOrSlice);
         }
     }
@@ -873,36 +944,43 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "x")
         public void setX(MaskView node, Dynamic x) {
+            node.hashProp("x", x);
             node.setX(x);
         }
 
         @ReactProp(name = "y")
         public void setY(MaskView node, Dynamic y) {
+            node.hashProp("y", y);
             node.setY(y);
         }
 
         @ReactProp(name = "width")
         public void setWidth(MaskView node, Dynamic width) {
+            node.hashProp("width", width);
             node.setWidth(width);
         }
 
         @ReactProp(name = "height")
         public void setHeight(MaskView node, Dynamic height) {
+            node.hashProp("height", height);
             node.setHeight(height);
         }
 
         @ReactProp(name = "maskUnits")
         public void setMaskUnits(MaskView node, int maskUnits) {
+            node.hashProp("maskUnits", maskUnits);
             node.setMaskUnits(maskUnits);
         }
 
         @ReactProp(name = "maskContentUnits")
         public void setMaskContentUnits(MaskView node, int maskContentUnits) {
+            node.hashProp("maskContentUnits", maskContentUnits);
             node.setMaskContentUnits(maskContentUnits);
         }
 
         @ReactProp(name = "maskTransform")
         public void setMaskTransform(MaskView node, @Nullable ReadableArray matrixArray) {
+            node.hashProp("maskTransform", matrixArray);
             node.setMaskTransform(matrixArray);
         }
     }
@@ -914,61 +992,73 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "refX")
         public void setRefX(MarkerView node, Dynamic refX) {
+            node.hashProp("refX", refX);
             node.setRefX(refX);
         }
 
         @ReactProp(name = "refY")
         public void setRefY(MarkerView node, Dynamic refY) {
+            node.hashProp("refY", refY);
             node.setRefY(refY);
         }
 
         @ReactProp(name = "markerWidth")
         public void setMarkerWidth(MarkerView node, Dynamic markerWidth) {
+            node.hashProp("markerWidth", markerWidth);
             node.setMarkerWidth(markerWidth);
         }
 
         @ReactProp(name = "markerHeight")
         public void setMarkerHeight(MarkerView node, Dynamic markerHeight) {
+            node.hashProp("markerHeight", markerHeight);
             node.setMarkerHeight(markerHeight);
         }
 
         @ReactProp(name = "markerUnits")
         public void setMarkerUnits(MarkerView node, String markerUnits) {
+            node.hashProp("markerUnits", markerUnits);
             node.setMarkerUnits(markerUnits);
         }
 
         @ReactProp(name = "orient")
         public void setOrient(MarkerView node, String orient) {
+            node.hashProp("orient", orient);
             node.setOrient(orient);
         }
 
         @ReactProp(name = "minX")
         public void setMinX(MarkerView node, float minX) {
+            node.hashProp("minX", minX);
             node.setMinX(minX);
         }
 
         @ReactProp(name = "minY")
         public void setMinY(MarkerView node, float minY) {
+            node.hashProp("minY", minY);
             node.setMinY(minY);
         }
 
         @ReactProp(name = "vbWidth")
         public void setVbWidth(MarkerView node, float vbWidth) {
+            node.hashProp("vbWidth", vbWidth);
             node.setVbWidth(vbWidth);
         }
 
         @ReactProp(name = "vbHeight")
         public void setVbHeight(MarkerView node, float vbHeight) {
+            node.hashProp("vbHeight", vbHeight);
             node.setVbHeight(vbHeight);
         }
 
         @ReactProp(name = "align")
         public void setAlign(MarkerView node, String align) {
+            node.hashProp("align", align);
             node.setAlign(align);
         }
 
         @ReactProp(name = "meetOrSlice")
         public void setMeetOrSlice(MarkerView node, int meetOrSlice) {
+            node.hashProp("meetOrSlice", meetOrSlice);
             node.setMeetOrSlice(meetOrSlice);
         }
     }
@@ -980,36 +1070,43 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "x1")
         public void setX1(LinearGradientView node, Dynamic x1) {
+            node.hashProp("x1", x1);
             node.setX1(x1);
         }
 
         @ReactProp(name = "y1")
         public void setY1(LinearGradientView node, Dynamic y1) {
+            node.hashProp("y1", y1);
             node.setY1(y1);
         }
 
         @ReactProp(name = "x2")
         public void setX2(LinearGradientView node, Dynamic x2) {
+            node.hashProp("x2", x2);
             node.setX2(x2);
         }
 
         @ReactProp(name = "y2")
         public void setY2(LinearGradientView node, Dynamic y2) {
+            node.hashProp("y2", y2);
             node.setY2(y2);
         }
 
         @ReactProp(name = "gradient")
         public void setGradient(LinearGradientView node, ReadableArray gradient) {
+            node.hashProp("gradient", gradient);
             node.setGradient(gradient);
         }
 
         @ReactProp(name = "gradientUnits")
         public void setGradientUnits(LinearGradientView node, int gradientUnits) {
+            node.hashProp("gradientUnits", gradientUnits);
             node.setGradientUnits(gradientUnits);
         }
 
         @ReactProp(name = "gradientTransform")
         public void setGradientTransform(LinearGradientView node, @Nullable ReadableArray matrixArray) {
+            node.hashProp("gradientTransform", matrixArray);
             node.setGradientTransform(matrixArray);
         }
     }
@@ -1021,46 +1118,55 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
         @ReactProp(name = "fx")
         public void setFx(RadialGradientView node, Dynamic fx) {
+            node.hashProp("fx", fx);
             node.setFx(fx);
         }
 
         @ReactProp(name = "fy")
         public void setFy(RadialGradientView node, Dynamic fy) {
+            node.hashProp("fy", fy);
             node.setFy(fy);
         }
 
         @ReactProp(name = "rx")
         public void setRx(RadialGradientView node, Dynamic rx) {
+            node.hashProp("rx", rx);
             node.setRx(rx);
         }
 
         @ReactProp(name = "ry")
         public void setRy(RadialGradientView node, Dynamic ry) {
+            node.hashProp("ry", ry);
             node.setRy(ry);
         }
 
         @ReactProp(name = "cx")
         public void setCx(RadialGradientView node, Dynamic cx) {
+            node.hashProp("cx", cx);
             node.setCx(cx);
         }
 
         @ReactProp(name = "cy")
         public void setCy(RadialGradientView node, Dynamic cy) {
+            node.hashProp("cy", cy);
             node.setCy(cy);
         }
 
         @ReactProp(name = "gradient")
         public void setGradient(RadialGradientView node, ReadableArray gradient) {
+            node.hashProp("gradient", gradient);
             node.setGradient(gradient);
         }
 
         @ReactProp(name = "gradientUnits")
         public void setGradientUnits(RadialGradientView node, int gradientUnits) {
+            node.hashProp("gradientUnits", gradientUnits);
             node.setGradientUnits(gradientUnits);
         }
 
         @ReactProp(name = "gradientTransform")
         public void setGradientTransform(RadialGradientView node, @Nullable ReadableArray matrixArray) {
+            node.hashProp("gradientTransform", matrixArray);
             node.setGradientTransform(matrixArray);
         }
     }
@@ -1078,107 +1184,128 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
     @ReactProp(name = "mask")
     public void setMask(VirtualView node, String mask) {
+        node.hashProp("mask", mask);
         node.setMask(mask);
     }
 
     @ReactProp(name = "markerStart")
     public void setMarkerStart(VirtualView node, String markerStart) {
+        node.hashProp("markerStart", markerStart);
         node.setMarkerStart(markerStart);
     }
 
     @ReactProp(name = "markerMid")
     public void setMarkerMid(VirtualView node, String markerMid) {
+        node.hashProp("markerMid", markerMid);
         node.setMarkerMid(markerMid);
     }
 
     @ReactProp(name = "markerEnd")
     public void setMarkerEnd(VirtualView node, String markerEnd) {
+        node.hashProp("markerEnd", markerEnd);
         node.setMarkerEnd(markerEnd);
     }
 
     @ReactProp(name = "clipPath")
     public void setClipPath(VirtualView node, String clipPath) {
+        node.hashProp("clipPath", clipPath);
         node.setClipPath(clipPath);
     }
 
     @ReactProp(name = "clipRule")
     public void setClipRule(VirtualView node, int clipRule) {
+        node.hashProp("clipRule", clipRule);
         node.setClipRule(clipRule);
     }
 
     @ReactProp(name = "opacity", defaultFloat = 1f)
     public void setOpacity(@Nonnull VirtualView node, float opacity) {
+        node.hashProp("opacity", opacity);
         node.setOpacity(opacity);
     }
 
     @ReactProp(name = "fill")
     public void setFill(RenderableView node, @Nullable Dynamic fill) {
+        node.hashProp("fill", fill);
         node.setFill(fill);
     }
 
     @ReactProp(name = "fillOpacity", defaultFloat = 1f)
     public void setFillOpacity(RenderableView node, float fillOpacity) {
+        node.hashProp("fillOpacity", fillOpacity);
         node.setFillOpacity(fillOpacity);
     }
 
     @ReactProp(name = "fillRule", defaultInt = FILL_RULE_NONZERO)
     public void setFillRule(RenderableView node, int fillRule) {
+        node.hashProp("fillRule", fillRule);
         node.setFillRule(fillRule);
     }
 
 
     @ReactProp(name = "stroke")
     public void setStroke(RenderableView node, @Nullable Dynamic strokeColors) {
+        node.hashProp("stroke", strokeColors);
         node.setStroke(strokeColors);
     }
 
     @ReactProp(name = "strokeOpacity", defaultFloat = 1f)
     public void setStrokeOpacity(RenderableView node, float strokeOpacity) {
+        node.hashProp("strokeOpacity", strokeOpacity);
         node.setStrokeOpacity(strokeOpacity);
     }
 
     @ReactProp(name = "strokeDasharray")
     public void setStrokeDasharray(RenderableView node, @Nullable ReadableArray strokeDasharray) {
+        node.hashProp("strokeDasharray", strokeDasharray);
         node.setStrokeDasharray(strokeDasharray);
     }
 
     @ReactProp(name = "strokeDashoffset")
     public void setStrokeDashoffset(RenderableView node, float strokeDashoffset) {
+        node.hashProp("strokeDashoffset", strokeDashoffset);
         node.setStrokeDashoffset(strokeDashoffset);
     }
 
     @ReactProp(name = "strokeWidth")
     public void setStrokeWidth(RenderableView node, Dynamic strokeWidth) {
+        node.hashProp("strokeWidth", strokeWidth);
         node.setStrokeWidth(strokeWidth);
     }
 
     @ReactProp(name = "strokeMiterlimit", defaultFloat = 4f)
     public void setStrokeMiterlimit(RenderableView node, float strokeMiterlimit) {
+        node.hashProp("strokeMiterlimit", strokeMiterlimit);
         node.setStrokeMiterlimit(strokeMiterlimit);
     }
 
     @ReactProp(name = "strokeLinecap", defaultInt = CAP_ROUND)
     public void setStrokeLinecap(RenderableView node, int strokeLinecap) {
+        node.hashProp("strokeLinecap", strokeLinecap);
         node.setStrokeLinecap(strokeLinecap);
     }
 
     @ReactProp(name = "strokeLinejoin", defaultInt = JOIN_ROUND)
     public void setStrokeLinejoin(RenderableView node, int strokeLinejoin) {
+        node.hashProp("strokeLinejoin", strokeLinejoin);
         node.setStrokeLinejoin(strokeLinejoin);
     }
 
     @ReactProp(name = "vectorEffect")
     public void setVectorEffect(RenderableView node, int vectorEffect) {
+        node.hashProp("vectorEffect", vectorEffect);
         node.setVectorEffect(vectorEffect);
     }
 
     @ReactProp(name = "matrix")
     public void setMatrix(VirtualView node, Dynamic matrixArray) {
+        node.hashProp("matrix", matrixArray);
         node.setMatrix(matrixArray);
     }
 
     @ReactProp(name = "transform")
     public void setTransform(VirtualView node, Dynamic matrix) {
+        node.hashProp("transform", matrix);
         if (matrix.getType() != ReadableType.Array) {
             return;
         }
@@ -1195,28 +1322,33 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
 
     @ReactProp(name = "propList")
     public void setPropList(RenderableView node, @Nullable ReadableArray propList) {
+        node.hashProp("propList", propList);
         node.setPropList(propList);
     }
 
     @ReactProp(name = "responsible")
     public void setResponsible(VirtualView node, boolean responsible) {
+        node.hashProp("responsible", responsible);
         node.setResponsible(responsible);
     }
 
     @ReactProp(name = "onLayout")
     public void setOnLayout(VirtualView node, boolean onLayout) {
+        node.hashProp("onLayout", onLayout);
         node.setOnLayout(onLayout);
     }
 
     @ReactProp(name = "name")
     public void setName(VirtualView node, String name) {
+        node.hashProp("name", name);
         node.setName(name);
     }
 
     private void invalidateSvgView(VirtualView node) {
+        VirtualView.clearDefinitionCaches(node);
         SvgView view = node.getSvgView();
         if (view!= null) {
-            view.invalidate();
+            view.invalidateNode(node instanceof TextView ? ((TextView) node).getTextContainer() : node);
         }
         if (node instanceof TextView) {
             ((TextView)node).getTextContainer().clearChildCache();
@@ -1326,5 +1458,8 @@ class RenderableViewManager extends ViewGroupManager<VirtualView> {
     public void onDropViewInstance(@Nonnull VirtualView view) {
         super.onDropViewInstance(view);
         mTagToRenderableView.remove(view.getId());
+        if (view instanceof ImageView) {
+            ((ImageView) view).releaseImage();
+        }
     }
 }
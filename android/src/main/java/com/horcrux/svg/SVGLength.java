@@ -31,7 +31,7 @@ class SVGLength {
         value = number;
         unit = UnitType.NUMBER;
     }
-    private SVGLength(String length) {
+    SVGLength(String length) {
         length = length.trim();
         int stringLength = length.length();
         int percentIndex = stringLength - 1;
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.content.Context;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import javax.annotation.Nullable;
+
+/**
+ * Encoded scenes of parsed SVG documents in the app cache directory, keyed by a hash of the
+ * document source, so documents mounted on an earlier launch skip parsing.
+ *
+ * The least recently used scenes are deleted once there are more than {@link #MAX_SCENES}.
+ */
+class SceneCache {
+    private static final String DIRECTORY = "RNSVG/scenes";
+    private static final String EXTENSION = ".scene";
+    private static final int MAX_SCENES = 128;
+
+    /**
+     * Returns the cache key of a document source.
+     */
+    static String key(byte[] source) {
+        // Scenes of another format version are never read
+        return RasterCache.hash(source) + "-" + SceneCodec.VERSION;
+    }
+
+    /**
+     * Reads the cached scene of the given key, or returns null if there is none.
+     */
+    static @Nullable byte[] get(Context context, String key) {
+        File file = new File(getDirectory(context), key + EXTENSION);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            byte[] scene = new byte[(int) file.length()];
+            InputStream input = new FileInputStream(file);
+            try {
+                int read = 0;
+                while (read < scene.length) {
+                    int count = input.read(scene, read, scene.length - read);
+                    if (count < 0) {
+                        throw new IOException("Unexpected end of " + file);
+                    }
+                    read += count;
+                }
+            } finally {
+                input.close();
+            }
+            //noinspection ResultOfMethodCallIgnored
+            file.setLastModified(System.currentTimeMillis());
+            return scene;
+        } catch (IOException e) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Failed to read cached scene " + file, e);
+            remove(context, key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the scene encoded by the encoder under the given key.
+     */
+    static void put(Context context, String key, SceneCodec.Encoder encoder) {
+        File directory = getDirectory(context);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Can't create directory " + directory);
+            return;
+        }
+        File file = new File(directory, key + EXTENSION);
+        try {
+            // Write to a temporary file first, so a scene is never read half written
+            File temp = File.createTempFile(key, ".tmp", directory);
+            OutputStream output = new BufferedOutputStream(new FileOutputStream(temp));
+            try {
+                encoder.writeTo(output);
+            } finally {
+                output.close();
+            }
+            if (!temp.renameTo(file)) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+                throw new IOException("Can't rename " + temp + " to " + file);
+            }
+        } catch (IOException e) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Failed to cache scene " + file, e);
+            return;
+        }
+        trim(directory);
+    }
+
+    static void remove(Context context, String key) {
+        //noinspection ResultOfMethodCallIgnored
+        new File(getDirectory(context), key + EXTENSION).delete();
+    }
+
+    private static void trim(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null || files.length <= MAX_SCENES) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File file, File other) {
+                long modified = file.lastModified();
+                long otherModified = other.lastModified();
+                return modified < otherModified ? -1 : modified == otherModified ? 0 : 1;
+            }
+        });
+        for (int i = 0; i < files.length - MAX_SCENES; i++) {
+            //noinspection ResultOfMethodCallIgnored
+            files[i].delete();
+        }
+    }
+
+    private static File getDirectory(Context context) {
+        return new File(context.getCacheDir(), DIRECTORY);
+    }
+}
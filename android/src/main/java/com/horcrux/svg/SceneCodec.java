@@ -0,0 +1,595 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * Compact binary form of the nodes reported by {@link SvgXmlParser}, so a parsed document can be
+ * stored and mounted again without parsing it.
+ *
+ * A scene is a header, a table of all strings used as node types, prop names and string values,
+ * then the node commands. Numbers are written as 32 bit floats when that doesn't lose precision,
+ * arrays of numbers packed without per item types, and counts and string indices as variable
+ * length integers.
+ */
+class SceneCodec {
+    private static final int MAGIC = 0x524e5356; // RNSV
+    static final int VERSION = 2;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int COMMAND_END_SCENE = 0;
+    private static final int COMMAND_START = 1;
+    private static final int COMMAND_UPDATE = 2;
+    private static final int COMMAND_END = 3;
+
+    private static final int VALUE_NULL = 0;
+    private static final int VALUE_TRUE = 1;
+    private static final int VALUE_FALSE = 2;
+    private static final int VALUE_INT = 3;
+    private static final int VALUE_FLOAT = 4;
+    private static final int VALUE_DOUBLE = 5;
+    private static final int VALUE_STRING = 6;
+    private static final int VALUE_ARRAY = 7;
+    private static final int VALUE_MAP = 8;
+    private static final int VALUE_FLOAT_ARRAY = 9;
+    private static final int VALUE_DOUBLE_ARRAY = 10;
+
+    // Length props the decoder sets directly, see ViewHandler
+    private static final Set<String> LENGTH_PROPS = new HashSet<>(Arrays.asList(
+            "x", "y", "width", "height", "rx", "ry", "cx", "cy", "r", "x1", "y1", "x2", "y2", "strokeWidth"));
+
+    /**
+     * Encodes the nodes passed through it, forwarding them to another handler so a document can
+     * be mounted and stored from a single parse.
+     */
+    static class Encoder implements SvgXmlParser.Handler {
+        private final @Nullable SvgXmlParser.Handler mTarget;
+        private final ByteArrayOutputStream mBuffer = new ByteArrayOutputStream();
+        private final DataOutputStream mCommands = new DataOutputStream(mBuffer);
+        private final ArrayList<String> mStrings = new ArrayList<>();
+        private final HashMap<String, Integer> mStringIndices = new HashMap<>();
+
+        Encoder(@Nullable SvgXmlParser.Handler target) {
+            mTarget = target;
+        }
+
+        @Override
+        public void startNode(String type, ReadableMap props) {
+            try {
+                mCommands.writeByte(COMMAND_START);
+                writeVarInt(mCommands, indexOf(type));
+                writeMap(props);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            if (mTarget != null) {
+                mTarget.startNode(type, props);
+            }
+        }
+
+        @Override
+        public void updateNode(ReadableMap props) {
+            try {
+                mCommands.writeByte(COMMAND_UPDATE);
+                writeMap(props);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            if (mTarget != null) {
+                mTarget.updateNode(props);
+            }
+        }
+
+        @Override
+        public void endNode() {
+            try {
+                mCommands.writeByte(COMMAND_END);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            if (mTarget != null) {
+                mTarget.endNode();
+            }
+        }
+
+        /**
+         * Writes the scene of all nodes encoded so far.
+         */
+        void writeTo(OutputStream output) throws IOException {
+            DataOutputStream out = new DataOutputStream(output);
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            writeVarInt(out, mStrings.size());
+            for (String string : mStrings) {
+                byte[] bytes = string.getBytes(UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+            mBuffer.writeTo(out);
+            out.writeByte(COMMAND_END_SCENE);
+            out.flush();
+        }
+
+        private int indexOf(String string) {
+            Integer index = mStringIndices.get(string);
+            if (index == null) {
+                index = mStrings.size();
+                mStrings.add(string);
+                mStringIndices.put(string, index);
+            }
+            return index;
+        }
+
+        private void writeMap(ReadableMap map) throws IOException {
+            HashMap<String, Object> values = map.toHashMap();
+            writeVarInt(mCommands, values.size());
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                writeVarInt(mCommands, indexOf(entry.getKey()));
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeValue(@Nullable Object value) throws IOException {
+            DataOutputStream out = mCommands;
+            if (value == null) {
+                out.writeByte(VALUE_NULL);
+            } else if (value instanceof Boolean) {
+                out.writeByte((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+            } else if (value instanceof Integer) {
+                out.writeByte(VALUE_INT);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                if ((double) (float) number == number) {
+                    out.writeByte(VALUE_FLOAT);
+                    out.writeFloat((float) number);
+                } else {
+                    out.writeByte(VALUE_DOUBLE);
+                    out.writeDouble(number);
+                }
+            } else if (value instanceof String) {
+                out.writeByte(VALUE_STRING);
+                writeVarInt(out, indexOf((String) value));
+            } else if (value instanceof ReadableArray) {
+                writeList(((ReadableArray) value).toArrayList());
+            } else if (value instanceof List) {
+                writeList((List<?>) value);
+            } else if (value instanceof ReadableMap) {
+                out.writeByte(VALUE_MAP);
+                writeMap((ReadableMap) value);
+            } else if (value instanceof Map) {
+                out.writeByte(VALUE_MAP);
+                writeMap(JavaOnlyMap.from(castMap(value)));
+            } else {
+                throw new IOException("Can't encode " + value.getClass().getName());
+            }
+        }
+
+        private void writeList(List<?> list) throws IOException {
+            if (writePackedList(list)) {
+                return;
+            }
+            mCommands.writeByte(VALUE_ARRAY);
+            writeVarInt(mCommands, list.size());
+            for (Object item : list) {
+                writeValue(item);
+            }
+        }
+
+        /**
+         * Writes a non-empty list of numbers as packed floats, or doubles if floats would lose
+         * precision. Returns false if the list has other items.
+         */
+        private boolean writePackedList(List<?> list) throws IOException {
+            if (list.isEmpty()) {
+                return false;
+            }
+            boolean floats = true;
+            for (Object item : list) {
+                if (!(item instanceof Number)) {
+                    return false;
+                }
+                double number = ((Number) item).doubleValue();
+                floats &= (double) (float) number == number;
+            }
+            DataOutputStream out = mCommands;
+            out.writeByte(floats ? VALUE_FLOAT_ARRAY : VALUE_DOUBLE_ARRAY);
+            writeVarInt(out, list.size());
+            for (Object item : list) {
+                double number = ((Number) item).doubleValue();
+                if (floats) {
+                    out.writeFloat((float) number);
+                } else {
+                    out.writeDouble(number);
+                }
+            }
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Object> castMap(Object map) {
+            return (Map<String, Object>) map;
+        }
+    }
+
+    /**
+     * Handler that lets the decoder set the common props of the views it creates directly, i.e.
+     * path data, transforms, shape lengths and brushes, instead of through the props map and the
+     * view managers.
+     */
+    interface ViewHandler extends SvgXmlParser.Handler {
+        /**
+         * Returns whether a node of the type, started next, gets a view that takes props directly.
+         */
+        boolean takesDirectProps(String type);
+
+        /**
+         * Returns the view of the innermost started node.
+         */
+        @Nullable VirtualView getCurrentView();
+    }
+
+    /**
+     * Reports the nodes of an encoded scene to the handler, in the order they were encoded. The
+     * common props of started nodes are set directly if the handler is a {@link ViewHandler}.
+     *
+     * @return the number of nodes reported
+     * @throws IOException if the scene is truncated, corrupt or of another version
+     */
+    static int decode(InputStream input, SvgXmlParser.Handler handler) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+            throw new IOException("Not an encoded scene of version " + VERSION);
+        }
+        int stringCount = readVarInt(in);
+        String[] strings = new String[stringCount];
+        byte[] buffer = new byte[64];
+        for (int i = 0; i < stringCount; i++) {
+            int length = readVarInt(in);
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            in.readFully(buffer, 0, length);
+            strings[i] = new String(buffer, 0, length, UTF_8);
+        }
+        return new Decoder(in, strings, handler).decode();
+    }
+
+    private static class Decoder {
+        private final DataInputStream mIn;
+        private final String[] mStrings;
+        private final SVGLength[] mLengths;
+        private final SvgXmlParser.Handler mHandler;
+        private final @Nullable ViewHandler mViewHandler;
+
+        // Direct props of the node being started
+        private final ArrayList<String> mDirectKeys = new ArrayList<>();
+        private final ArrayList<Object> mDirectValues = new ArrayList<>();
+        private final ArrayList<SVGLength> mDirectLengths = new ArrayList<>();
+
+        Decoder(DataInputStream in, String[] strings, SvgXmlParser.Handler handler) {
+            mIn = in;
+            mStrings = strings;
+            mLengths = new SVGLength[strings.length];
+            mHandler = handler;
+            mViewHandler = handler instanceof ViewHandler ? (ViewHandler) handler : null;
+        }
+
+        int decode() throws IOException {
+            int nodes = 0;
+            while (true) {
+                int command = mIn.readUnsignedByte();
+                switch (command) {
+                    case COMMAND_END_SCENE:
+                        return nodes;
+                    case COMMAND_START:
+                        startNode(mStrings[readVarInt(mIn)]);
+                        nodes++;
+                        break;
+                    case COMMAND_UPDATE:
+                        mHandler.updateNode(readMap(false));
+                        break;
+                    case COMMAND_END:
+                        mHandler.endNode();
+                        break;
+                    default:
+                        throw new IOException("Unknown scene command " + command);
+                }
+            }
+        }
+
+        private void startNode(String type) throws IOException {
+            boolean direct = mViewHandler != null && mViewHandler.takesDirectProps(type);
+            mHandler.startNode(type, readMap(direct));
+            if (!direct || mDirectKeys.isEmpty()) {
+                return;
+            }
+
+            VirtualView view = mViewHandler.getCurrentView();
+            JavaOnlyMap rejected = null;
+            for (int i = 0; i < mDirectKeys.size(); i++) {
+                String key = mDirectKeys.get(i);
+                Object value = mDirectValues.get(i);
+                if (view != null && setDirectProp(view, key, value, mDirectLengths.get(i))) {
+                    view.hashProp(key, value);
+                } else {
+                    if (rejected == null) {
+                        rejected = new JavaOnlyMap();
+                    }
+                    putValue(rejected, key, value);
+                }
+            }
+            mDirectKeys.clear();
+            mDirectValues.clear();
+            mDirectLengths.clear();
+            // Views without some of the props, e.g. an image's x, take them like any other prop
+            if (rejected != null) {
+                mHandler.updateNode(rejected);
+            }
+        }
+
+        private static boolean setDirectProp(VirtualView view, String key, @Nullable Object value,
+                                             @Nullable SVGLength length) {
+            switch (key) {
+                case "d":
+                    if (!(view instanceof PathView) || !(value instanceof String || value == null)) {
+                        return false;
+                    }
+                    ((PathView) view).setD((String) value);
+                    return true;
+                case "matrix":
+                    if (value instanceof double[]) {
+                        double[] values = (double[]) value;
+                        float[] matrix = new float[values.length];
+                        for (int i = 0; i < values.length; i++) {
+                            matrix[i] = (float) values[i];
+                        }
+                        value = matrix;
+                    }
+                    if (!(value instanceof float[])) {
+                        return false;
+                    }
+                    view.setMatrix((float[]) value);
+                    return true;
+                case "fill":
+                case "stroke":
+                    if (!(view instanceof RenderableView)) {
+                        return false;
+                    }
+                    ReadableArray brush = toBrush(value);
+                    if (brush == null && value != null) {
+                        return false;
+                    }
+                    if (key.equals("fill")) {
+                        ((RenderableView) view).setFillBrush(brush);
+                    } else {
+                        ((RenderableView) view).setStrokeBrush(brush);
+                    }
+                    return true;
+                default:
+                    return length != null && view.setLengthProp(key, length);
+            }
+        }
+
+        private static @Nullable ReadableArray toBrush(@Nullable Object value) {
+            if (value instanceof ReadableArray) {
+                return (ReadableArray) value;
+            } else if (value instanceof float[] || value instanceof double[]) {
+                return toArray(value);
+            }
+            return null;
+        }
+
+        /**
+         * Reads a props map. With direct set, the direct props are kept out of it, see
+         * {@link ViewHandler}.
+         */
+        private JavaOnlyMap readMap(boolean direct) throws IOException {
+            JavaOnlyMap map = new JavaOnlyMap();
+            int size = readVarInt(mIn);
+            for (int i = 0; i < size; i++) {
+                String key = mStrings[readVarInt(mIn)];
+                int type = mIn.readUnsignedByte();
+                if (!direct || !isDirectProp(key)) {
+                    putValue(map, key, readValue(type));
+                } else if (LENGTH_PROPS.contains(key) && type == VALUE_STRING) {
+                    int index = readVarInt(mIn);
+                    mDirectKeys.add(key);
+                    mDirectValues.add(mStrings[index]);
+                    mDirectLengths.add(getLength(index));
+                } else {
+                    Object value = readValue(type);
+                    mDirectKeys.add(key);
+                    mDirectValues.add(value);
+                    mDirectLengths.add(LENGTH_PROPS.contains(key) && value instanceof Number
+                            ? new SVGLength(((Number) value).doubleValue()) : null);
+                }
+            }
+            return map;
+        }
+
+        /**
+         * Returns the length of a string, parsing each distinct string once per scene, or null if
+         * it isn't a valid length.
+         */
+        private @Nullable SVGLength getLength(int index) {
+            SVGLength length = mLengths[index];
+            if (length == null) {
+                try {
+                    length = new SVGLength(mStrings[index]);
+                } catch (NumberFormatException e) {
+                    // Left to the view manager, which reports it like any invalid prop
+                    return null;
+                }
+                mLengths[index] = length;
+            }
+            return length;
+        }
+
+        private JavaOnlyArray readArray() throws IOException {
+            JavaOnlyArray array = new JavaOnlyArray();
+            int size = readVarInt(mIn);
+            for (int i = 0; i < size; i++) {
+                pushValue(array, readValue(mIn.readUnsignedByte()));
+            }
+            return array;
+        }
+
+        private @Nullable Object readValue(int type) throws IOException {
+            DataInputStream in = mIn;
+            switch (type) {
+                case VALUE_NULL:
+                    return null;
+                case VALUE_TRUE:
+                    return true;
+                case VALUE_FALSE:
+                    return false;
+                case VALUE_INT:
+                    return in.readInt();
+                case VALUE_FLOAT:
+                    return (double) in.readFloat();
+                case VALUE_DOUBLE:
+                    return in.readDouble();
+                case VALUE_STRING:
+                    return mStrings[readVarInt(in)];
+                case VALUE_ARRAY:
+                    return readArray();
+                case VALUE_MAP:
+                    return readMap(false);
+                case VALUE_FLOAT_ARRAY: {
+                    float[] values = new float[readVarInt(in)];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = in.readFloat();
+                    }
+                    return values;
+                }
+                case VALUE_DOUBLE_ARRAY: {
+                    double[] values = new double[readVarInt(in)];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = in.readDouble();
+                    }
+                    return values;
+                }
+                default:
+                    throw new IOException("Unknown scene value type " + type);
+            }
+        }
+    }
+
+    private static boolean isDirectProp(String key) {
+        switch (key) {
+            case "d":
+            case "matrix":
+            case "fill":
+            case "stroke":
+                return true;
+            default:
+                return LENGTH_PROPS.contains(key);
+        }
+    }
+
+    private static void putValue(JavaOnlyMap map, String key, @Nullable Object value) {
+        if (value == null) {
+            map.putNull(key);
+        } else if (value instanceof Boolean) {
+            map.putBoolean(key, (Boolean) value);
+        } else if (value instanceof Integer) {
+            map.putInt(key, (Integer) value);
+        } else if (value instanceof Double) {
+            map.putDouble(key, (Double) value);
+        } else if (value instanceof String) {
+            map.putString(key, (String) value);
+        } else if (value instanceof JavaOnlyMap) {
+            map.putMap(key, (JavaOnlyMap) value);
+        } else {
+            map.putArray(key, toArray(value));
+        }
+    }
+
+    private static void pushValue(JavaOnlyArray array, @Nullable Object value) {
+        if (value == null) {
+            array.pushNull();
+        } else if (value instanceof Boolean) {
+            array.pushBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            array.pushInt((Integer) value);
+        } else if (value instanceof Double) {
+            array.pushDouble((Double) value);
+        } else if (value instanceof String) {
+            array.pushString((String) value);
+        } else if (value instanceof JavaOnlyMap) {
+            array.pushMap((JavaOnlyMap) value);
+        } else {
+            array.pushArray(toArray(value));
+        }
+    }
+
+    /**
+     * Returns a decoded array value, which may be packed, as a readable array.
+     */
+    private static JavaOnlyArray toArray(Object value) {
+        if (value instanceof JavaOnlyArray) {
+            return (JavaOnlyArray) value;
+        }
+        JavaOnlyArray array = new JavaOnlyArray();
+        if (value instanceof float[]) {
+            for (float item : (float[]) value) {
+                array.pushDouble(item);
+            }
+        } else {
+            for (double item : (double[]) value) {
+                array.pushDouble(item);
+            }
+        }
+        return array;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed scene integer");
+    }
+}
@@ -12,13 +12,18 @@ package com.horcrux.svg;
 import android.annotation.SuppressLint;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+import android.graphics.PorterDuff;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
-import android.util.Base64;
+import android.os.Build;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.ViewParent;
 
 import com.facebook.react.bridge.Dynamic;
@@ -29,7 +34,7 @@ import com.facebook.react.uimanager.ReactCompoundViewGroup;
 import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.views.view.ReactViewGroup;
 
-import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -64,6 +69,24 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
     }
 
     private @Nullable Bitmap mBitmap;
+    private @Nullable Picture mPicture;
+    private boolean mBitmapDirty = true;
+    private boolean mHardwareAccelerated = false;
+    private boolean mRepaintRegionValid = false;
+    private final RectF mDirtyRegion = new RectF();
+    private final ArrayList<VirtualView> mDirtyNodes = new ArrayList<>();
+    private @Nullable Canvas mUnclippedCanvas;
+    // Reused by partial repaints, the canvases are pointed at the bitmap each time
+    private final RectF mRepaintRegion = new RectF();
+    private final RectF mRepaintPainted = new RectF();
+    private final Rect mRepaintRect = new Rect();
+    private final Canvas mRepaintCanvas = new Canvas();
+    private final Canvas mRepaintUnclippedCanvas = new Canvas();
+    // Region being repainted, children painting outside of it are skipped
+    private @Nullable RectF mRepaintClip;
+    boolean mContainsNestedSvg = false;
+    // Whether wrapped text is laid out in the background, see TSpanView
+    boolean mPrecomputeText = false;
 
     public SvgView(ReactContext reactContext) {
         super(reactContext);
@@ -88,10 +111,67 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
             ((VirtualView) parent).getSvgView().invalidate();
             return;
         }
-        if (mBitmap != null) {
-            mBitmap.recycle();
+        mBitmapDirty = true;
+        mRepaintRegionValid = false;
+        mHitTestBoundsValid = false;
+        mTreeHashValid = false;
+    }
+
+    /**
+     * Schedules a repaint limited to the area painted by the given node, before and after the
+     * change. Falls back to a full repaint when the node's paint bounds are unknown, or when the
+     * node may be referenced from elsewhere in the tree.
+     */
+    void invalidateNode(VirtualView node) {
+        if (getParent() instanceof VirtualView || !canRepaintRegion(node)) {
+            invalidate();
+            return;
         }
-        mBitmap = null;
+        mHitTestBoundsValid = false;
+        mTreeHashValid = false;
+        if (!mBitmapDirty) {
+            mBitmapDirty = true;
+            mRepaintRegionValid = true;
+            mDirtyRegion.setEmpty();
+            mDirtyNodes.clear();
+        }
+        if (mRepaintRegionValid) {
+            mDirtyRegion.union(node.getPaintBounds());
+            if (!mDirtyNodes.contains(node)) {
+                mDirtyNodes.add(node);
+            }
+        }
+        super.invalidate();
+    }
+
+    private boolean canRepaintRegion(VirtualView node) {
+        if (node.getPaintBounds() == null || !mDefinedMasks.isEmpty() || mContainsNestedSvg) {
+            return false;
+        }
+        ViewParent parent = node;
+        while (parent instanceof VirtualView) {
+            VirtualView n = (VirtualView) parent;
+            if (n.mName != null || n.hasClipPath() ||
+                    n instanceof DefinitionView ||
+                    n instanceof ClipPathView ||
+                    n instanceof MaskView ||
+                    n instanceof MarkerView ||
+                    n instanceof PatternView ||
+                    n instanceof SymbolView) {
+                return false;
+            }
+            parent = n.getParent();
+        }
+        return parent == this;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releaseBitmap();
+        mPicture = null;
+        mBitmapDirty = true;
+        mLoadingRasterKey = null;
     }
 
     @Override
@@ -100,8 +180,36 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
             return;
         }
         super.onDraw(canvas);
-        if (mBitmap == null) {
+        if (canUseDisplayList(canvas)) {
+            if (mPicture == null || mBitmapDirty) {
+                mPicture = drawPicture();
+                mHitTestBoundsValid = true;
+            }
+            // Masks read back pixels, so they can only be composited on the bitmap path
+            if (mPicture != null && mDefinedMasks.isEmpty()) {
+                releaseBitmap();
+                canvas.drawPicture(mPicture);
+                if (toDataUrlTask != null) {
+                    toDataUrlTask.run();
+                    toDataUrlTask = null;
+                }
+                return;
+            }
+            mPicture = null;
+            mBitmapDirty = true;
+            mRepaintRegionValid = false;
+        }
+        if ((mBitmap == null || mBitmapDirty) && shouldWaitForRasterCache()) {
+            // Keep showing the previous output, if any, until the cached one is loaded
+            if (mBitmap != null) {
+                canvas.drawBitmap(mBitmap, 0, 0, null);
+            }
+            return;
+        }
+        if (mBitmap == null || mBitmapDirty) {
             mBitmap = drawOutput();
+            mHitTestBoundsValid = true;
+            storeRaster();
         }
         if (mBitmap != null) {
             canvas.drawBitmap(mBitmap, 0, 0, null);
@@ -112,6 +220,187 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
         }
     }
 
+    private boolean mRasterCache;
+    private @Nullable String mRasterCacheKey;
+    // Content hash of the children, computed again once they change
+    private long mTreeHash;
+    private boolean mTreeHashValid;
+    // Raster key being loaded, and the last one that missed the cache and needs storing
+    private @Nullable String mLoadingRasterKey;
+    private @Nullable String mMissedRasterKey;
+    // Raster key of the shared bitmap the output is, which must not be drawn into or pooled
+    private @Nullable String mSharedRasterKey;
+
+    /**
+     * Looks up the output in the {@link RasterCache} if the view has a cache key, and returns
+     * true while it is being loaded. A hit shares the bitmap of other views with the same key
+     * instead of rasterizing the children. The key is derived from the content hash of the tree,
+     * see {@link #getTreeHash}, unless the app overrides it with its own key.
+     */
+    private boolean shouldWaitForRasterCache() {
+        final String key = getRasterKey();
+        if (key == null || key.equals(mMissedRasterKey)) {
+            return false;
+        }
+        if (key.equals(mSharedRasterKey)) {
+            mBitmapDirty = false;
+            mRepaintRegionValid = false;
+            if (!mHitTestBoundsValid) {
+                layoutChildren();
+            }
+            return true;
+        }
+        Bitmap shared = RasterCache.acquire(key);
+        if (shared != null) {
+            useSharedBitmap(key, shared);
+            return true;
+        }
+        if (key.equals(mLoadingRasterKey)) {
+            return true;
+        }
+        mLoadingRasterKey = key;
+        RasterCache.load(getContext(), getRasterFileKey(key), key, getWidth(), getHeight(), new RasterCache.LoadCallback() {
+            @Override
+            public void onLoaded(@Nullable Bitmap bitmap) {
+                if (!key.equals(mLoadingRasterKey)) {
+                    if (bitmap != null) {
+                        RasterCache.release(key);
+                    }
+                    return;
+                }
+                mLoadingRasterKey = null;
+                if (bitmap == null) {
+                    mMissedRasterKey = key;
+                } else if (key.equals(getRasterKey())) {
+                    useSharedBitmap(key, bitmap);
+                } else {
+                    RasterCache.release(key);
+                }
+                SvgView.super.invalidate();
+            }
+        });
+        return true;
+    }
+
+    private void useSharedBitmap(String key, Bitmap shared) {
+        releaseBitmap();
+        mBitmap = shared;
+        mSharedRasterKey = key;
+        mBitmapDirty = false;
+        mRepaintRegionValid = false;
+        mRendered = true;
+        layoutChildren();
+    }
+
+    /**
+     * Computes the regions and transforms touches are hit tested with, which are otherwise only
+     * set while drawing, by recording the children without rasterizing them.
+     */
+    private void layoutChildren() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width < 1 || height < 1) {
+            return;
+        }
+        Picture picture = new Picture();
+        drawChildren(picture.beginRecording(width, height));
+        picture.endRecording();
+        mHitTestBoundsValid = true;
+    }
+
+    /**
+     * Stores the output that missed the cache, and shares it with other views of the same key.
+     */
+    private void storeRaster() {
+        String key = mMissedRasterKey;
+        if (mBitmap != null && key != null && key.equals(getRasterKey())) {
+            RasterCache.store(getContext(), getRasterFileKey(key), mBitmap);
+            mMissedRasterKey = null;
+            mBitmap = RasterCache.publish(key, mBitmap);
+            mSharedRasterKey = key;
+        }
+    }
+
+    private void releaseBitmap() {
+        if (mSharedRasterKey != null) {
+            RasterCache.release(mSharedRasterKey);
+            mSharedRasterKey = null;
+        } else {
+            BitmapPool.release(mBitmap);
+        }
+        mBitmap = null;
+    }
+
+    /**
+     * Returns the key the output is shared in memory under, which is always derived from the
+     * content hash of the tree, so views only share a bitmap if they draw the same thing.
+     */
+    private @Nullable String getRasterKey() {
+        if ((!mRasterCache && mRasterCacheKey == null) || getWidth() < 1 || getHeight() < 1) {
+            return null;
+        }
+        String contentKey = "#" + Long.toHexString(getTreeHash());
+        return RasterCache.key(contentKey, getWidth(), getHeight(), mScale, mTintColor);
+    }
+
+    /**
+     * Returns the key the output of the given shared key is stored on disk under, which the app
+     * may override with its own key.
+     */
+    private String getRasterFileKey(String key) {
+        if (mRasterCacheKey == null) {
+            return key;
+        }
+        return RasterCache.key(mRasterCacheKey, getWidth(), getHeight(), mScale, mTintColor);
+    }
+
+    /**
+     * Returns the content hash of the viewBox and the tree of children, including a mounted
+     * document, from their types and the props they were given.
+     */
+    private long getTreeHash() {
+        if (mTreeHashValid) {
+            return mTreeHash;
+        }
+        long hash = TreeHash.of(getClass().getName());
+        hash = TreeHash.combine(hash, TreeHash.of(mMinX));
+        hash = TreeHash.combine(hash, TreeHash.of(mMinY));
+        hash = TreeHash.combine(hash, TreeHash.of(mVbWidth));
+        hash = TreeHash.combine(hash, TreeHash.of(mVbHeight));
+        hash = TreeHash.combine(hash, hashLength(mbbWidth));
+        hash = TreeHash.combine(hash, hashLength(mbbHeight));
+        hash = TreeHash.combine(hash, TreeHash.of((Object) mAlign));
+        hash = TreeHash.combine(hash, TreeHash.of(mMeetOrSlice));
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child instanceof VirtualView) {
+                hash = TreeHash.combine(hash, ((VirtualView) child).getTreeHash());
+            }
+        }
+        mTreeHash = hash;
+        mTreeHashValid = true;
+        return hash;
+    }
+
+    private static long hashLength(@Nullable SVGLength length) {
+        if (length == null) {
+            return TreeHash.of((Object) null);
+        }
+        return TreeHash.combine(TreeHash.of(length.unit.name()), TreeHash.of(length.value));
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        mTreeHashValid = false;
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        mTreeHashValid = false;
+    }
+
     private Runnable toDataUrlTask = null;
 
     void setToDataUrlTask(Runnable task) {
@@ -135,8 +424,20 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
     private final Map<String, VirtualView> mDefinedTemplates = new HashMap<>();
     private final Map<String, VirtualView> mDefinedMarkers = new HashMap<>();
     private final Map<String, VirtualView> mDefinedMasks = new HashMap<>();
+    private int mDefinitionGeneration;
     private final Map<String, Brush> mDefinedBrushes = new HashMap<>();
     private Canvas mCanvas;
+    private final Paint mPaint = new Paint();
+    private final float[] mTouchPoint = new float[2];
+
+    // Paint bounds of the nodes match the view only after an on screen draw
+    private boolean mHitTestBoundsValid = false;
+    private int mBoundsGeneration = 0;
+    private boolean mHitTesting = false;
+    private float mTouchX;
+    private float mTouchY;
+    private @Nullable HitTestGrid mHitTestGrid;
+    private int mHitTestGridGeneration = -1;
     private final float mScale;
 
     private float mMinX;
@@ -148,6 +449,11 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
     private String mAlign;
     private int mMeetOrSlice;
     final Matrix mInvViewBoxMatrix = new Matrix();
+    // Reused by every draw
+    private final Matrix mViewBoxMatrix = new Matrix();
+    private final RectF mViewBoxRect = new RectF();
+    private final RectF mViewportRect = new RectF();
+    private final Rect mClipBounds = new Rect();
     private boolean mInvertible = true;
     private boolean mRendered = false;
     int mTintColor = 0;
@@ -157,6 +463,8 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
     }
 
     private void clearChildCache() {
+        // Cached masks may depend on the tint color, viewBox or size the children were drawn with
+        onDefinitionChanged();
         if (!mRendered) {
             return;
         }
@@ -170,6 +478,35 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
         }
     }
 
+    @ReactProp(name = "hardwareAccelerated")
+    public void setHardwareAccelerated(boolean hardwareAccelerated) {
+        mHardwareAccelerated = hardwareAccelerated;
+        mPicture = null;
+        invalidate();
+    }
+
+    @ReactProp(name = "rasterCache")
+    public void setRasterCache(boolean rasterCache) {
+        mRasterCache = rasterCache;
+        mLoadingRasterKey = null;
+        mMissedRasterKey = null;
+        invalidate();
+    }
+
+    @ReactProp(name = "rasterCacheKey")
+    public void setRasterCacheKey(@Nullable String rasterCacheKey) {
+        mRasterCacheKey = rasterCacheKey;
+        mLoadingRasterKey = null;
+        mMissedRasterKey = null;
+        invalidate();
+    }
+
+    @ReactProp(name = "precomputeText")
+    public void setPrecomputeText(boolean precomputeText) {
+        mPrecomputeText = precomputeText;
+        invalidate();
+    }
+
     @ReactProp(name = "tintColor")
     public void setTintColor(@Nullable Integer tintColor) {
         if (tintColor == null) {
@@ -239,31 +576,184 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
 
     private Bitmap drawOutput() {
         mRendered = true;
+        if (mSharedRasterKey != null) {
+            // Other views may be showing the shared bitmap
+            releaseBitmap();
+        }
         float width = getWidth();
         float height = getHeight();
         boolean invalid = Float.isNaN(width) || Float.isNaN(height) || width < 1 || height < 1 || (Math.log10(width) + Math.log10(height) > 42);
         if (invalid) {
+            releaseBitmap();
             return null;
         }
-        Bitmap bitmap = Bitmap.createBitmap(
-                (int) width,
-                (int) height,
-                Bitmap.Config.ARGB_8888);
+        if (mRepaintRegionValid && mBitmap != null && !mBitmap.isRecycled() &&
+                mBitmap.getWidth() == (int) width && mBitmap.getHeight() == (int) height &&
+                mDefinedMasks.isEmpty() && !mContainsNestedSvg) {
+            repaintDirtyRegion(mBitmap);
+            mBitmapDirty = false;
+            mRepaintRegionValid = false;
+            return mBitmap;
+        }
+        Bitmap bitmap = BitmapPool.obtain(mBitmap, (int) width, (int) height);
+        mBitmapDirty = false;
+        mRepaintRegionValid = false;
 
         drawChildren(new Canvas(bitmap));
         return bitmap;
     }
 
+    /**
+     * Repaints the union of the old paint bounds of the invalidated nodes into the retained
+     * bitmap, and then their new paint bounds if the change made them grow.
+     */
+    private void repaintDirtyRegion(Bitmap bitmap) {
+        RectF region = mRepaintRegion;
+        region.set(mDirtyRegion);
+        repaintRegion(bitmap, region);
+
+        RectF painted = mRepaintPainted;
+        painted.setEmpty();
+        for (VirtualView node : mDirtyNodes) {
+            RectF bounds = node.getPaintBounds();
+            if (bounds == null) {
+                painted.set(0, 0, bitmap.getWidth(), bitmap.getHeight());
+                break;
+            }
+            painted.union(bounds);
+        }
+        mDirtyNodes.clear();
+
+        if (!painted.isEmpty() && !region.contains(painted)) {
+            region.union(painted);
+            repaintRegion(bitmap, region);
+        }
+    }
+
+    private void repaintRegion(Bitmap bitmap, RectF region) {
+        Rect clip = mRepaintRect;
+        region.roundOut(clip);
+        // Include the anti-aliased edge pixels
+        clip.inset(-1, -1);
+
+        // Setting the bitmap also resets the matrix, clip and save stack of the canvases
+        Canvas canvas = mRepaintCanvas;
+        canvas.setBitmap(bitmap);
+        canvas.clipRect(clip);
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+
+        mUnclippedCanvas = mRepaintUnclippedCanvas;
+        mUnclippedCanvas.setBitmap(bitmap);
+        region.set(clip);
+        mRepaintClip = region;
+        try {
+            drawChildren(canvas);
+        } finally {
+            mRepaintClip = null;
+            mUnclippedCanvas.setBitmap(null);
+            mUnclippedCanvas = null;
+            canvas.setBitmap(null);
+        }
+    }
+
+    /**
+     * Whether a node can be skipped while repainting a region, as everything it painted in its
+     * last draw is outside of the region. Nodes with unknown paint bounds are always drawn.
+     */
+    boolean isOutsideRepaint(VirtualView node) {
+        RectF bounds = node.getPaintBounds();
+        return mRepaintClip != null && bounds != null && !RectF.intersects(mRepaintClip, bounds);
+    }
+
+    /**
+     * Drawing a {@link Picture} into a hardware accelerated canvas is only supported from
+     * Android M, and masked content still needs the software bitmap.
+     */
+    private boolean canUseDisplayList(Canvas canvas) {
+        return mHardwareAccelerated &&
+                Build.VERSION.SDK_INT >= Build.VERSION_CODES.M &&
+                canvas.isHardwareAccelerated() &&
+                mDefinedMasks.isEmpty();
+    }
+
+    /**
+     * Records the children into a display list which is replayed directly onto the hardware
+     * canvas, instead of rasterizing them into an offscreen bitmap first.
+     */
+    private @Nullable Picture drawPicture() {
+        mRendered = true;
+        int width = getWidth();
+        int height = getHeight();
+        if (width < 1 || height < 1) {
+            return null;
+        }
+        Picture picture = new Picture();
+        drawChildren(picture.beginRecording(width, height));
+        picture.endRecording();
+        mBitmapDirty = false;
+        mRepaintRegionValid = false;
+        return picture;
+    }
+
     Rect getCanvasBounds() {
-        return mCanvas.getClipBounds();
+        return getClipBounds(mCanvas);
+    }
+
+    /**
+     * Returns the clip bounds of the given canvas, disregarding the clip applied while repainting
+     * a dirty region but keeping the clips of ancestors, so percentages and text layout resolve
+     * the same as in a full repaint.
+     *
+     * The returned rect is reused by the next call, copy it to keep it.
+     */
+    Rect getClipBounds(Canvas canvas) {
+        getClipBounds(canvas, mClipBounds);
+        return mClipBounds;
+    }
+
+    @SuppressWarnings("deprecation")
+    void getClipBounds(Canvas canvas, Rect out) {
+        if (canvas != mCanvas || mUnclippedCanvas == null) {
+            canvas.getClipBounds(out);
+            return;
+        }
+        mUnclippedCanvas.setMatrix(canvas.getMatrix());
+        mUnclippedCanvas.getClipBounds(out);
+    }
+
+    /**
+     * Mirrors the canvas state of the elements onto the unclipped canvas while repainting a dirty
+     * region, so their clip bounds still include the clips of their ancestors.
+     */
+    void saveUnclipped(Canvas canvas) {
+        if (canvas == mCanvas && mUnclippedCanvas != null) {
+            mUnclippedCanvas.save();
+        }
+    }
+
+    void restoreUnclipped(Canvas canvas) {
+        if (canvas == mCanvas && mUnclippedCanvas != null) {
+            mUnclippedCanvas.restore();
+        }
+    }
+
+    void clipUnclipped(Canvas canvas, Path clip) {
+        if (canvas == mCanvas && mUnclippedCanvas != null) {
+            mUnclippedCanvas.setMatrix(canvas.getMatrix());
+            mUnclippedCanvas.clipPath(clip);
+        }
     }
 
     synchronized void drawChildren(final Canvas canvas) {
         mRendered = true;
         mCanvas = canvas;
-        Matrix mViewBoxMatrix = new Matrix();
+        // Set again by any nested Svg drawn below
+        mContainsNestedSvg = false;
+        mHitTestBoundsValid = false;
+        mBoundsGeneration++;
+        mViewBoxMatrix.reset();
         if (mAlign != null) {
-            RectF vbRect = getViewBox();
+            RectF vbRect = getViewBox(mViewBoxRect);
             float width = canvas.getWidth();
             float height = canvas.getHeight();
             boolean nested = getParent() instanceof VirtualView;
@@ -271,17 +761,19 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
                 width = (float) PropHelper.fromRelative(mbbWidth, width, 0f, mScale, 12);
                 height = (float) PropHelper.fromRelative(mbbHeight, height, 0f, mScale, 12);
             }
-            RectF eRect = new RectF(0,0, width, height);
+            RectF eRect = mViewportRect;
+            eRect.set(0, 0, width, height);
             if (nested) {
                 canvas.clipRect(eRect);
             }
-            mViewBoxMatrix = ViewBox.getTransform(vbRect, eRect, mAlign, mMeetOrSlice);
+            ViewBox.getTransform(vbRect, eRect, mAlign, mMeetOrSlice, mViewBoxMatrix);
             mInvertible = mViewBoxMatrix.invert(mInvViewBoxMatrix);
             canvas.concat(mViewBoxMatrix);
         }
 
-        final Paint paint = new Paint();
+        final Paint paint = mPaint;
 
+        paint.reset();
         paint.setFlags(Paint.ANTI_ALIAS_FLAG | Paint.DEV_KERN_TEXT_FLAG | Paint.SUBPIXEL_TEXT_FLAG);
 
         paint.setTypeface(Typeface.DEFAULT);
@@ -298,6 +790,9 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
             View lNode = getChildAt(i);
             if (lNode instanceof VirtualView) {
                 VirtualView node = (VirtualView)lNode;
+                if (isOutsideRepaint(node)) {
+                    continue;
+                }
                 int count = node.saveAndSetupCanvas(canvas, mViewBoxMatrix);
                 node.render(canvas, paint, 1f);
                 node.restoreCanvas(canvas, count);
@@ -309,44 +804,50 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
         }
     }
 
-    private RectF getViewBox() {
-        return new RectF(mMinX * mScale, mMinY * mScale, (mMinX + mVbWidth) * mScale, (mMinY + mVbHeight) * mScale);
+    private RectF getViewBox(RectF out) {
+        out.set(mMinX * mScale, mMinY * mScale, (mMinX + mVbWidth) * mScale, (mMinY + mVbHeight) * mScale);
+        return out;
     }
 
-    String toDataURL() {
-        Bitmap bitmap = Bitmap.createBitmap(
-                getWidth(),
-                getHeight(),
-                Bitmap.Config.ARGB_8888);
-
+    /**
+     * Records the tree at the given size for an export rendered off the UI thread, see
+     * {@link TiledRasterizer}. The on screen rendering is left untouched.
+     */
+    Picture recordPicture(int width, int height) {
+        Picture picture = new Picture();
         clearChildCache();
-        drawChildren(new Canvas(bitmap));
+        drawChildren(picture.beginRecording(width, height));
+        picture.endRecording();
         clearChildCache();
         this.invalidate();
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
-        bitmap.recycle();
-        byte[] bitmapBytes = stream.toByteArray();
-        return Base64.encodeToString(bitmapBytes, Base64.DEFAULT);
+        return picture;
     }
 
-    String toDataURL(int width, int height) {
-        Bitmap bitmap = Bitmap.createBitmap(
-                width,
-                height,
-                Bitmap.Config.ARGB_8888);
+    // Root of the tree mounted from an SVG document, drawn after the children managed by React
+    private @Nullable View mDocumentRoot;
 
+    /**
+     * Replaces the tree mounted from an SVG document, see {@link SvgXmlParser}. The root is kept
+     * as the last child and hidden from React by {@link SvgViewManager#getChildCount}, so the
+     * indices React manages its children by don't change.
+     */
+    void mountDocument(@Nullable View root) {
+        if (mDocumentRoot != null) {
+            removeView(mDocumentRoot);
+        }
+        mDocumentRoot = root;
+        if (root != null) {
+            addView(root);
+        }
         clearChildCache();
-        drawChildren(new Canvas(bitmap));
-        clearChildCache();
-        this.invalidate();
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
-        bitmap.recycle();
-        byte[] bitmapBytes = stream.toByteArray();
-        return Base64.encodeToString(bitmapBytes, Base64.DEFAULT);
+        invalidate();
+    }
+
+    boolean hasDocument() {
+        return mDocumentRoot != null;
     }
 
+
     void enableTouchEvents() {
         if (!mResponsible) {
             mResponsible = true;
@@ -362,26 +863,107 @@ public class SvgView extends ReactViewGroup implements ReactCompoundView, ReactC
             return getId();
         }
 
-        float[] transformed = { touchX, touchY };
+        float[] transformed = mTouchPoint;
+        transformed[0] = touchX;
+        transformed[1] = touchY;
         mInvViewBoxMatrix.mapPoints(transformed);
 
-        int count = getChildCount();
+        mTouchX = touchX;
+        mTouchY = touchY;
+        mHitTesting = true;
         int viewTag = -1;
-        for (int i = count - 1; i >= 0; i--) {
-            View child = getChildAt(i);
-            if (child instanceof VirtualView) {
-                viewTag = ((VirtualView) child).hitTest(transformed);
-            } else if (child instanceof SvgView) {
-                viewTag = ((SvgView) child).hitTest(touchX, touchY);
-            }
-            if (viewTag != -1) {
-                break;
+        try {
+            HitTestGrid grid = getHitTestGrid(this);
+            if (grid != null) {
+                int candidates = grid.query(touchX, touchY);
+                for (int c = 0; c < candidates && viewTag == -1; c++) {
+                    viewTag = hitTestChild(grid.getCandidate(c), transformed, touchX, touchY);
+                }
+            } else {
+                for (int i = getChildCount() - 1; i >= 0 && viewTag == -1; i--) {
+                    viewTag = hitTestChild(i, transformed, touchX, touchY);
+                }
             }
+        } finally {
+            mHitTesting = false;
         }
 
         return viewTag == -1 ? getId() : viewTag;
     }
 
+    private int hitTestChild(int index, float[] transformed, float touchX, float touchY) {
+        View child = getChildAt(index);
+        if (child instanceof VirtualView) {
+            return ((VirtualView) child).hitTest(transformed);
+        } else if (child instanceof SvgView) {
+            return ((SvgView) child).hitTest(touchX, touchY);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the spatial index over the children of the given container, rebuilding it if the
+     * tree was drawn since, or null when the children should be hit tested linearly: for small
+     * containers, outside of a touch hit test, or while the paint bounds are stale.
+     */
+    @Nullable HitTestGrid getHitTestGrid(ViewGroup container) {
+        if (!mHitTesting || !mHitTestBoundsValid || container.getChildCount() < HitTestGrid.MIN_INDEXED_CHILDREN) {
+            return null;
+        }
+        if (container instanceof GroupView) {
+            return ((GroupView) container).getHitTestGrid(mBoundsGeneration);
+        }
+        if (mHitTestGrid == null) {
+            mHitTestGrid = new HitTestGrid();
+        }
+        if (mHitTestGridGeneration != mBoundsGeneration) {
+            mHitTestGrid.build(this);
+            mHitTestGridGeneration = mBoundsGeneration;
+        }
+        return mHitTestGrid;
+    }
+
+    /**
+     * Device space point of the touch being hit tested, only meaningful while
+     * {@link #getHitTestGrid} returns an index.
+     */
+    float getTouchX() {
+        return mTouchX;
+    }
+
+    float getTouchY() {
+        return mTouchY;
+    }
+
+    /**
+     * Disables the spatial index for subtrees whose paint bounds don't belong to the node being
+     * tested, such as templates drawn by several uses.
+     *
+     * @return whether the index was enabled, to be passed to {@link #resumeHitTestIndex}
+     */
+    boolean suspendHitTestIndex() {
+        boolean hitTesting = mHitTesting;
+        mHitTesting = false;
+        return hitTesting;
+    }
+
+    void resumeHitTestIndex(boolean hitTesting) {
+        mHitTesting = hitTesting;
+    }
+
+    /**
+     * Called when an element that can be referenced by id changed, e.g. a gradient or the
+     * template of a use. Caches of rendered content referencing other elements, like masks,
+     * compare {@link #getDefinitionGeneration} to notice it.
+     */
+    void onDefinitionChanged() {
+        mDefinitionGeneration++;
+    }
+
+    int getDefinitionGeneration() {
+        return mDefinitionGeneration;
+    }
+
     void defineClipPath(VirtualView clipPath, String clipPathRef) {
         mDefinedClipPaths.put(clipPathRef, clipPath);
     }
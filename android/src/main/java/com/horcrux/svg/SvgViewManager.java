@@ -72,11 +72,48 @@ class SvgViewManager extends ReactViewManager {
         mTagToSvgView.remove(view.getId());
     }
 
+    /**
+     * Children managed by React, excluding the root of a mounted document, which is always the
+     * last child so React's indices still match.
+     */
+    @Override
+    public int getChildCount(ReactViewGroup parent) {
+        int count = super.getChildCount(parent);
+        return ((SvgView) parent).hasDocument() ? count - 1 : count;
+    }
+
+    @Override
+    public void removeAllViews(ReactViewGroup parent) {
+        for (int i = getChildCount(parent) - 1; i >= 0; i--) {
+            removeViewAt(parent, i);
+        }
+    }
+
     @Override
     public boolean needsCustomLayoutForChildren() {
         return true;
     }
 
+    @ReactProp(name = "hardwareAccelerated")
+    public void setHardwareAccelerated(SvgView node, boolean hardwareAccelerated) {
+        node.setHardwareAccelerated(hardwareAccelerated);
+    }
+
+    @ReactProp(name = "rasterCache")
+    public void setRasterCache(SvgView node, boolean rasterCache) {
+        node.setRasterCache(rasterCache);
+    }
+
+    @ReactProp(name = "rasterCacheKey")
+    public void setRasterCacheKey(SvgView node, @Nullable String rasterCacheKey) {
+        node.setRasterCacheKey(rasterCacheKey);
+    }
+
+    @ReactProp(name = "precomputeText")
+    public void setPrecomputeText(SvgView node, boolean precomputeText) {
+        node.setPrecomputeText(precomputeText);
+    }
+
     @ReactProp(name = "tintColor")
     public void setTintColor(SvgView node, @Nullable Integer tintColor) {
         node.setTintColor(tintColor);
@@ -9,16 +9,72 @@
 
 package com.horcrux.svg;
 
+import android.graphics.Bitmap;
+import android.graphics.Picture;
+import android.net.Uri;
+import android.view.View;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.common.ReactConstants;
+import com.facebook.react.modules.core.DeviceEventManagerModule;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 class SvgViewModule extends ReactContextBaseJavaModule {
+    private static final String EXPORT_PROGRESS_EVENT = "RNSVGExportProgress";
+    private static final String EXPORT_DIRECTORY = "RNSVG";
+    private static final long EXPORT_FILE_MAX_AGE_MS = 24 * 60 * 60 * 1000;
+    // A stalled download would block every later headless render and document mount
+    private static final int DOCUMENT_CONNECT_TIMEOUT_MS = 15000;
+    private static final int DOCUMENT_READ_TIMEOUT_MS = 30000;
+    // Svg views recorded per UI thread pass by exportToFiles
+    private static final int EXPORT_CHUNK_SIZE = 4;
+
+    // Headless trees are built and drawn on this thread only
+    private static final ExecutorService sHeadlessExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "RNSVGHeadless");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private static final ExecutorService sExportExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "RNSVGExport");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private @Nullable HeadlessRenderer mHeadlessRenderer;
+
     SvgViewModule(ReactApplicationContext reactContext) {
         super(reactContext);
     }
@@ -29,7 +85,8 @@ class SvgViewModule extends ReactContextBaseJavaModule {
         return "RNSVGSvgViewManager";
     }
 
-    private static void toDataURL(final int tag, final ReadableMap options, final Callback successCallback, final int attempt) {
+    private static void toDataURL(final ReactApplicationContext context, final int tag, final ReadableMap options,
+                                  final Callback successCallback, final int attempt) {
         UiThreadUtil.runOnUiThread(
                 new Runnable() {
                     @Override
@@ -47,7 +104,7 @@ class SvgViewModule extends ReactContextBaseJavaModule {
                                     svg.setToDataUrlTask(new Runnable() {
                                         @Override
                                         public void run() {
-                                            toDataURL(tag, options, successCallback, attempt + 1);
+                                            toDataURL(context, tag, options, successCallback, attempt + 1);
                                         }
                                     });
                                 }
@@ -56,29 +113,392 @@ class SvgViewModule extends ReactContextBaseJavaModule {
                             svg.setToDataUrlTask(new Runnable() {
                                 @Override
                                 public void run() {
-                                    toDataURL(tag, options, successCallback, attempt + 1);
+                                    toDataURL(context, tag, options, successCallback, attempt + 1);
                                 }
                             });
                         } else {
-                            if (options != null) {
-                                successCallback.invoke(
-                                        svg.toDataURL(
-                                                options.getInt("width"),
-                                                options.getInt("height")
-                                        )
-                                );
-                            } else {
-                                successCallback.invoke(svg.toDataURL());
+                            ExportOptions export = ExportOptions.from(options, svg.getWidth(), svg.getHeight());
+                            if (export.width < 1 || export.height < 1) {
+                                FLog.w(ReactConstants.TAG, "RNSVG: Can't export an empty image of size " + export.width + "x" + export.height);
+                                successCallback.invoke((Object) null);
+                                return;
                             }
+                            Picture picture = svg.recordPicture(export.width, export.height);
+                            exportPicture(context, tag, picture, export, successCallback);
                         }
                     }
                 }
         );
     }
 
+    /**
+     * Renders the recorded tree in tiles and encodes it off the UI thread, then calls back with
+     * the Base64 encoded image or the URI of the written file, or null if the export failed.
+     */
+    private static void exportPicture(final ReactApplicationContext context, final int tag, final Picture picture,
+                                      final ExportOptions export, final Callback successCallback) {
+        sExportExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                successCallback.invoke(encodePicture(context, tag, picture, export));
+            }
+        });
+    }
+
+    /**
+     * Rasterizes and encodes a recorded tree, on the export thread.
+     *
+     * @return the Base64 encoded image or the URI of the written file, or null on failure
+     */
+    private static @Nullable String encodePicture(final ReactApplicationContext context, final int tag,
+                                                  Picture picture, ExportOptions export) {
+        TiledRasterizer.ProgressListener listener = null;
+        if (export.reportProgress) {
+            listener = new TiledRasterizer.ProgressListener() {
+                private int mLastPercent = -1;
+
+                @Override
+                public synchronized void onProgress(int completedTiles, int totalTiles) {
+                    int percent = completedTiles * 100 / totalTiles;
+                    if (percent == mLastPercent) {
+                        return;
+                    }
+                    mLastPercent = percent;
+                    WritableMap event = Arguments.createMap();
+                    event.putInt("tag", tag);
+                    event.putDouble("progress", (double) completedTiles / totalTiles);
+                    context.getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
+                            .emit(EXPORT_PROGRESS_EVENT, event);
+                }
+            };
+        }
+
+        Bitmap bitmap = null;
+        try {
+            bitmap = TiledRasterizer.rasterize(picture, export.width, export.height, export.threads, listener);
+            return encodeBitmap(context, bitmap, export);
+        } catch (IOException e) {
+            FLog.e(ReactConstants.TAG, "RNSVG: Failed to encode export", e);
+        } catch (IllegalStateException e) {
+            FLog.e(ReactConstants.TAG, "RNSVG: Failed to render export", e);
+        } catch (OutOfMemoryError e) {
+            FLog.e(ReactConstants.TAG, "RNSVG: Not enough memory to export " + export.width + "x" + export.height, e);
+        } finally {
+            BitmapPool.release(bitmap);
+        }
+        return null;
+    }
+
+    /**
+     * Encodes a rendered export into its file, or as Base64.
+     *
+     * @return the Base64 encoded image or the URI of the written file
+     */
+    private static String encodeBitmap(ReactApplicationContext context, Bitmap bitmap, ExportOptions export)
+            throws IOException {
+        if (export.isOpaqueFormat()) {
+            ImageEncoder.fillBackground(bitmap, export.backgroundColor);
+        }
+        if (export.toFile) {
+            return ImageEncoder.writeFile(bitmap, export.format, export.quality, getExportFile(context, export));
+        }
+        return ImageEncoder.encodeBase64(bitmap, export.format, export.quality);
+    }
+
+    /**
+     * Returns the file to write an export to: the given path, creating its directory if needed, or
+     * a new temporary file in the cache directory. Temporary files belong to the caller, who should move or delete them. Those left
+     * for more than {@link #EXPORT_FILE_MAX_AGE_MS} are deleted when creating new ones.
+     */
+    private static File getExportFile(ReactApplicationContext context, ExportOptions export) throws IOException {
+        if (export.path != null) {
+            File file = new File(export.path);
+            File parent = file.getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Can't create directory " + parent);
+            }
+            return file;
+        }
+        File directory = new File(context.getCacheDir(), EXPORT_DIRECTORY);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create directory " + directory);
+        }
+        deleteStaleExports(directory);
+        return File.createTempFile("svg-", "." + export.getFileExtension(), directory);
+    }
+
+    private static void deleteStaleExports(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long oldest = System.currentTimeMillis() - EXPORT_FILE_MAX_AGE_MS;
+        for (File file : files) {
+            if (file.isFile() && file.lastModified() < oldest && !file.delete()) {
+                FLog.w(ReactConstants.TAG, "RNSVG: Can't delete stale export " + file);
+            }
+        }
+    }
+
     @SuppressWarnings("unused")
     @ReactMethod
     public void toDataURL(int tag, ReadableMap options, Callback successCallback) {
-        toDataURL(tag, options, successCallback, 0);
+        toDataURL(getReactApplicationContext(), tag, options, successCallback, 0);
+    }
+
+    /**
+     * Builds the given tree without mounting it and renders it on a background thread, then calls
+     * back like {@link #toDataURL} with the Base64 encoded image or the URI of the written file,
+     * or null on failure. The options must include the output width and height.
+     *
+     * @see HeadlessRenderer for the tree format
+     */
+    @SuppressWarnings("unused")
+    @ReactMethod
+    public void renderTree(final ReadableMap tree, final ReadableMap options, final Callback successCallback) {
+        final ReactApplicationContext context = getReactApplicationContext();
+        sHeadlessExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                ExportOptions export = ExportOptions.from(options, 0, 0);
+                if (export.width < 1 || export.height < 1) {
+                    FLog.w(ReactConstants.TAG, "RNSVG: Can't render an empty image of size " + export.width + "x" + export.height);
+                    successCallback.invoke((Object) null);
+                    return;
+                }
+
+                String result = null;
+                Bitmap bitmap = null;
+                try {
+                    if (mHeadlessRenderer == null) {
+                        mHeadlessRenderer = new HeadlessRenderer(context);
+                    }
+                    SvgView svg = mHeadlessRenderer.build(tree);
+                    bitmap = HeadlessRenderer.render(svg, export.width, export.height);
+                    result = encodeBitmap(context, bitmap, export);
+                } catch (Exception e) {
+                    FLog.e(ReactConstants.TAG, "RNSVG: Failed to render tree", e);
+                } catch (OutOfMemoryError e) {
+                    FLog.e(ReactConstants.TAG, "RNSVG: Not enough memory to render " + export.width + "x" + export.height, e);
+                } finally {
+                    BitmapPool.release(bitmap);
+                }
+                successCallback.invoke(result);
+            }
+        });
+    }
+
+    /**
+     * Parses an SVG document on a background thread and mounts its tree into the Svg view with
+     * the given tag in a single UI thread pass, replacing any document mounted before. The source
+     * has either the document text as xml, or a uri to stream it from, and a cache flag to store
+     * the parsed document on disk for later mounts, see {@link SceneCache}. Calls back with the
+     * number of mounted nodes, or null on failure.
+     */
+    @SuppressWarnings("unused")
+    @ReactMethod
+    public void mountXml(final int tag, final ReadableMap source, final Callback successCallback) {
+        final ReactApplicationContext context = getReactApplicationContext();
+        sHeadlessExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final HeadlessRenderer.TreeBuilder builder;
+                try {
+                    builder = buildDocument(context, source);
+                } catch (Exception e) {
+                    FLog.e(ReactConstants.TAG, "RNSVG: Failed to parse SVG document", e);
+                    successCallback.invoke((Object) null);
+                    return;
+                }
+
+                final HeadlessRenderer renderer = mHeadlessRenderer;
+                UiThreadUtil.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        SvgView svg = SvgViewManager.getSvgViewByTag(tag);
+                        if (svg == null) {
+                            FLog.w(ReactConstants.TAG, "RNSVG: Svg view " + tag + " isn't mounted, can't mount a document in it");
+                            successCallback.invoke((Object) null);
+                            return;
+                        }
+                        ReadableMap svgProps = builder.getSvgProps();
+                        if (svgProps != null) {
+                            renderer.updateSvgView(svg, svgProps);
+                        }
+                        svg.mountDocument(builder.getRoot());
+                        successCallback.invoke(builder.getNodeCount());
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Builds the tree of a mountXml source. With the cache option, the encoded scene of the
+     * source is looked up by its hash first, and the scene of a parsed source is stored.
+     */
+    private HeadlessRenderer.TreeBuilder buildDocument(ReactApplicationContext context, ReadableMap source)
+            throws Exception {
+        if (mHeadlessRenderer == null) {
+            mHeadlessRenderer = new HeadlessRenderer(context);
+        }
+        HeadlessRenderer.TreeBuilder builder = mHeadlessRenderer.newTreeBuilder();
+        String xml = source.hasKey("xml") && !source.isNull("xml") ? source.getString("xml") : null;
+        String uri = source.hasKey("uri") && !source.isNull("uri") ? source.getString("uri") : null;
+        if (xml == null && uri == null) {
+            throw new IllegalArgumentException("mountXml needs an xml or uri source");
+        }
+
+        boolean cache = source.hasKey("cache") && source.getBoolean("cache");
+        if (!cache) {
+            SvgXmlParser parser = new SvgXmlParser(builder);
+            if (xml != null) {
+                parser.parse(new StringReader(xml));
+            } else {
+                InputStream input = openDocument(context, uri);
+                try {
+                    parser.parse(new BufferedInputStream(input));
+                } finally {
+                    input.close();
+                }
+            }
+            return builder;
+        }
+
+        byte[] document = xml != null ? xml.getBytes("UTF-8") : readDocument(context, uri);
+        String key = SceneCache.key(document);
+        byte[] scene = SceneCache.get(context, key);
+        if (scene != null) {
+            try {
+                SceneCodec.decode(new ByteArrayInputStream(scene), builder);
+                return builder;
+            } catch (Exception e) {
+                FLog.w(ReactConstants.TAG, "RNSVG: Failed to decode cached scene, parsing the document again", e);
+                SceneCache.remove(context, key);
+                builder = mHeadlessRenderer.newTreeBuilder();
+            }
+        }
+
+        SceneCodec.Encoder encoder = new SceneCodec.Encoder(builder);
+        SvgXmlParser parser = new SvgXmlParser(encoder);
+        if (xml != null) {
+            parser.parse(new StringReader(xml));
+        } else {
+            parser.parse(new ByteArrayInputStream(document));
+        }
+        SceneCache.put(context, key, encoder);
+        return builder;
+    }
+
+    private static byte[] readDocument(ReactApplicationContext context, String uri) throws IOException {
+        InputStream input = openDocument(context, uri);
+        try {
+            ByteArrayOutputStream document = new ByteArrayOutputStream();
+            byte[] buffer = new byte[16 * 1024];
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                document.write(buffer, 0, count);
+            }
+            return document.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    private static InputStream openDocument(ReactApplicationContext context, String uri) throws IOException {
+        Uri parsed = Uri.parse(uri);
+        String scheme = parsed.getScheme();
+        if ("http".equals(scheme) || "https".equals(scheme)) {
+            URLConnection connection = new URL(uri).openConnection();
+            connection.setConnectTimeout(DOCUMENT_CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(DOCUMENT_READ_TIMEOUT_MS);
+            return connection.getInputStream();
+        }
+        InputStream input = context.getContentResolver().openInputStream(parsed);
+        if (input == null) {
+            throw new IOException("Can't open " + uri);
+        }
+        return input;
+    }
+
+    /**
+     * Exports each of the given Svg views into an image file in the app cache directory and calls
+     * back with an array of file URIs, in the order of the tags. Views that aren't mounted or
+     * rendered yet, or fail to export, get null.
+     */
+    @SuppressWarnings("unused")
+    @ReactMethod
+    public void exportToFiles(final ReadableArray tags, final ReadableMap options, final Callback successCallback) {
+        int count = tags.size();
+        int[] exportTags = new int[count];
+        for (int i = 0; i < count; i++) {
+            // Svgs that aren't mounted have no tag
+            exportTags[i] = tags.isNull(i) ? View.NO_ID : tags.getInt(i);
+        }
+        exportChunk(getReactApplicationContext(), exportTags, options, new String[count], 0, successCallback);
+    }
+
+    /**
+     * Records the pictures of the next {@link #EXPORT_CHUNK_SIZE} views on the UI thread, so a long
+     * list doesn't block it for several frames, then encodes them on the export thread before
+     * recording the next chunk. Calls back once all views are exported.
+     */
+    private static void exportChunk(final ReactApplicationContext context, final int[] tags, final ReadableMap options,
+                                    final String[] uris, final int from, final Callback successCallback) {
+        UiThreadUtil.runOnUiThread(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        final int to = Math.min(from + EXPORT_CHUNK_SIZE, tags.length);
+                        final Picture[] pictures = new Picture[to - from];
+                        final ExportOptions[] exports = new ExportOptions[to - from];
+                        for (int i = from; i < to; i++) {
+                            int tag = tags[i];
+                            SvgView svg = tag != View.NO_ID ? SvgViewManager.getSvgViewByTag(tag) : null;
+                            if (svg == null || svg.notRendered()) {
+                                FLog.w(ReactConstants.TAG, "RNSVG: Svg view " + tag + " isn't rendered, can't export it");
+                                continue;
+                            }
+                            ExportOptions export = ExportOptions.from(options, svg.getWidth(), svg.getHeight());
+                            export.toFile = true;
+                            if (export.path != null) {
+                                // The path is the directory to write the files of all views to
+                                export.path = new File(export.path, "svg-" + i + "." + export.getFileExtension()).getPath();
+                            }
+                            if (export.width < 1 || export.height < 1) {
+                                continue;
+                            }
+                            exports[i - from] = export;
+                            pictures[i - from] = svg.recordPicture(export.width, export.height);
+                        }
+
+                        sExportExecutor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                for (int i = 0; i < pictures.length; i++) {
+                                    if (pictures[i] != null) {
+                                        uris[from + i] = encodePicture(context, tags[from + i], pictures[i], exports[i]);
+                                        // Let the picture go before rasterizing the next one
+                                        pictures[i] = null;
+                                    }
+                                }
+                                if (to < tags.length) {
+                                    exportChunk(context, tags, options, uris, to, successCallback);
+                                    return;
+                                }
+                                WritableArray result = Arguments.createArray();
+                                for (String uri : uris) {
+                                    if (uri == null) {
+                                        result.pushNull();
+                                    } else {
+                                        result.pushString(uri);
+                                    }
+                                }
+                                successCallback.invoke(result);
+                            }
+                        });
+                    }
+                }
+        );
     }
 }
@@ -0,0 +1,870 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Color;
+import android.util.Xml;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.common.ReactConstants;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * Streaming SVG document parser, reporting each element as a node of the native view manager
+ * it maps to, with the same native props the corresponding component would send.
+ *
+ * The root svg element becomes an RNSVGSvgView node holding the viewBox, with a single
+ * RNSVGGroup child holding the presentation attributes of the root, like the Svg component.
+ * Gradient stops are collected into the gradient prop of their gradient, and text content
+ * becomes RNSVGTSpan nodes. Mask, pattern, marker, filter and style elements are skipped, as
+ * are the mask, marker, filter and class attributes referring to them, with a warning logged
+ * once per element or attribute name.
+ */
+class SvgXmlParser {
+
+    interface Handler {
+        /**
+         * Called for each element, before its children.
+         *
+         * @param type  name of the view manager the node maps to
+         * @param props native props of the node
+         */
+        void startNode(String type, ReadableMap props);
+
+        /**
+         * Called with props only known once the children of the current node were parsed.
+         */
+        void updateNode(ReadableMap props);
+
+        void endNode();
+    }
+
+    private static final String SVG = "RNSVGSvgView";
+    private static final String GROUP = "RNSVGGroup";
+    private static final String PATH = "RNSVGPath";
+    private static final String TEXT = "RNSVGText";
+    private static final String TSPAN = "RNSVGTSpan";
+    private static final String LINEAR_GRADIENT = "RNSVGLinearGradient";
+    private static final String RADIAL_GRADIENT = "RNSVGRadialGradient";
+
+    private static final Pattern sSeparator = Pattern.compile("[\\s,]+");
+    private static final Pattern sWhitespace = Pattern.compile("\\s+");
+    private static final Pattern sTransform = Pattern.compile("(\\w+)\\s*\\(([^)]*)\\)");
+    private static final Pattern sUrl = Pattern.compile("^\\s*url\\(\\s*['\"]?#([^'\")]+)['\"]?\\s*\\)");
+
+    private static final Map<String, String> sFontProps = new HashMap<>();
+    static {
+        sFontProps.put("font-size", "fontSize");
+        sFontProps.put("font-family", "fontFamily");
+        sFontProps.put("font-weight", "fontWeight");
+        sFontProps.put("font-style", "fontStyle");
+        sFontProps.put("font-variant", "fontVariant");
+        sFontProps.put("font-stretch", "fontStretch");
+        sFontProps.put("text-anchor", "textAnchor");
+        sFontProps.put("text-decoration", "textDecoration");
+        sFontProps.put("letter-spacing", "letterSpacing");
+        sFontProps.put("word-spacing", "wordSpacing");
+        sFontProps.put("kerning", "kerning");
+    }
+
+    private static final Comparator<double[]> sStopComparator = new Comparator<double[]>() {
+        @Override
+        public int compare(double[] stop, double[] other) {
+            return Double.compare(stop[0], other[0]);
+        }
+    };
+
+    private final Handler mHandler;
+    private final XmlPullParser mParser = Xml.newPullParser();
+    // Attributes of the current element, merged with its style attribute
+    private final HashMap<String, String> mAttributes = new HashMap<>();
+    // Gradient stops by gradient id, for gradients referencing the stops of another one
+    private final HashMap<String, ArrayList<double[]>> mGradientStops = new HashMap<>();
+    private final Set<String> mWarnedTags = new HashSet<>();
+    private final Set<String> mWarnedAttributes = new HashSet<>();
+
+    // Node types of the open elements, skipped elements aren't included
+    private final ArrayList<String> mOpenNodes = new ArrayList<>();
+    private @Nullable ArrayList<double[]> mStops;
+    private @Nullable String mGradientHref;
+    private @Nullable String mGradientId;
+    private int mSkipDepth;
+    private int mNodeCount;
+
+    SvgXmlParser(Handler handler) {
+        mHandler = handler;
+    }
+
+    /**
+     * Parses the document, reporting its nodes to the handler as they are read.
+     *
+     * @return the number of nodes reported
+     */
+    int parse(InputStream input) throws XmlPullParserException, IOException {
+        mParser.setInput(input, null);
+        return parseDocument();
+    }
+
+    int parse(Reader input) throws XmlPullParserException, IOException {
+        mParser.setInput(input);
+        return parseDocument();
+    }
+
+    private int parseDocument() throws XmlPullParserException, IOException {
+        mNodeCount = 0;
+        mSkipDepth = 0;
+        mOpenNodes.clear();
+        mGradientStops.clear();
+
+        int event = mParser.getEventType();
+        while (event != XmlPullParser.END_DOCUMENT) {
+            switch (event) {
+                case XmlPullParser.START_TAG:
+                    if (mSkipDepth > 0) {
+                        mSkipDepth++;
+                    } else {
+                        readAttributes();
+                        startElement(mParser.getName());
+                    }
+                    break;
+                case XmlPullParser.END_TAG:
+                    if (mSkipDepth > 0) {
+                        mSkipDepth--;
+                    } else {
+                        endElement();
+                    }
+                    break;
+                case XmlPullParser.TEXT:
+                    if (mSkipDepth == 0) {
+                        text(mParser.getText());
+                    }
+                    break;
+            }
+            event = mParser.next();
+        }
+        return mNodeCount;
+    }
+
+    private void readAttributes() {
+        mAttributes.clear();
+        for (int i = 0; i < mParser.getAttributeCount(); i++) {
+            mAttributes.put(mParser.getAttributeName(i), mParser.getAttributeValue(i));
+        }
+        // Style declarations take precedence over presentation attributes
+        String style = mAttributes.get("style");
+        if (style != null) {
+            for (String declaration : style.split(";")) {
+                int colon = declaration.indexOf(':');
+                if (colon > 0) {
+                    mAttributes.put(declaration.substring(0, colon).trim(), declaration.substring(colon + 1).trim());
+                }
+            }
+        }
+    }
+
+    private void startElement(String tag) {
+        String type = null;
+        JavaOnlyMap props = new JavaOnlyMap();
+        switch (tag) {
+            case "svg":
+                if (mOpenNodes.isEmpty()) {
+                    // The size of the view is left to the Svg component it's mounted in
+                    putViewBox(props);
+                    startNode(SVG, props);
+                    props = new JavaOnlyMap();
+                }
+                // Nested documents are drawn as groups, ignoring their viewport
+                type = GROUP;
+                putRenderable(props);
+                break;
+            case "g":
+                type = GROUP;
+                putRenderable(props);
+                break;
+            case "path":
+                type = PATH;
+                putRenderable(props);
+                putString(props, "d", "d");
+                break;
+            case "polyline":
+            case "polygon": {
+                type = PATH;
+                putRenderable(props);
+                String points = mAttributes.get("points");
+                if (points != null) {
+                    props.putString("d", "M" + points.trim() + (tag.equals("polygon") ? "z" : ""));
+                }
+                break;
+            }
+            case "rect":
+                type = "RNSVGRect";
+                putRenderable(props);
+                putLength(props, "x", "x");
+                putLength(props, "y", "y");
+                putLength(props, "width", "width");
+                putLength(props, "height", "height");
+                putLength(props, "rx", "rx");
+                putLength(props, "ry", "ry");
+                break;
+            case "circle":
+                type = "RNSVGCircle";
+                putRenderable(props);
+                putLength(props, "cx", "cx");
+                putLength(props, "cy", "cy");
+                putLength(props, "r", "r");
+                break;
+            case "ellipse":
+                type = "RNSVGEllipse";
+                putRenderable(props);
+                putLength(props, "cx", "cx");
+                putLength(props, "cy", "cy");
+                putLength(props, "rx", "rx");
+                putLength(props, "ry", "ry");
+                break;
+            case "line":
+                type = "RNSVGLine";
+                putRenderable(props);
+                putLength(props, "x1", "x1");
+                putLength(props, "y1", "y1");
+                putLength(props, "x2", "x2");
+                putLength(props, "y2", "y2");
+                break;
+            case "text":
+                type = TEXT;
+                putRenderable(props);
+                putText(props);
+                break;
+            case "tspan":
+                type = TSPAN;
+                putRenderable(props);
+                putText(props);
+                break;
+            case "image": {
+                type = "RNSVGImage";
+                putRenderable(props);
+                putLength(props, "x", "x");
+                putLength(props, "y", "y");
+                putLength(props, "width", "width");
+                putLength(props, "height", "height");
+                putAspectRatio(props);
+                String href = getHref();
+                if (href != null) {
+                    JavaOnlyMap src = new JavaOnlyMap();
+                    src.putString("uri", href);
+                    props.putMap("src", src);
+                }
+                break;
+            }
+            case "use": {
+                type = "RNSVGUse";
+                putRenderable(props);
+                putLength(props, "x", "x");
+                putLength(props, "y", "y");
+                putLength(props, "width", "width");
+                putLength(props, "height", "height");
+                String href = getHref();
+                if (href != null && href.startsWith("#")) {
+                    props.putString("href", href.substring(1));
+                }
+                break;
+            }
+            case "symbol":
+                type = "RNSVGSymbol";
+                putName(props);
+                putViewBox(props);
+                break;
+            case "defs":
+                type = "RNSVGDefs";
+                break;
+            case "clipPath":
+                type = "RNSVGClipPath";
+                putRenderable(props);
+                break;
+            case "linearGradient":
+                type = LINEAR_GRADIENT;
+                putName(props);
+                props.putString("x1", getOrDefault("x1", "0%"));
+                props.putString("y1", getOrDefault("y1", "0%"));
+                props.putString("x2", getOrDefault("x2", "100%"));
+                props.putString("y2", getOrDefault("y2", "0%"));
+                putGradient(props);
+                break;
+            case "radialGradient": {
+                type = RADIAL_GRADIENT;
+                putName(props);
+                String cx = getOrDefault("cx", "50%");
+                String cy = getOrDefault("cy", "50%");
+                String r = getOrDefault("r", "50%");
+                props.putString("cx", cx);
+                props.putString("cy", cy);
+                props.putString("fx", getOrDefault("fx", cx));
+                props.putString("fy", getOrDefault("fy", cy));
+                props.putString("rx", r);
+                props.putString("ry", r);
+                putGradient(props);
+                break;
+            }
+            case "stop":
+                if (mStops != null) {
+                    addStop();
+                }
+                break;
+            case "title":
+            case "desc":
+            case "metadata":
+                break;
+            case "mask":
+            case "pattern":
+            case "marker":
+            case "filter":
+                if (mWarnedTags.add(tag)) {
+                    FLog.w(ReactConstants.TAG, "RNSVG: Skipping " + tag + " element, " + tag +
+                        "s aren't supported when parsing natively, references to them are ignored");
+                }
+                break;
+            case "style":
+                if (mWarnedTags.add(tag)) {
+                    FLog.w(ReactConstants.TAG, "RNSVG: Skipping style element, stylesheets aren't supported " +
+                        "when parsing natively, only style attributes are applied");
+                }
+                break;
+            default:
+                if (mWarnedTags.add(tag)) {
+                    FLog.w(ReactConstants.TAG, "RNSVG: Skipping unsupported element " + tag);
+                }
+                break;
+        }
+
+        if (type == null) {
+            // Skip the whole subtree of elements that don't map to a node
+            mSkipDepth = 1;
+            return;
+        }
+        startNode(type, props);
+    }
+
+    private void startNode(String type, JavaOnlyMap props) {
+        mHandler.startNode(type, props);
+        mOpenNodes.add(type);
+        mNodeCount++;
+    }
+
+    private void endElement() {
+        String type = mOpenNodes.remove(mOpenNodes.size() - 1);
+        if ((type.equals(LINEAR_GRADIENT) || type.equals(RADIAL_GRADIENT)) && mStops != null) {
+            endGradient();
+        }
+        mHandler.endNode();
+        // The root group closes together with its Svg node
+        if (mOpenNodes.size() == 1 && mOpenNodes.get(0).equals(SVG)) {
+            mOpenNodes.remove(0);
+            mHandler.endNode();
+        }
+    }
+
+    private void text(String text) {
+        if (mOpenNodes.isEmpty()) {
+            return;
+        }
+        String type = mOpenNodes.get(mOpenNodes.size() - 1);
+        if (!type.equals(TEXT) && !type.equals(TSPAN)) {
+            return;
+        }
+        String content = sWhitespace.matcher(text).replaceAll(" ");
+        if (content.trim().isEmpty()) {
+            return;
+        }
+        mAttributes.clear();
+        JavaOnlyMap props = new JavaOnlyMap();
+        putRenderable(props);
+        props.putString("content", content);
+        mHandler.startNode(TSPAN, props);
+        mHandler.endNode();
+        mNodeCount++;
+    }
+
+    private void putGradient(JavaOnlyMap props) {
+        String units = mAttributes.get("gradientUnits");
+        props.putInt("gradientUnits", "userSpaceOnUse".equals(units) ? 1 : 0);
+        String transform = mAttributes.get("gradientTransform");
+        if (transform != null) {
+            JavaOnlyArray matrix = parseTransform(transform);
+            if (matrix != null) {
+                props.putArray("gradientTransform", matrix);
+            }
+        }
+        mStops = new ArrayList<>();
+        mGradientId = mAttributes.get("id");
+        String href = getHref();
+        mGradientHref = href != null && href.startsWith("#") ? href.substring(1) : null;
+    }
+
+    private void addStop() {
+        Integer color = parseColor(getOrDefault("stop-color", "#000"));
+        double offset = parseOffset(getOrDefault("offset", "0"));
+        if (color == null || Double.isNaN(offset)) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Invalid gradient stop " + mAttributes);
+            return;
+        }
+        int alpha = Math.round(parseOpacity(mAttributes.get("stop-opacity")) * 255);
+        //noinspection ConstantConditions
+        mStops.add(new double[]{offset, (color & 0x00ffffff) | (alpha << 24)});
+    }
+
+    private void endGradient() {
+        ArrayList<double[]> stops = mStops;
+        //noinspection ConstantConditions
+        if (stops.isEmpty() && mGradientHref != null && mGradientStops.containsKey(mGradientHref)) {
+            stops = mGradientStops.get(mGradientHref);
+        }
+        if (mGradientId != null) {
+            mGradientStops.put(mGradientId, stops);
+        }
+
+        double[][] sorted = stops.toArray(new double[stops.size()][]);
+        Arrays.sort(sorted, sStopComparator);
+        JavaOnlyArray gradient = new JavaOnlyArray();
+        for (double[] stop : sorted) {
+            gradient.pushDouble(stop[0]);
+            gradient.pushInt((int) stop[1]);
+        }
+        JavaOnlyMap props = new JavaOnlyMap();
+        props.putArray("gradient", gradient);
+        mHandler.updateNode(props);
+        mStops = null;
+        mGradientHref = null;
+        mGradientId = null;
+    }
+
+    /**
+     * Puts the props extractProps produces for renderable elements, including the defaults it
+     * sends for attributes that aren't set.
+     */
+    private void putRenderable(JavaOnlyMap props) {
+        JavaOnlyArray propList = new JavaOnlyArray();
+        putName(props);
+
+        String fill = mAttributes.get("fill");
+        if (fill != null) {
+            propList.pushString("fill");
+            putBrush(props, "fill", fill);
+        } else {
+            JavaOnlyArray black = new JavaOnlyArray();
+            black.pushInt(0);
+            black.pushInt(Color.BLACK);
+            props.putArray("fill", black);
+        }
+        putOpacity(props, propList, "fillOpacity", "fill-opacity");
+        String fillRule = mAttributes.get("fill-rule");
+        if (fillRule != null) {
+            propList.pushString("fillRule");
+        }
+        props.putInt("fillRule", "evenodd".equals(fillRule) ? 0 : 1);
+
+        String stroke = mAttributes.get("stroke");
+        if (stroke != null) {
+            propList.pushString("stroke");
+            putBrush(props, "stroke", stroke);
+        } else {
+            props.putNull("stroke");
+        }
+        putOpacity(props, propList, "strokeOpacity", "stroke-opacity");
+        String strokeWidth = mAttributes.get("stroke-width");
+        if (strokeWidth != null) {
+            propList.pushString("strokeWidth");
+            props.putString("strokeWidth", strokeWidth);
+        } else {
+            props.putDouble("strokeWidth", 1);
+        }
+        String dashArray = mAttributes.get("stroke-dasharray");
+        if (dashArray != null) {
+            propList.pushString("strokeDasharray");
+            if (!dashArray.trim().equals("none")) {
+                JavaOnlyArray dashes = parseLengthList(dashArray);
+                // Odd dash lists repeat to get an even number of values
+                if (dashes.size() % 2 == 1) {
+                    for (int i = 0, size = dashes.size(); i < size; i++) {
+                        dashes.pushString(dashes.getString(i));
+                    }
+                }
+                props.putArray("strokeDasharray", dashes);
+                String dashOffset = mAttributes.get("stroke-dashoffset");
+                if (dashOffset != null) {
+                    propList.pushString("strokeDashoffset");
+                    props.putDouble("strokeDashoffset", parseNumber(dashOffset, 0));
+                }
+            }
+        }
+        props.putInt("strokeLinecap", putEnum(propList, "strokeLinecap", "stroke-linecap", "butt", "round", "square"));
+        props.putInt("strokeLinejoin", putEnum(propList, "strokeLinejoin", "stroke-linejoin", "miter", "round", "bevel"));
+        String miterLimit = mAttributes.get("stroke-miterlimit");
+        if (miterLimit != null) {
+            propList.pushString("strokeMiterlimit");
+        }
+        props.putDouble("strokeMiterlimit", parseNumber(miterLimit, 4));
+        String vectorEffect = mAttributes.get("vector-effect");
+        props.putInt("vectorEffect", "non-scaling-stroke".equals(vectorEffect) ? 1 : 0);
+
+        props.putDouble("opacity", parseOpacity(mAttributes.get("opacity")));
+        String transform = mAttributes.get("transform");
+        if (transform != null) {
+            JavaOnlyArray matrix = parseTransform(transform);
+            if (matrix != null) {
+                props.putArray("matrix", matrix);
+            }
+        }
+        String clipPath = getUrlId("clip-path");
+        if (clipPath != null) {
+            props.putString("clipPath", clipPath);
+        }
+        String clipRule = mAttributes.get("clip-rule");
+        if (clipRule != null) {
+            props.putInt("clipRule", "evenodd".equals(clipRule) ? 0 : 1);
+        }
+        // Masks, markers and filters are never parsed, so their references can't resolve
+        warnUnsupportedAttribute("mask");
+        warnUnsupportedAttribute("marker-start");
+        warnUnsupportedAttribute("marker-mid");
+        warnUnsupportedAttribute("marker-end");
+        warnUnsupportedAttribute("filter");
+        warnUnsupportedAttribute("class");
+        props.putArray("propList", propList);
+    }
+
+    private void putText(JavaOnlyMap props) {
+        putLengthList(props, "x", "x");
+        putLengthList(props, "y", "y");
+        putLengthList(props, "dx", "dx");
+        putLengthList(props, "dy", "dy");
+        putLengthList(props, "rotate", "rotate");
+
+        JavaOnlyMap font = null;
+        for (Map.Entry<String, String> entry : sFontProps.entrySet()) {
+            String value = mAttributes.get(entry.getKey());
+            if (value == null) {
+                continue;
+            }
+            if (entry.getKey().equals("font-family")) {
+                value = value.split(",")[0].replaceAll("^[\\s\"']+|[\\s\"']+$", "");
+            }
+            if (font == null) {
+                font = new JavaOnlyMap();
+            }
+            font.putString(entry.getValue(), value);
+        }
+        if (font != null) {
+            props.putMap("font", font);
+        }
+    }
+
+    private void putName(JavaOnlyMap props) {
+        String id = mAttributes.get("id");
+        if (id != null) {
+            props.putString("name", id);
+        }
+    }
+
+    private void putViewBox(JavaOnlyMap props) {
+        String viewBox = mAttributes.get("viewBox");
+        if (viewBox == null) {
+            return;
+        }
+        String[] params = sSeparator.split(viewBox.trim());
+        if (params.length != 4) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Invalid viewBox " + viewBox);
+            return;
+        }
+        try {
+            props.putDouble("minX", Double.parseDouble(params[0]));
+            props.putDouble("minY", Double.parseDouble(params[1]));
+            props.putDouble("vbWidth", Double.parseDouble(params[2]));
+            props.putDouble("vbHeight", Double.parseDouble(params[3]));
+        } catch (NumberFormatException e) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Invalid viewBox " + viewBox);
+            return;
+        }
+        putAspectRatio(props);
+    }
+
+    private void putAspectRatio(JavaOnlyMap props) {
+        String[] modes = sWhitespace.split(getOrDefault("preserveAspectRatio", "").trim());
+        String align = modes[0];
+        props.putString("align", align.startsWith("x") || align.equals("none") ? align : "xMidYMid");
+        int meetOrSlice = 0;
+        if (modes.length > 1) {
+            meetOrSlice = modes[1].equals("slice") ? 1 : modes[1].equals("none") ? 2 : 0;
+        }
+        props.putInt("meetOrSlice", meetOrSlice);
+    }
+
+    private void putString(JavaOnlyMap props, String prop, String attribute) {
+        String value = mAttributes.get(attribute);
+        if (value != null) {
+            props.putString(prop, value);
+        }
+    }
+
+    private void putLength(JavaOnlyMap props, String prop, String attribute) {
+        String value = mAttributes.get(attribute);
+        if (value != null) {
+            props.putString(prop, value.trim());
+        }
+    }
+
+    private void putLengthList(JavaOnlyMap props, String prop, String attribute) {
+        String value = mAttributes.get(attribute);
+        if (value != null) {
+            props.putArray(prop, parseLengthList(value));
+        }
+    }
+
+    private void putOpacity(JavaOnlyMap props, JavaOnlyArray propList, String prop, String attribute) {
+        String value = mAttributes.get(attribute);
+        if (value != null) {
+            propList.pushString(prop);
+        }
+        props.putDouble(prop, parseOpacity(value));
+    }
+
+    private int putEnum(JavaOnlyArray propList, String prop, String attribute, String... values) {
+        String value = mAttributes.get(attribute);
+        if (value == null) {
+            return 0;
+        }
+        propList.pushString(prop);
+        int index = Arrays.asList(values).indexOf(value.trim());
+        return Math.max(index, 0);
+    }
+
+    private void putBrush(JavaOnlyMap props, String prop, String value) {
+        value = value.trim();
+        JavaOnlyArray brush = new JavaOnlyArray();
+        if (value.equals("none")) {
+            props.putNull(prop);
+            return;
+        } else if (value.equals("currentColor")) {
+            brush.pushInt(2);
+        } else if (value.equals("context-fill")) {
+            brush.pushInt(3);
+        } else if (value.equals("context-stroke")) {
+            brush.pushInt(4);
+        } else {
+            Matcher url = sUrl.matcher(value);
+            if (url.find()) {
+                brush.pushInt(1);
+                brush.pushString(url.group(1));
+            } else {
+                Integer color = parseColor(value);
+                if (color == null) {
+                    FLog.w(ReactConstants.TAG, "RNSVG: \"" + value + "\" is not a valid color or brush");
+                    props.putNull(prop);
+                    return;
+                }
+                brush.pushInt(0);
+                brush.pushInt(color);
+            }
+        }
+        props.putArray(prop, brush);
+    }
+
+    private String getOrDefault(String attribute, String defaultValue) {
+        String value = mAttributes.get(attribute);
+        return value != null ? value : defaultValue;
+    }
+
+    private @Nullable String getHref() {
+        String href = mAttributes.get("href");
+        return href != null ? href : mAttributes.get("xlink:href");
+    }
+
+    private void warnUnsupportedAttribute(String attribute) {
+        if (mAttributes.containsKey(attribute) && mWarnedAttributes.add(attribute)) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Ignoring " + attribute + " attributes, they aren't supported when parsing natively");
+        }
+    }
+
+    private @Nullable String getUrlId(String attribute) {
+        String value = mAttributes.get(attribute);
+        if (value == null) {
+            return null;
+        }
+        Matcher url = sUrl.matcher(value);
+        if (url.find()) {
+            return url.group(1);
+        }
+        if (!value.trim().equals("none")) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Invalid " + attribute + " " + value);
+        }
+        return null;
+    }
+
+    private static JavaOnlyArray parseLengthList(String value) {
+        JavaOnlyArray list = new JavaOnlyArray();
+        for (String length : sSeparator.split(value.trim())) {
+            if (!length.isEmpty()) {
+                list.pushString(length);
+            }
+        }
+        return list;
+    }
+
+    private static double parseNumber(@Nullable String value, double defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static float parseOpacity(@Nullable String value) {
+        double opacity = parseOffset(value != null ? value : "1");
+        return Double.isNaN(opacity) ? 1 : (float) Math.max(0, Math.min(1, opacity));
+    }
+
+    private static double parseOffset(String value) {
+        value = value.trim();
+        try {
+            if (value.endsWith("%")) {
+                return Double.parseDouble(value.substring(0, value.length() - 1)) / 100;
+            }
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Parses a color as 0xAARRGGBB, or returns null if it isn't a valid color.
+     */
+    static @Nullable Integer parseColor(String value) {
+        value = value.trim();
+        if (value.equals("transparent")) {
+            return Color.TRANSPARENT;
+        }
+        try {
+            if (value.startsWith("#") && value.length() == 4) {
+                char r = value.charAt(1);
+                char g = value.charAt(2);
+                char b = value.charAt(3);
+                return Color.parseColor("#" + r + r + g + g + b + b);
+            }
+            if (value.startsWith("rgb")) {
+                int open = value.indexOf('(');
+                int close = value.lastIndexOf(')');
+                String[] channels = sSeparator.split(value.substring(open + 1, close).trim());
+                int[] rgb = new int[3];
+                for (int i = 0; i < 3; i++) {
+                    String channel = channels[i];
+                    double parsed = channel.endsWith("%") ?
+                        Double.parseDouble(channel.substring(0, channel.length() - 1)) * 2.55 :
+                        Double.parseDouble(channel);
+                    rgb[i] = (int) Math.round(Math.max(0, Math.min(255, parsed)));
+                }
+                int alpha = channels.length > 3 ? Math.round(parseOpacity(channels[3]) * 255) : 255;
+                return Color.argb(alpha, rgb[0], rgb[1], rgb[2]);
+            }
+            return Color.parseColor(value.toLowerCase(Locale.US));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a transform list into the [a, b, c, d, e, f] matrix prop.
+     */
+    static @Nullable JavaOnlyArray parseTransform(String value) {
+        double[] m = {1, 0, 0, 1, 0, 0};
+        Matcher matcher = sTransform.matcher(value);
+        while (matcher.find()) {
+            String[] args = sSeparator.split(matcher.group(2).trim());
+            double[] a = new double[args.length];
+            try {
+                for (int i = 0; i < args.length; i++) {
+                    a[i] = Double.parseDouble(args[i]);
+                }
+            } catch (NumberFormatException e) {
+                FLog.w(ReactConstants.TAG, "RNSVG: Invalid transform " + value);
+                return null;
+            }
+            switch (matcher.group(1)) {
+                case "matrix":
+                    if (a.length == 6) {
+                        concat(m, a[0], a[1], a[2], a[3], a[4], a[5]);
+                    }
+                    break;
+                case "translate":
+                    concat(m, 1, 0, 0, 1, a[0], a.length > 1 ? a[1] : 0);
+                    break;
+                case "scale":
+                    concat(m, a[0], 0, 0, a.length > 1 ? a[1] : a[0], 0, 0);
+                    break;
+                case "rotate": {
+                    double angle = Math.toRadians(a[0]);
+                    double cos = Math.cos(angle);
+                    double sin = Math.sin(angle);
+                    double cx = a.length > 2 ? a[1] : 0;
+                    double cy = a.length > 2 ? a[2] : 0;
+                    concat(m, 1, 0, 0, 1, cx, cy);
+                    concat(m, cos, sin, -sin, cos, 0, 0);
+                    concat(m, 1, 0, 0, 1, -cx, -cy);
+                    break;
+                }
+                case "skewX":
+                    concat(m, 1, 0, Math.tan(Math.toRadians(a[0])), 1, 0, 0);
+                    break;
+                case "skewY":
+                    concat(m, 1, Math.tan(Math.toRadians(a[0])), 0, 1, 0, 0);
+                    break;
+                default:
+                    FLog.w(ReactConstants.TAG, "RNSVG: Unknown transform " + matcher.group(1));
+                    break;
+            }
+        }
+        JavaOnlyArray matrix = new JavaOnlyArray();
+        for (double v : m) {
+            matrix.pushDouble(v);
+        }
+        return matrix;
+    }
+
+    private static void concat(double[] m, double a, double b, double c, double d, double e, double f) {
+        double a0 = m[0], b0 = m[1], c0 = m[2], d0 = m[3], e0 = m[4], f0 = m[5];
+        m[0] = a0 * a + c0 * b;
+        m[1] = b0 * a + d0 * b;
+        m[2] = a0 * c + c0 * d;
+        m[3] = b0 * c + d0 * d;
+        m[4] = a0 * e + c0 * f + e0;
+        m[5] = b0 * e + d0 * f + f0;
+    }
+}
@@ -28,6 +28,11 @@ class SymbolView extends GroupView {
     private String mAlign;
     private int mMeetOrSlice;
 
+    // Scratch objects reused across draws
+    private final RectF mViewBoxRect = new RectF();
+    private final RectF mViewportRect = new RectF();
+    private final Matrix mViewBoxMatrix = new Matrix();
+
     public SymbolView(ReactContext reactContext) {
         super(reactContext);
     }
@@ -75,9 +80,12 @@ class SymbolView extends GroupView {
 
     void drawSymbol(Canvas canvas, Paint paint, float opacity, float width, float height) {
         if (mAlign != null) {
-            RectF vbRect = new RectF(mMinX * mScale, mMinY * mScale, (mMinX + mVbWidth) * mScale, (mMinY + mVbHeight) * mScale);
-            RectF eRect = new RectF(0, 0, width, height);
-            Matrix viewBoxMatrix = ViewBox.getTransform(vbRect, eRect, mAlign, mMeetOrSlice);
+            RectF vbRect = mViewBoxRect;
+            vbRect.set(mMinX * mScale, mMinY * mScale, (mMinX + mVbWidth) * mScale, (mMinY + mVbHeight) * mScale);
+            RectF eRect = mViewportRect;
+            eRect.set(0, 0, width, height);
+            Matrix viewBoxMatrix = mViewBoxMatrix;
+            ViewBox.getTransform(vbRect, eRect, mAlign, mMeetOrSlice, viewBoxMatrix);
             canvas.concat(viewBoxMatrix);
             super.draw(canvas, paint, opacity);
         }
@@ -11,6 +11,7 @@ package com.horcrux.svg;
 
 
 import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
 import android.content.res.AssetManager;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
@@ -21,19 +22,32 @@ import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Layout;
+import android.text.PrecomputedText;
 import android.text.SpannableString;
 import android.text.StaticLayout;
 import android.text.TextPaint;
 import android.view.View;
 import android.view.ViewParent;
 
+import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.common.ReactConstants;
 import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.views.text.ReactFontManager;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import javax.annotation.Nullable;
 
@@ -58,11 +72,216 @@ class TSpanView extends TextView {
     private static final String OTF = ".otf";
     private static final String TTF = ".ttf";
 
+    // Typefaces loaded from font assets by family, style, weight and variation settings, and the
+    // keys of those without an asset, shared by all text. Other typefaces aren't cached, as fonts
+    // can be registered with the font manager at any time.
+    private static final ConcurrentHashMap<String, Typeface> sAssetTypefaces = new ConcurrentHashMap<>();
+    private static final Set<String> sMissingAssetTypefaces =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    // Names of the files in the fonts directory of the assets, listed once
+    private static volatile @Nullable Set<String> sFontAssets;
+
     private Path mCachedPath;
     @Nullable String mContent;
     private TextPathView textPath;
     private final ArrayList<String> emoji = new ArrayList<>();
     private final ArrayList<Matrix> emojiTransforms = new ArrayList<>();
+
+    /**
+     * Substring of the content drawn at the origin of its first glyph, with the advances of the
+     * paint.
+     */
+    private static class GlyphRun {
+        final int start;
+        int end;
+        final float x;
+        final float y;
+
+        GlyphRun(int start, int end, float x, float y) {
+            this.start = start;
+            this.end = end;
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    // Glyph runs of the cached path when its glyphs are neither rotated nor on a text path, drawn
+    // instead of the path, whose outline is then only built for hit testing and bounds
+    private @Nullable ArrayList<GlyphRun> mGlyphRuns;
+    private @Nullable String mGlyphRunText;
+    private @Nullable GlyphCache.Font mGlyphRunFont;
+
+    /**
+     * Glyph placements of a line that isn't on a text path, with the path and glyph runs built
+     * from them. The outline of glyphs drawn as runs is only added to the path by buildPath. Laying text out again only replays the glyph context, and the path of a line
+     * whose glyphs haven't moved is reused, so a changed tspan only rebuilds the lines it moves,
+     * i.e. itself and the rest of its anchored text chunk. The measured advances only depend on
+     * the line and font, and are reused even when the glyphs moved.
+     */
+    private static class LineLayout {
+        final String line;
+        final GlyphCache.Font font;
+        // Advance of each character, and width of the cluster starting at it, 0 within clusters
+        final float[] advances;
+        final float[] clusterWidths;
+        final int[] starts;
+        final int[] ends;
+        final float[] xs;
+        final float[] ys;
+        final float[] rotations;
+        int count;
+
+        final Path path = new Path();
+        boolean hasPath;
+        // Bounds of the outline while it isn't built, and the paint to build it with
+        final RectF bounds = new RectF();
+        @Nullable Paint outlinePaint;
+        @Nullable ArrayList<GlyphRun> runs;
+        final ArrayList<String> emoji = new ArrayList<>();
+        final ArrayList<Matrix> emojiTransforms = new ArrayList<>();
+
+        LineLayout(String line, GlyphCache.Font font, float[] advances, float[] clusterWidths) {
+            this.line = line;
+            this.font = font;
+            this.advances = advances;
+            this.clusterWidths = clusterWidths;
+            int length = line.length();
+            starts = new int[length];
+            ends = new int[length];
+            xs = new float[length];
+            ys = new float[length];
+            rotations = new float[length];
+        }
+
+        void add(int start, int end, float x, float y, float rotation) {
+            starts[count] = start;
+            ends[count] = end;
+            xs[count] = x;
+            ys[count] = y;
+            rotations[count] = rotation;
+            count++;
+        }
+
+        boolean isMeasuredLike(String line, GlyphCache.Font font) {
+            return this.line.equals(line) && this.font.equals(font);
+        }
+
+        boolean isPlacedLike(@Nullable LineLayout other) {
+            if (other == null || count != other.count || !line.equals(other.line) || !font.equals(other.font)) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (starts[i] != other.starts[i] || ends[i] != other.ends[i] ||
+                        xs[i] != other.xs[i] || ys[i] != other.ys[i] || rotations[i] != other.rotations[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Builds the glyph runs to draw if no glyph is rotated, and otherwise the path of the
+         * placed glyphs.
+         *
+         * @param pen pen position of each character when the line is drawn as a whole
+         */
+        void build(Paint paint, float[] pen) {
+            runs = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (rotations[i] != 0) {
+                    runs = null;
+                    break;
+                }
+            }
+            Matrix mid = new Matrix();
+            RectF glyphBounds = new RectF();
+            for (int i = 0; i < count; i++) {
+                int index = starts[i];
+                float x = xs[i];
+                float y = ys[i];
+                if (runs != null) {
+                    // Continue the last run if the glyph is where drawing the run would put it
+                    GlyphRun run = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+                    if (run != null && run.y == y && Math.abs(run.x + pen[index] - pen[run.start] - x) < 0.001f) {
+                        run.end = ends[i];
+                    } else {
+                        runs.add(new GlyphRun(index, ends[i], x, y));
+                    }
+                }
+                mid.setTranslate(x, y);
+                mid.preRotate(rotations[i]);
+                String current = line.substring(index, ends[i]);
+                if (runs == null) {
+                    addGlyph(path, emoji, emojiTransforms, paint, font, current, mid);
+                    continue;
+                }
+                Path glyph = GlyphCache.get(font, paint, current);
+                glyph.computeBounds(glyphBounds, true);
+                if (glyphBounds.width() == 0) {
+                    emoji.add(current);
+                    emojiTransforms.add(new Matrix(mid));
+                } else {
+                    mid.mapRect(glyphBounds);
+                    bounds.union(glyphBounds);
+                }
+            }
+            hasPath = runs == null;
+            outlinePaint = hasPath ? null : new Paint(paint);
+        }
+
+        /**
+         * Adds the outline of the glyphs drawn as runs to the path.
+         */
+        void buildPath() {
+            if (hasPath) {
+                return;
+            }
+            Paint paint = outlinePaint;
+            Matrix mid = new Matrix();
+            RectF glyphBounds = new RectF();
+            for (int i = 0; i < count; i++) {
+                Path glyph = GlyphCache.get(font, paint, line.substring(starts[i], ends[i]));
+                glyph.computeBounds(glyphBounds, true);
+                if (glyphBounds.width() != 0) {
+                    mid.setTranslate(xs[i], ys[i]);
+                    path.addPath(glyph, mid);
+                }
+            }
+            hasPath = true;
+            outlinePaint = null;
+        }
+    }
+
+    private @Nullable LineLayout mLineLayout;
+
+    // Advance of the content, and the font properties it was measured with
+    private @Nullable String mMeasuredText;
+    private @Nullable GlyphCache.Font mMeasuredFont;
+    private float mMeasuredLetterSpacing;
+    private double mMeasuredAdvance;
+
+    // Layout of wrapped text, and the properties it was built for
+    private @Nullable StaticLayout mLayout;
+    private @Nullable String mLayoutText;
+    private int mLayoutWidth;
+    private @Nullable Layout.Alignment mLayoutAlign;
+    private @Nullable GlyphCache.Font mLayoutFont;
+    private float mLayoutLetterSpacing;
+    // Set while a layout of the current properties is being precomputed
+    private boolean mPrecomputingLayout;
+    private int mLayoutGeneration;
+    // Paint bounds of the wrapped text, set on every draw
+    private final RectF mWrappedPaintBounds = new RectF();
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static final ExecutorService sLayoutExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "RNSVGTextLayout");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
     private final AssetManager assets;
 
     public TSpanView(ReactContext reactContext) {
@@ -140,21 +359,114 @@ class TSpanView extends TextView {
                 break;
         }
 
-        StaticLayout layout;
+        final int width = (int) PropHelper.fromRelative(mInlineSize, canvas.getWidth(), 0, mScale, fontSize);
+        StaticLayout layout = getLayout(tp, width, align);
+        if (layout == null) {
+            // Drawn once the precomputed layout is ready
+            popGlyphContext();
+            return;
+        }
+
+        int lineAscent = layout.getLineAscent(0);
+
+        float dx = (float) gc.nextX(0);
+        float dy = (float) (gc.nextY() + lineAscent);
+        popGlyphContext();
+
+        canvas.save();
+        canvas.translate(dx, dy);
+        layout.draw(canvas);
+        canvas.restore();
+
+        RectF paintBounds = mWrappedPaintBounds;
+        paintBounds.set(dx, dy, dx + layout.getWidth(), dy + layout.getHeight());
+        mCTM.mapRect(paintBounds);
+        setPaintBounds(paintBounds);
+    }
+
+    /**
+     * Returns the layout of the content, which is only rebuilt when the content, width or font
+     * properties change. Returns null while the layout is precomputed in the background.
+     */
+    private @Nullable StaticLayout getLayout(TextPaint tp, int width, Layout.Alignment align) {
+        GlyphCache.Font font = GlyphCache.getFont(tp);
+        float letterSpacing = Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP ? tp.getLetterSpacing() : 0;
+        boolean unchanged = mContent.equals(mLayoutText) &&
+                width == mLayoutWidth &&
+                align == mLayoutAlign &&
+                font.equals(mLayoutFont) &&
+                letterSpacing == mLayoutLetterSpacing;
+        if (unchanged && mLayout != null) {
+            // Draw with the current paint, e.g. for a changed color
+            mLayout.getPaint().set(tp);
+            return mLayout;
+        }
+        if (unchanged && mPrecomputingLayout) {
+            return null;
+        }
+
+        mLayoutText = mContent;
+        mLayoutWidth = width;
+        mLayoutAlign = align;
+        mLayoutFont = font;
+        mLayoutLetterSpacing = letterSpacing;
+        mLayout = null;
+        mPrecomputingLayout = false;
+        mLayoutGeneration++;
+
+        SvgView svg = getSvgView();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P && svg != null && svg.mPrecomputeText) {
+            precomputeLayout(mContent, new TextPaint(tp), width, align);
+            return null;
+        }
+        mLayout = buildLayout(new SpannableString(mContent), tp, width, align);
+        return mLayout;
+    }
+
+    @TargetApi(Build.VERSION_CODES.P)
+    private void precomputeLayout(final String content, final TextPaint tp, final int width, final Layout.Alignment align) {
+        mPrecomputingLayout = true;
+        final int generation = mLayoutGeneration;
+        sLayoutExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                PrecomputedText.Params params = new PrecomputedText.Params.Builder(tp)
+                        .setBreakStrategy(Layout.BREAK_STRATEGY_HIGH_QUALITY)
+                        .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
+                        .build();
+                final StaticLayout layout = buildLayout(PrecomputedText.create(content, params), tp, width, align);
+                sMainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        // Drop layouts of properties changed in the meantime
+                        if (generation != mLayoutGeneration) {
+                            return;
+                        }
+                        mPrecomputingLayout = false;
+                        mLayout = layout;
+                        SvgView svg = getSvgView();
+                        if (svg != null) {
+                            svg.invalidate();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private static StaticLayout buildLayout(CharSequence text, TextPaint tp, int width, Layout.Alignment align) {
         boolean includeFontPadding = true;
-        SpannableString text = new SpannableString(mContent);
-        final double width = PropHelper.fromRelative(mInlineSize, canvas.getWidth(), 0, mScale, fontSize);
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
-            layout = new StaticLayout(
+            return new StaticLayout(
                     text,
                     tp,
-                    (int)width,
+                    width,
                     align,
                     1.f,
                     0.f,
                     includeFontPadding);
         } else {
-            layout = StaticLayout.Builder.obtain(text, 0, text.length(), tp, (int)width)
+            return StaticLayout.Builder.obtain(text, 0, text.length(), tp, width)
                     .setAlignment(align)
                     .setLineSpacing(0.f, 1.f)
                     .setIncludePad(includeFontPadding)
@@ -162,21 +474,10 @@ class TSpanView extends TextView {
                     .setHyphenationFrequency(Layout.HYPHENATION_FREQUENCY_NORMAL)
                     .build();
         }
-
-        int lineAscent = layout.getLineAscent(0);
-
-        float dx = (float) gc.nextX(0);
-        float dy = (float) (gc.nextY() + lineAscent);
-        popGlyphContext();
-
-        canvas.save();
-        canvas.translate(dx, dy);
-        layout.draw(canvas);
-        canvas.restore();
     }
 
     @Override
-    Path getPath(Canvas canvas, Paint paint) {
+    Path getShapePath(Canvas canvas, Paint paint) {
         if (mCachedPath != null) {
             return mCachedPath;
         }
@@ -195,6 +496,48 @@ class TSpanView extends TextView {
         return mCachedPath;
     }
 
+    @Override
+    boolean hasOutline() {
+        if (mContent == null) {
+            return super.hasOutline();
+        }
+        return mGlyphRuns == null || mLineLayout.hasPath;
+    }
+
+    @Override
+    void buildOutline() {
+        if (mContent == null) {
+            super.buildOutline();
+        } else if (mGlyphRuns != null) {
+            mLineLayout.buildPath();
+        }
+    }
+
+    @Override
+    boolean getPreparedBounds(RectF out) {
+        if (mContent == null || hasOutline()) {
+            return false;
+        }
+        out.set(mLineLayout.bounds);
+        return true;
+    }
+
+    @Override
+    void drawShape(Canvas canvas, Path path, Paint paint) {
+        ArrayList<GlyphRun> runs = mGlyphRuns;
+        if (runs == null || path != mCachedPath) {
+            super.drawShape(canvas, path, paint);
+            return;
+        }
+        // The fill and stroke paints are reset, so apply the font of the path again
+        mGlyphRunFont.applyTo(paint);
+        paint.setLinearText(true);
+        for (int i = 0, count = runs.size(); i < count; i++) {
+            GlyphRun run = runs.get(i);
+            canvas.drawText(mGlyphRunText, run.start, run.end, run.x, run.y, paint);
+        }
+    }
+
     double getSubtreeTextChunksTotalAdvance(Paint paint) {
         if (!Double.isNaN(cachedAdvance)) {
             return cachedAdvance;
@@ -227,7 +570,16 @@ class TSpanView extends TextView {
 
         applySpacingAndFeatures(paint, font);
 
-        cachedAdvance = paint.measureText(line);
+        // The advance outlives the caches cleared when any text of the root changes
+        GlyphCache.Font measuredFont = GlyphCache.getFont(paint);
+        float letterSpacing = Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP ? paint.getLetterSpacing() : 0;
+        if (!line.equals(mMeasuredText) || !measuredFont.equals(mMeasuredFont) || letterSpacing != mMeasuredLetterSpacing) {
+            mMeasuredText = line;
+            mMeasuredFont = measuredFont;
+            mMeasuredLetterSpacing = letterSpacing;
+            mMeasuredAdvance = paint.measureText(line);
+        }
+        cachedAdvance = mMeasuredAdvance;
         return cachedAdvance;
     }
 
@@ -264,6 +616,7 @@ class TSpanView extends TextView {
 
         emoji.clear();
         emojiTransforms.clear();
+        mGlyphRuns = null;
 
         if (length == 0) {
             return path;
@@ -285,7 +638,6 @@ class TSpanView extends TextView {
         GlyphContext gc = getTextRootGlyphContext();
         FontData font = gc.getFont();
         applyTextPropertiesToPaint(paint, font);
-        GlyphPathBag bag = new GlyphPathBag(paint);
         boolean[] ligature = new boolean[length];
         final char[] chars = line.toCharArray();
 
@@ -431,11 +783,22 @@ class TSpanView extends TextView {
                 paint.setFontVariationSettings(fontWeightTag + font.absoluteFontWeight + font.fontVariationSettings);
             }
         }
+        GlyphCache.Font glyphFont = GlyphCache.getFont(paint);
         // OpenType.js font data
         ReadableMap fontData = font.fontData;
 
-        float[] advances = new float[length];
-        paint.getTextWidths(line, advances);
+        final LineLayout measured = mLineLayout;
+        final boolean isMeasured = measured != null && measured.isMeasuredLike(line, glyphFont);
+        final float[] advances;
+        final float[] clusterWidths;
+        if (isMeasured) {
+            advances = measured.advances;
+            clusterWidths = measured.clusterWidths;
+        } else {
+            advances = new float[length];
+            clusterWidths = new float[length];
+            paint.getTextWidths(line, advances);
+        }
 
         /*
         This would give both advances and textMeasure in one call / looping over the text
@@ -848,6 +1211,13 @@ class TSpanView extends TextView {
         final float[] startPointMatrixData = new float[9];
         final float[] endPointMatrixData = new float[9];
 
+        // Pen position of each character when the line is drawn as a whole
+        final float[] pen = new float[length + 1];
+        for (int i = 0; i < length; i++) {
+            pen[i + 1] = pen[i] + advances[i];
+        }
+        final LineLayout placed = new LineLayout(line, glyphFont, advances, clusterWidths);
+
         for (int index = 0; index < length; index++) {
             char currentChar = chars[index];
             String current = String.valueOf(currentChar);
@@ -857,7 +1227,6 @@ class TSpanView extends TextView {
                 Determine the glyph's charwidth (i.e., the amount which the current text position
                 advances horizontally when the glyph is drawn using horizontal text layout).
             */
-            boolean hasLigature = false;
             if (alreadyRenderedGraphemeCluster) {
                 current = "";
             } else {
@@ -870,10 +1239,12 @@ class TSpanView extends TextView {
                     String nextLigature = current + chars[nextIndex];
                     ligature[nextIndex] = true;
                     current = nextLigature;
-                    hasLigature = true;
                 }
             }
-            double charWidth = paint.measureText(current) * scaleSpacingAndGlyphs;
+            if (!isMeasured) {
+                clusterWidths[index] = paint.measureText(current);
+            }
+            double charWidth = clusterWidths[index] * scaleSpacingAndGlyphs;
 
             /*
                 For each subsequent glyph, set a new startpoint-on-the-path as the previous
@@ -1010,36 +1381,65 @@ class TSpanView extends TextView {
                 mid.preScale((float) scaledDirection, (float) side);
                 mid.postTranslate(0, (float) y);
             } else {
-                mid.setTranslate((float) startPoint, (float) (y + dy + baselineShift));
+                // Placed after the loop, as the line may not have moved since its last layout
+                placed.add(index, index + current.length(), (float) startPoint, (float) (y + dy + baselineShift), (float) r);
+                continue;
             }
 
             mid.preRotate((float) r);
+            addGlyph(path, emoji, emojiTransforms, paint, glyphFont, current, mid);
+        }
 
+        if (hasTextPath) {
+            drawEmoji(canvas, paint);
+            return path;
+        }
 
-            Path glyph;
-            if (hasLigature) {
-                glyph = new Path();
-                paint.getTextPath(current, 0, current.length(), 0, 0, glyph);
-            } else {
-                glyph = bag.getOrCreateAndCache(currentChar, current);
-            }
-            RectF bounds = new RectF();
-            glyph.computeBounds(bounds, true);
-            float width = bounds.width();
-            if (width == 0) { // Render unicode emoji
-                canvas.save();
-                canvas.concat(mid);
-                emoji.add(current);
-                emojiTransforms.add(new Matrix(mid));
-                canvas.drawText(current, 0, 0, paint);
-                canvas.restore();
-            } else {
-                glyph.transform(mid);
-                path.addPath(glyph);
-            }
+        LineLayout layout = mLineLayout;
+        if (!placed.isPlacedLike(layout)) {
+            layout = placed;
+            layout.build(paint, pen);
+            mLineLayout = layout;
+        }
+        emoji.addAll(layout.emoji);
+        emojiTransforms.addAll(layout.emojiTransforms);
+        if (layout.runs != null) {
+            // Emoji are drawn as part of the runs
+            mGlyphRuns = layout.runs;
+            mGlyphRunText = line;
+            mGlyphRunFont = glyphFont;
+        } else {
+            drawEmoji(canvas, paint);
         }
+        return layout.path;
+    }
 
-        return path;
+    /**
+     * Adds the outline of a glyph or ligature to the path, or to the emoji to draw as text if it
+     * has no outline.
+     */
+    private static void addGlyph(Path path, ArrayList<String> emoji, ArrayList<Matrix> emojiTransforms,
+                                 Paint paint, GlyphCache.Font glyphFont, String current, Matrix mid) {
+        // Shared outline of the glyph or ligature, which must not be modified
+        Path glyph = GlyphCache.get(glyphFont, paint, current);
+        RectF bounds = new RectF();
+        glyph.computeBounds(bounds, true);
+        float width = bounds.width();
+        if (width == 0) { // Render unicode emoji
+            emoji.add(current);
+            emojiTransforms.add(new Matrix(mid));
+        } else {
+            path.addPath(glyph, mid);
+        }
+    }
+
+    private void drawEmoji(Canvas canvas, Paint paint) {
+        for (int i = 0; i < emoji.size(); i++) {
+            canvas.save();
+            canvas.concat(emojiTransforms.get(i));
+            canvas.drawText(emoji.get(i), 0, 0, paint);
+            canvas.restore();
+        }
     }
 
     private double getAbsoluteStartOffset(SVGLength startOffset, double distance, double fontSize) {
@@ -1075,57 +1475,123 @@ class TSpanView extends TextView {
             style = Typeface.NORMAL;
         }
 
-        Typeface typeface = null;
         int weight = font.absoluteFontWeight;
-        final String fontFamily = font.fontFamily;
+        String fontFamily = font.fontFamily;
+        Typeface typeface = null;
         if (fontFamily != null && fontFamily.length() > 0) {
-            String otfpath = FONTS + fontFamily + OTF;
-            String ttfpath = FONTS + fontFamily + TTF;
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            String key = fontFamily + '|' + style + '|' + weight + '|' + font.fontVariationSettings;
+            typeface = sAssetTypefaces.get(key);
+            if (typeface == null && !sMissingAssetTypefaces.contains(key)) {
+                typeface = loadAssetTypeface(fontFamily, style, weight, isItalic, font.fontVariationSettings);
+                if (typeface != null) {
+                    sAssetTypefaces.putIfAbsent(key, typeface);
+                } else {
+                    sMissingAssetTypefaces.add(key);
+                }
+            }
+        }
+        if (typeface == null) {
+            typeface = getFontManagerTypeface(fontFamily, style, weight, isItalic);
+        }
+
+        paint.setLinearText(true);
+        paint.setSubpixelText(true);
+        paint.setTypeface(typeface);
+        paint.setTextSize((float) (font.fontSize * mScale));
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            paint.setLetterSpacing(0);
+        }
+    }
+
+    /**
+     * Returns the names of the font files in the assets, which are listed on first use so
+     * families without a file don't cost a failed asset lookup per style and weight.
+     */
+    private static Set<String> getFontAssets(AssetManager assets) {
+        Set<String> fontAssets = sFontAssets;
+        if (fontAssets == null) {
+            fontAssets = new HashSet<>();
+            try {
+                String[] files = assets.list("fonts");
+                if (files != null) {
+                    Collections.addAll(fontAssets, files);
+                }
+            } catch (IOException e) {
+                FLog.w(ReactConstants.TAG, "RNSVG: Couldn't list the font assets", e);
+            }
+            sFontAssets = fontAssets;
+        }
+        return fontAssets;
+    }
+
+    /**
+     * Loads the typeface of a font family from the assets, or returns null if there is no asset
+     * for the family.
+     */
+    private @Nullable Typeface loadAssetTypeface(String fontFamily, int style, int weight,
+                                                 boolean isItalic, String fontVariationSettings) {
+        Typeface typeface = null;
+        Set<String> fontAssets = getFontAssets(assets);
+        boolean hasOtf = fontAssets.contains(fontFamily + OTF);
+        boolean hasTtf = fontAssets.contains(fontFamily + TTF);
+        String otfpath = FONTS + fontFamily + OTF;
+        String ttfpath = FONTS + fontFamily + TTF;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            if (hasOtf) {
                 Typeface.Builder builder = new Typeface.Builder(assets, otfpath);
-                builder.setFontVariationSettings("'wght' " + weight + font.fontVariationSettings);
+                builder.setFontVariationSettings("'wght' " + weight + fontVariationSettings);
                 builder.setWeight(weight);
                 builder.setItalic(isItalic);
                 typeface = builder.build();
-                if (typeface == null) {
-                    builder = new Typeface.Builder(assets, ttfpath);
-                    builder.setFontVariationSettings("'wght' " + weight + font.fontVariationSettings);
-                    builder.setWeight(weight);
-                    builder.setItalic(isItalic);
-                    typeface = builder.build();
-                }
-            } else {
+            }
+            if (typeface == null && hasTtf) {
+                Typeface.Builder builder = new Typeface.Builder(assets, ttfpath);
+                builder.setFontVariationSettings("'wght' " + weight + fontVariationSettings);
+                builder.setWeight(weight);
+                builder.setItalic(isItalic);
+                typeface = builder.build();
+            }
+        } else {
+            if (hasOtf) {
                 try {
                     typeface = Typeface.createFromAsset(assets, otfpath);
                     typeface = Typeface.create(typeface, style);
                 } catch (Exception ignored) {
-                    try {
-                        typeface = Typeface.createFromAsset(assets, ttfpath);
-                        typeface = Typeface.create(typeface, style);
-                    } catch (Exception ignored2) {
-                    }
+                    typeface = null;
                 }
             }
-        }
-
-        if (typeface == null) {
-            try {
-                typeface = ReactFontManager.getInstance().getTypeface(fontFamily, style, assets);
-            } catch (Exception ignored) {
+            if (typeface == null && hasTtf) {
+                try {
+                    typeface = Typeface.createFromAsset(assets, ttfpath);
+                    typeface = Typeface.create(typeface, style);
+                } catch (Exception ignored) {
+                    typeface = null;
+                }
             }
         }
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+        if (typeface != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
             typeface = Typeface.create(typeface, weight, isItalic);
         }
+        return typeface;
+    }
 
-        paint.setLinearText(true);
-        paint.setSubpixelText(true);
-        paint.setTypeface(typeface);
-        paint.setTextSize((float) (font.fontSize * mScale));
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            paint.setLetterSpacing(0);
+    /**
+     * Returns the typeface of a font family from the font manager, which keeps the fonts
+     * registered at runtime and caches the ones it created, so it's asked on every lookup.
+     */
+    private @Nullable Typeface getFontManagerTypeface(@Nullable String fontFamily, int style, int weight,
+                                                      boolean isItalic) {
+        Typeface typeface = null;
+        try {
+            typeface = ReactFontManager.getInstance().getTypeface(fontFamily, style, assets);
+        } catch (Exception ignored) {
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            typeface = Typeface.create(typeface, weight, isItalic);
         }
+        return typeface;
     }
 
     private void setupTextPath() {
@@ -1152,7 +1618,7 @@ class TSpanView extends TextView {
             return -1;
         }
 
-        float[] dst = new float[2];
+        float[] dst = mHitPoint;
         mInvMatrix.mapPoints(dst, src);
         mInvTransform.mapPoints(dst);
         int x = Math.round(dst[0]);
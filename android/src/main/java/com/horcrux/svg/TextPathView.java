@@ -113,7 +113,7 @@ class TextPathView extends TextView {
     }
 
     @Override
-    Path getPath(Canvas canvas, Paint paint) {
+    Path getShapePath(Canvas canvas, Paint paint) {
         return getGroupPath(canvas, paint);
     }
 
@@ -11,6 +11,7 @@ package com.horcrux.svg;
 
 import android.annotation.SuppressLint;
 import android.graphics.Canvas;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.Region;
@@ -35,12 +36,15 @@ class TextView extends GroupView {
     private String mBaselineShift = null;
     TextLengthAdjust mLengthAdjust = TextLengthAdjust.spacing;
     private AlignmentBaseline mAlignmentBaseline;
-    @Nullable private ArrayList<SVGLength> mPositionX;
-    @Nullable private ArrayList<SVGLength> mPositionY;
-    @Nullable private ArrayList<SVGLength> mRotate;
-    @Nullable private ArrayList<SVGLength> mDeltaX;
-    @Nullable private ArrayList<SVGLength> mDeltaY;
+    // Converted to arrays once, as the glyph context is set up with them on every draw
+    @Nullable private SVGLength[] mPositionX;
+    @Nullable private SVGLength[] mPositionY;
+    @Nullable private double[] mRotate;
+    @Nullable private SVGLength[] mDeltaX;
+    @Nullable private SVGLength[] mDeltaY;
     double cachedAdvance = Double.NaN;
+    // Whether the group path was built from the outlines of all children
+    private boolean mHasOutline;
 
     public TextView(ReactContext reactContext) {
         super(reactContext);
@@ -114,34 +118,49 @@ class TextView extends GroupView {
 
     @ReactProp(name = "rotate")
     public void setRotate(Dynamic rotate) {
-        mRotate = SVGLength.arrayFrom(rotate);
+        mRotate = toValues(SVGLength.arrayFrom(rotate));
         invalidate();
     }
 
     @ReactProp(name = "dx")
     public void setDeltaX(Dynamic deltaX) {
-        mDeltaX = SVGLength.arrayFrom(deltaX);
+        mDeltaX = toArray(SVGLength.arrayFrom(deltaX));
         invalidate();
     }
 
     @ReactProp(name = "dy")
     public void setDeltaY(Dynamic deltaY) {
-        mDeltaY = SVGLength.arrayFrom(deltaY);
+        mDeltaY = toArray(SVGLength.arrayFrom(deltaY));
         invalidate();
     }
 
     @ReactProp(name = "x")
     public void setPositionX(Dynamic positionX) {
-        mPositionX = SVGLength.arrayFrom(positionX);
+        mPositionX = toArray(SVGLength.arrayFrom(positionX));
         invalidate();
     }
 
     @ReactProp(name = "y")
     public void setPositionY(Dynamic positionY) {
-        mPositionY = SVGLength.arrayFrom(positionY);
+        mPositionY = toArray(SVGLength.arrayFrom(positionY));
         invalidate();
     }
 
+    private static @Nullable SVGLength[] toArray(@Nullable ArrayList<SVGLength> lengths) {
+        return lengths != null ? lengths.toArray(new SVGLength[0]) : null;
+    }
+
+    private static @Nullable double[] toValues(@Nullable ArrayList<SVGLength> lengths) {
+        if (lengths == null) {
+            return null;
+        }
+        double[] values = new double[lengths.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = lengths.get(i).value;
+        }
+        return values;
+    }
+
     @Override
     void draw(Canvas canvas, Paint paint, float opacity) {
         if (opacity > MIN_OPACITY_FOR_DRAW) {
@@ -156,6 +175,15 @@ class TextView extends GroupView {
 
     @Override
     Path getPath(Canvas canvas, Paint paint) {
+        Path path = getShapePath(canvas, paint);
+        if (!hasOutline()) {
+            buildOutline();
+        }
+        return path;
+    }
+
+    @Override
+    Path getShapePath(Canvas canvas, Paint paint) {
         if (mPath != null) {
             return mPath;
         }
@@ -163,6 +191,27 @@ class TextView extends GroupView {
         return getGroupPath(canvas, paint);
     }
 
+    @Override
+    boolean hasOutline() {
+        return mPath == null || mHasOutline;
+    }
+
+    /**
+     * Builds the outlines of the children, which are laid out already, and the group path again
+     * from them.
+     */
+    @Override
+    void buildOutline() {
+        for (int i = 0; i < getChildCount(); i++) {
+            View node = getChildAt(i);
+            if (node instanceof RenderableView && !((RenderableView) node).hasOutline()) {
+                ((RenderableView) node).buildOutline();
+            }
+        }
+        mPath.rewind();
+        addChildPaths(null, null);
+    }
+
     @Override
     Path getPath(Canvas canvas, Paint paint, Region.Op op) {
         return getPath(canvas, paint);
@@ -212,12 +261,38 @@ class TextView extends GroupView {
             return mPath;
         }
         pushGlyphContext();
-        mPath = super.getPath(canvas, paint);
+        mPath = new Path();
+        addChildPaths(canvas, paint);
         popGlyphContext();
 
         return mPath;
     }
 
+    /**
+     * Adds the paths of the children to the group path, without building the outlines of text
+     * drawn as glyph runs.
+     */
+    private void addChildPaths(Canvas canvas, Paint paint) {
+        boolean hasOutline = true;
+        for (int i = 0; i < getChildCount(); i++) {
+            View node = getChildAt(i);
+            if (node instanceof MaskView) {
+                continue;
+            }
+            if (node instanceof RenderableView) {
+                RenderableView n = (RenderableView) node;
+                Matrix transform = n.mMatrix;
+                mPath.addPath(n.getShapePath(canvas, paint), transform);
+                hasOutline &= n.hasOutline();
+            } else if (node instanceof VirtualView) {
+                VirtualView n = (VirtualView) node;
+                Matrix transform = n.mMatrix;
+                mPath.addPath(n.getPath(canvas, paint), transform);
+            }
+        }
+        mHasOutline = hasOutline;
+    }
+
     @Override
     void pushGlyphContext() {
         boolean isTextNode = !(this instanceof TextPathView) && !(this instanceof TSpanView);
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.graphics.Rect;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nullable;
+
+/**
+ * Rasterizes a recorded {@link Picture} into a bitmap by splitting the target into square tiles
+ * and playing the picture back into each tile on a pool of worker threads.
+ *
+ * Every tile is rendered with an integer translation and a pixel aligned clip, so the result does
+ * not depend on the number of threads. Recording the tree into a picture first keeps the view
+ * tree, whose caches are written while drawing, on the UI thread.
+ */
+public class TiledRasterizer {
+
+    interface ProgressListener {
+        /**
+         * Called from a worker thread after each tile is rendered.
+         */
+        void onProgress(int completedTiles, int totalTiles);
+    }
+
+    static final int TILE_SIZE = 256;
+    static final int DEFAULT_THREAD_COUNT = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int MAX_THREAD_COUNT = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final ExecutorService sExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "RNSVGTile-" + mCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * Renders the picture into a pooled bitmap, blocking until every tile is done. The calling
+     * thread renders tiles too, so it should not be the UI thread. The caller should release the
+     * bitmap to {@link BitmapPool} once done with it.
+     *
+     * If rendering a tile fails, the remaining tiles are skipped and the first failure is thrown
+     * once all threads stopped: an {@link OutOfMemoryError} as is, anything else wrapped in an
+     * {@link IllegalStateException}.
+     *
+     * @param picture     picture recorded at the output size
+     * @param width       output width in px
+     * @param height      output height in px
+     * @param threadCount number of threads rendering tiles, including the calling thread
+     * @param listener    progress listener, or null
+     */
+    static Bitmap rasterize(final Picture picture, final int width, final int height, int threadCount,
+                            @Nullable final ProgressListener listener) {
+        final Bitmap output = BitmapPool.obtain(null, width, height);
+        final Canvas outputCanvas = new Canvas(output);
+
+        final int columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+        final int rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+        final int totalTiles = columns * rows;
+        final AtomicInteger nextTile = new AtomicInteger();
+        final AtomicInteger completedTiles = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                Bitmap tile = BitmapPool.obtain(null, TILE_SIZE, TILE_SIZE);
+                Canvas tileCanvas = new Canvas(tile);
+                Rect src = new Rect();
+                Rect dst = new Rect();
+                try {
+                    int index;
+                    while ((index = nextTile.getAndIncrement()) < totalTiles) {
+                        int left = (index % columns) * TILE_SIZE;
+                        int top = (index / columns) * TILE_SIZE;
+                        int tileWidth = Math.min(TILE_SIZE, width - left);
+                        int tileHeight = Math.min(TILE_SIZE, height - top);
+
+                        tile.eraseColor(0);
+                        int count = tileCanvas.save();
+                        tileCanvas.clipRect(0, 0, tileWidth, tileHeight);
+                        tileCanvas.translate(-left, -top);
+                        picture.draw(tileCanvas);
+                        tileCanvas.restoreToCount(count);
+
+                        src.set(0, 0, tileWidth, tileHeight);
+                        dst.set(left, top, left + tileWidth, top + tileHeight);
+                        synchronized (output) {
+                            outputCanvas.drawBitmap(tile, src, dst, null);
+                        }
+
+                        int completed = completedTiles.incrementAndGet();
+                        if (listener != null) {
+                            listener.onProgress(completed, totalTiles);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                    // Stop the other threads after their current tile
+                    nextTile.set(totalTiles);
+                } finally {
+                    BitmapPool.release(tile);
+                }
+            }
+        };
+
+        int threads = Math.max(1, Math.min(Math.min(threadCount, MAX_THREAD_COUNT), totalTiles));
+        final CountDownLatch done = new CountDownLatch(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            final Runnable task = worker;
+            sExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        worker.run();
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Interrupted while rendering export tiles");
+            Thread.currentThread().interrupt();
+            nextTile.set(totalTiles);
+            failure.compareAndSet(null, e);
+        }
+
+        Throwable error = failure.get();
+        if (error != null) {
+            // Workers still running after an interrupt keep drawing into the bitmap, leave it to the GC
+            if (done.getCount() == 0) {
+                BitmapPool.release(output);
+            }
+            if (error instanceof OutOfMemoryError) {
+                throw (OutOfMemoryError) error;
+            }
+            throw new IllegalStateException("Failed to render export tiles", error);
+        }
+        return output;
+    }
+}
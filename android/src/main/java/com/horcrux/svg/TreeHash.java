@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2015-present, Horcrux.
+ * All rights reserved.
+ *
+ * This source code is licensed under the MIT-style license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+
+package com.horcrux.svg;
+
+import com.facebook.react.bridge.Dynamic;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * 64 bit content hashes of prop values, combined into the hash of an Svg tree that keys its
+ * rasters in the {@link RasterCache}. Rasters are stored on disk, so hashes only depend on the
+ * values and are the same in every process. A value hashes the same however it was passed, e.g.
+ * a matrix as a {@link ReadableArray} or as packed floats decoded by {@link SceneCodec}.
+ */
+class TreeHash {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long NULL = 0x6e756c6cL;
+    private static final long TRUE = 0x74727565L;
+    private static final long FALSE = 0x66616c73L;
+    private static final long ARRAY = 0x61727261L;
+    private static final long MAP = 0x6d6170L;
+
+    /**
+     * Mixes the bits of a hash, so that sums and sequences of hashes don't cancel out.
+     */
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Appends a hash to the hash of a sequence.
+     */
+    static long combine(long hash, long value) {
+        return mix(hash * FNV_PRIME + value);
+    }
+
+    static long of(String string) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < string.length(); i++) {
+            hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    static long of(double number) {
+        // Integers and doubles of the same value hash the same
+        return mix(Double.doubleToLongBits(number == 0 ? 0 : number));
+    }
+
+    static long of(@Nullable Object value) {
+        if (value == null) {
+            return NULL;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? TRUE : FALSE;
+        } else if (value instanceof Number) {
+            return of(((Number) value).doubleValue());
+        } else if (value instanceof String) {
+            return of((String) value);
+        } else if (value instanceof Dynamic) {
+            return of((Dynamic) value);
+        } else if (value instanceof ReadableArray) {
+            return of(((ReadableArray) value).toArrayList());
+        } else if (value instanceof ReadableMap) {
+            return of(((ReadableMap) value).toHashMap());
+        } else if (value instanceof List) {
+            long hash = ARRAY;
+            for (Object item : (List<?>) value) {
+                hash = combine(hash, of(item));
+            }
+            return hash;
+        } else if (value instanceof Map) {
+            // Entries are summed, as maps have no order
+            long hash = MAP;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                hash += combine(of(entry.getKey()), of(entry.getValue()));
+            }
+            return mix(hash);
+        } else if (value instanceof float[]) {
+            long hash = ARRAY;
+            for (float item : (float[]) value) {
+                hash = combine(hash, of(item));
+            }
+            return hash;
+        } else if (value instanceof double[]) {
+            long hash = ARRAY;
+            for (double item : (double[]) value) {
+                hash = combine(hash, of(item));
+            }
+            return hash;
+        }
+        throw new IllegalArgumentException("Can't hash " + value.getClass().getName());
+    }
+
+    private static long of(Dynamic value) {
+        switch (value.getType()) {
+            case Boolean:
+                return value.asBoolean() ? TRUE : FALSE;
+            case Number:
+                return of(value.asDouble());
+            case String:
+                return of(value.asString());
+            case Array:
+                return of(value.asArray());
+            case Map:
+                return of(value.asMap());
+            default:
+                return NULL;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.RectF;
 
 import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.Dynamic;
@@ -28,6 +29,10 @@ class UseView extends RenderableView {
     private SVGLength mY;
     private SVGLength mW;
     private SVGLength mH;
+    // Copy of the template's paint bounds, which change when it's drawn elsewhere
+    private final RectF mUsePaintBounds = new RectF();
+    // Whether the paths the template cached for this use are outdated
+    private boolean mTemplateStale = true;
 
     public UseView(ReactContext reactContext) {
         super(reactContext);
@@ -63,6 +68,18 @@ class UseView extends RenderableView {
         invalidate();
     }
 
+    @Override
+    public void invalidate() {
+        mTemplateStale = true;
+        super.invalidate();
+    }
+
+    @Override
+    void clearCache() {
+        mTemplateStale = true;
+        super.clearCache();
+    }
+
     @Override
     void draw(Canvas canvas, Paint paint, float opacity) {
         VirtualView template = getSvgView().getDefinedTemplate(mHref);
@@ -73,7 +90,12 @@ class UseView extends RenderableView {
             return;
         }
 
-        template.clearCache();
+        if (template.mTemplateUse != this || mTemplateStale) {
+            // The template's paths were computed in place, for another use or before a change
+            template.clearCache();
+            template.mTemplateUse = this;
+            mTemplateStale = false;
+        }
         canvas.translate((float) relativeOnWidth(mX), (float) relativeOnHeight(mY));
         if (template instanceof RenderableView) {
             ((RenderableView)template).mergeProperties(this);
@@ -90,6 +112,11 @@ class UseView extends RenderableView {
         }
 
         this.setClientRect(template.getClientRect());
+        RectF paintBounds = template.getPaintBounds();
+        if (paintBounds != null) {
+            mUsePaintBounds.set(paintBounds);
+        }
+        this.setPaintBounds(paintBounds == null ? null : mUsePaintBounds);
 
         template.restoreCanvas(canvas, count);
         if (template instanceof RenderableView) {
@@ -103,7 +130,7 @@ class UseView extends RenderableView {
             return -1;
         }
 
-        float[] dst = new float[2];
+        float[] dst = mHitPoint;
         mInvMatrix.mapPoints(dst, src);
         mInvTransform.mapPoints(dst);
 
@@ -114,7 +141,11 @@ class UseView extends RenderableView {
             return -1;
         }
 
+        // The template's paint bounds are those of its last use, not necessarily this one
+        SvgView svg = getSvgView();
+        boolean hitTesting = svg.suspendHitTestIndex();
         int hitChild = template.hitTest(dst);
+        svg.resumeHitTestIndex(hitTesting);
         if (hitChild != -1) {
             return (template.isResponsible() || hitChild != template.getId()) ? hitChild : getId();
         }
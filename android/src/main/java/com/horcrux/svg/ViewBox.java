@@ -19,6 +19,15 @@ class ViewBox {
     private static final int MOS_NONE = 2;
 
     static Matrix getTransform(RectF vbRect, RectF eRect, String align, int meetOrSlice) {
+        Matrix transform = new Matrix();
+        getTransform(vbRect, eRect, align, meetOrSlice, transform);
+        return transform;
+    }
+
+    /**
+     * Sets {@code transform} to the viewBox transform, for callers reusing a matrix per draw.
+     */
+    static void getTransform(RectF vbRect, RectF eRect, String align, int meetOrSlice, Matrix transform) {
         // based on https://svgwg.org/svg2-draft/coords.html#ComputingAViewportsTransform
 
         // Let vb-x, vb-y, vb-width, vb-height be the min-x, min-y, width and height values of the viewBox attribute respectively.
@@ -95,9 +104,7 @@ class ViewBox {
 
         // The transform applied to content contained by the element is given by
         // translate(translate-x, translate-y) scale(scale-x, scale-y).
-        Matrix transform = new Matrix();
-        transform.postTranslate((float) translateX, (float) translateY);
+        transform.setTranslate((float) translateX, (float) translateY);
         transform.preScale((float) scaleX, (float) scaleY);
-        return transform;
     }
 }
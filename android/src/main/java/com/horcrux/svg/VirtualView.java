@@ -22,7 +22,8 @@ import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.views.view.ReactViewGroup;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
@@ -63,6 +64,8 @@ abstract public class VirtualView extends ReactViewGroup {
     boolean mCTMInvertible = true;
     boolean mTransformInvertible = true;
     private RectF mClientRect;
+    final float[] mHitPoint = new float[2];
+    private @Nullable RectF mPaintBounds;
 
     int mClipRule;
     private @Nullable String mClipPath;
@@ -88,7 +91,13 @@ abstract public class VirtualView extends ReactViewGroup {
     private float canvasWidth = -1;
     private GlyphContext glyphContext;
 
+    // Hashes of the props set by the view manager by name, and their sum, see getTreeHash
+    private @Nullable HashMap<String, Long> mPropHashes;
+    private long mPropsHash;
+
     Path mPath;
+    // Use that last drew this node as its template, the cached paths were computed for it
+    @Nullable UseView mTemplateUse;
     Path mFillPath;
     Path mStrokePath;
     Path mMarkerPath;
@@ -102,7 +111,7 @@ abstract public class VirtualView extends ReactViewGroup {
     Region mMarkerRegion;
     Region mStrokeRegion;
     Region mClipRegion;
-    ArrayList<PathElement> elements;
+    List<PathElement> elements;
 
     @Override
     public void invalidate() {
@@ -204,9 +213,50 @@ abstract public class VirtualView extends ReactViewGroup {
 
     abstract void draw(Canvas canvas, Paint paint, float opacity);
     void render(Canvas canvas, Paint paint, float opacity) {
+        clearTemplateUse();
         draw(canvas, paint, opacity);
     }
 
+    /**
+     * Called before the node is drawn in place, to compute its paths again if they were last
+     * computed for a use of it.
+     */
+    void clearTemplateUse() {
+        if (mTemplateUse != null) {
+            mTemplateUse = null;
+            clearCache();
+        }
+    }
+
+    /**
+     * Records a prop set by the view manager, or decoded by {@link SceneCodec}, in the content
+     * hash of the node.
+     */
+    void hashProp(String name, @Nullable Object value) {
+        if (mPropHashes == null) {
+            mPropHashes = new HashMap<>();
+        }
+        long hash = TreeHash.combine(TreeHash.of(name), TreeHash.of(value));
+        Long previous = mPropHashes.put(name, hash);
+        // Summed, as props are set in no particular order
+        mPropsHash += hash - (previous != null ? previous : 0);
+    }
+
+    /**
+     * Returns the content hash of the node and its children, from their types and the props they
+     * were given.
+     */
+    long getTreeHash() {
+        long hash = TreeHash.combine(TreeHash.of(getClass().getName()), mPropsHash);
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child instanceof VirtualView) {
+                hash = TreeHash.combine(hash, ((VirtualView) child).getTreeHash());
+            }
+        }
+        return hash;
+    }
+
     /**
      * Sets up the transform matrix on the canvas before an element is drawn.
      *
@@ -218,6 +268,10 @@ abstract public class VirtualView extends ReactViewGroup {
      * @param ctm current transformation matrix
      */
     int saveAndSetupCanvas(Canvas canvas, Matrix ctm) {
+        SvgView svg = getSvgView();
+        if (svg != null) {
+            svg.saveUnclipped(canvas);
+        }
         int count = canvas.save();
         mCTM.setConcat(mMatrix, mTransform);
         canvas.concat(mCTM);
@@ -234,6 +288,10 @@ abstract public class VirtualView extends ReactViewGroup {
      */
     void restoreCanvas(Canvas canvas, int count) {
         canvas.restoreToCount(count);
+        SvgView svg = getSvgView();
+        if (svg != null) {
+            svg.restoreUnclipped(canvas);
+        }
     }
 
     @ReactProp(name = "name")
@@ -295,17 +353,7 @@ abstract public class VirtualView extends ReactViewGroup {
     public void setMatrix(Dynamic matrixArray) {
         ReadableType type = matrixArray.getType();
         if (!matrixArray.isNull() && type.equals(ReadableType.Array)) {
-            int matrixSize = PropHelper.toMatrixData(matrixArray.asArray(), sRawMatrix, mScale);
-            if (matrixSize == 6) {
-                if (mMatrix == null) {
-                    mMatrix = new Matrix();
-                    mInvMatrix = new Matrix();
-                }
-                mMatrix.setValues(sRawMatrix);
-                mInvertible = mMatrix.invert(mInvMatrix);
-            } else if (matrixSize != -1) {
-                FLog.w(ReactConstants.TAG, "RNSVG: Transform matrices must be of size 6");
-            }
+            setMatrixData(PropHelper.toMatrixData(matrixArray.asArray(), sRawMatrix, mScale));
         } else {
             mMatrix = null;
             mInvMatrix = null;
@@ -316,6 +364,38 @@ abstract public class VirtualView extends ReactViewGroup {
         clearParentCache();
     }
 
+    /**
+     * Sets the matrix prop from values decoded by {@link SceneCodec}, without going through the
+     * view manager.
+     */
+    void setMatrix(float[] matrix) {
+        setMatrixData(PropHelper.toMatrixData(matrix, sRawMatrix, mScale));
+
+        super.invalidate();
+        clearParentCache();
+    }
+
+    private void setMatrixData(int matrixSize) {
+        if (matrixSize == 6) {
+            if (mMatrix == null) {
+                mMatrix = new Matrix();
+                mInvMatrix = new Matrix();
+            }
+            mMatrix.setValues(sRawMatrix);
+            mInvertible = mMatrix.invert(mInvMatrix);
+        } else if (matrixSize != -1) {
+            FLog.w(ReactConstants.TAG, "RNSVG: Transform matrices must be of size 6");
+        }
+    }
+
+    /**
+     * Sets a length prop decoded by {@link SceneCodec}, without going through the view manager.
+     * Returns false if the view has no such prop.
+     */
+    boolean setLengthProp(String name, SVGLength length) {
+        return false;
+    }
+
     @ReactProp(name = "responsible")
     public void setResponsible(boolean responsible) {
         mResponsible = responsible;
@@ -358,6 +438,7 @@ abstract public class VirtualView extends ReactViewGroup {
 
         if (clip != null) {
             canvas.clipPath(clip);
+            getSvgView().clipUnclipped(canvas, clip);
         }
     }
 
@@ -502,6 +583,33 @@ abstract public class VirtualView extends ReactViewGroup {
         }
     }
 
+    /**
+     * Drops what the definitions containing the given node cached from rendering their content,
+     * as that content changed. If the node is in a named element, anything referencing it may
+     * have changed too, so the definition generation of the Svg is advanced as well.
+     */
+    static void clearDefinitionCaches(VirtualView node) {
+        boolean named = false;
+        ViewParent parent = node;
+        while (parent instanceof VirtualView) {
+            VirtualView view = (VirtualView) parent;
+            view.clearDefinitionCache();
+            named |= view.mName != null;
+            parent = parent.getParent();
+        }
+        if (named) {
+            SvgView svg = node.getSvgView();
+            if (svg != null) {
+                svg.onDefinitionChanged();
+            }
+        }
+    }
+
+    /**
+     * Drops anything cached from rendering this definition, such as mask or pattern bitmaps.
+     */
+    void clearDefinitionCache() {}
+
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         int width = mClientRect != null ?
                 (int) Math.ceil(mClientRect.width())
@@ -551,7 +659,13 @@ abstract public class VirtualView extends ReactViewGroup {
         if (mClientRect != null && mClientRect.equals(rect)) {
             return;
         }
-        mClientRect = rect;
+        if (rect == null) {
+            mClientRect = null;
+        } else if (mClientRect == null) {
+            mClientRect = new RectF(rect);
+        } else {
+            mClientRect.set(rect);
+        }
         if (mClientRect == null || (!mResponsible && !mOnLayout)) {
             return;
         }
@@ -589,4 +703,21 @@ abstract public class VirtualView extends ReactViewGroup {
         return mClientRect;
     }
 
+    /**
+     * Sets the bounds of everything this node painted in its last draw, in SvgView canvas
+     * coordinates. Unlike the client rect these include strokes and markers, they are used to
+     * limit repaints to the area affected by a change.
+     */
+    void setPaintBounds(@Nullable RectF rect) {
+        mPaintBounds = rect;
+    }
+
+    @Nullable RectF getPaintBounds() {
+        return mPaintBounds;
+    }
+
+    boolean hasClipPath() {
+        return mClipPath != null;
+    }
+
 }
@@ -22,7 +22,15 @@ import ClipPath, { RNSVGClipPath } from './elements/ClipPath';
 import Pattern, { RNSVGPattern } from './elements/Pattern';
 import Mask, { RNSVGMask } from './elements/Mask';
 import Marker, { RNSVGMarker } from './elements/Marker';
-import { parse, SvgAst, SvgFromUri, SvgFromXml, SvgUri, SvgXml } from './xml';
+import {
+  parse,
+  SvgAst,
+  SvgFromUri,
+  SvgFromXml,
+  SvgNative,
+  SvgUri,
+  SvgXml,
+} from './xml';
 
 export {
   Svg,
@@ -52,6 +60,7 @@ export {
   SvgAst,
   SvgFromUri,
   SvgFromXml,
+  SvgNative,
   SvgUri,
   SvgXml,
   Shape,
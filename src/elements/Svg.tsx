@@ -4,6 +4,7 @@ import {
   StyleSheet,
   findNodeHandle,
   NativeModules,
+  DeviceEventEmitter,
   MeasureOnSuccessCallback,
   MeasureLayoutOnSuccessCallback,
   MeasureInWindowOnSuccessCallback,
@@ -26,6 +27,42 @@ import G from './G';
 
 const RNSVGSvgViewManager = NativeModules.RNSVGSvgViewManager;
 
+const noop = () => {};
+
+export type DataURLOptions = {
+  width?: number;
+  height?: number;
+  // Android: number of threads rendering export tiles
+  threads?: number;
+  // Android: called with the fraction of the export rendered so far
+  onProgress?: (progress: number) => void;
+  // Android: image format, png by default
+  format?: 'png' | 'jpeg' | 'webp';
+  // Android: compression quality of jpeg and webp images, from 0 to 1
+  quality?: number;
+  // Android: drawn behind jpeg images, which have no transparency, white by
+  // default
+  backgroundColor?: string | number;
+  // Android: 'file' writes the image to a temporary file in the app cache
+  // directory and calls back with its URI. The file belongs to the caller,
+  // move or delete it once done, files left for a day are deleted.
+  result?: 'base64' | 'file';
+  // Android: file to write the image to, implies result 'file'
+  path?: string;
+};
+
+export type MountXmlSource = {
+  xml?: string | null;
+  uri?: string | null;
+  cache?: boolean;
+};
+
+export type SvgTreeNode = {
+  type: string;
+  props?: { [prop: string]: unknown };
+  children?: SvgTreeNode[];
+};
+
 const styles = StyleSheet.create({
   svg: {
     backgroundColor: 'transparent',
@@ -41,6 +78,20 @@ export default class Svg extends Shape<
     opacity?: NumberProp;
     onLayout?: () => void;
     preserveAspectRatio?: string;
+    hardwareAccelerated?: boolean;
+    // Android: caches the rendered output on disk, keyed by a hash of the
+    // children and their props, which is computed again whenever they change,
+    // together with the size, scale and tint color. Meant for static icons
+    // and illustrations drawn without hardwareAccelerated.
+    rasterCache?: boolean;
+    // Android: caches the rendered output under this key instead of the hash
+    // of the children. The key isn't checked against the children, so
+    // changing them without changing the key keeps showing the cached output,
+    // while touches are hit tested against the new children.
+    rasterCacheKey?: string;
+    // Android 9+: lays out text wrapped with inlineSize off the UI thread,
+    // drawing it once the layout is ready.
+    precomputeText?: boolean;
   } & TransformProps &
     ResponderProps &
     StrokeProps &
@@ -88,12 +139,84 @@ export default class Svg extends Shape<
     this.root && this.root.setNativeProps(props);
   };
 
-  toDataURL = (callback: () => void, options?: Object) => {
+  toDataURL = (callback: (base64: string) => void, options?: DataURLOptions) => {
     if (!callback) {
       return;
     }
     const handle = findNodeHandle(this.root as Component);
-    RNSVGSvgViewManager.toDataURL(handle, options, callback);
+    if (!options || !options.onProgress) {
+      RNSVGSvgViewManager.toDataURL(handle, options, callback);
+      return;
+    }
+    const { onProgress, ...nativeOptions } = options;
+    const subscription = DeviceEventEmitter.addListener(
+      'RNSVGExportProgress',
+      (event: { tag: number; progress: number }) => {
+        if (event.tag === handle) {
+          onProgress(event.progress);
+        }
+      },
+    );
+    RNSVGSvgViewManager.toDataURL(
+      handle,
+      { ...nativeOptions, reportProgress: true },
+      (base64: string) => {
+        subscription.remove();
+        callback(base64);
+      },
+    );
+  };
+
+  // Android: parses an SVG document natively and mounts its tree into this
+  // Svg in a single call, replacing the previously mounted document. The
+  // callback receives the number of mounted nodes, or null on failure. With
+  // cache set, the parsed document is stored on disk, keyed by its content,
+  // and later mounts of the same document skip parsing.
+  mountXml = (
+    source: MountXmlSource,
+    callback?: (nodes: number | null) => void,
+  ) => {
+    if (!Svg.supportsNativeXml) {
+      console.warn('Svg.mountXml is not supported on this platform');
+      return;
+    }
+    const handle = findNodeHandle(this.root as Component);
+    RNSVGSvgViewManager.mountXml(handle, source, callback || noop);
+  };
+
+  static supportsNativeXml = !!RNSVGSvgViewManager.mountXml;
+
+  // Android: renders a tree of native nodes, { type, props, children } with
+  // an RNSVGSvgView root, without mounting it. Options must include the
+  // width and height, the callback receives the same result as toDataURL.
+  static renderTree = (
+    tree: SvgTreeNode,
+    callback: (result: string | null) => void,
+    options: DataURLOptions & { width: number; height: number },
+  ) => {
+    if (!RNSVGSvgViewManager.renderTree) {
+      console.warn('Svg.renderTree is not supported on this platform');
+      return;
+    }
+    RNSVGSvgViewManager.renderTree(tree, options, callback);
+  };
+
+  // Android: writes each Svg into an image file in the app cache directory
+  // and calls back with their file URIs, null for those that failed. The
+  // files are temporary, like those of toDataURL with result 'file'. A path
+  // in the options is the directory to write them to instead, as
+  // svg-<index>.<extension>, where index is the position in svgs.
+  static exportToFiles = (
+    svgs: Svg[],
+    callback: (uris: (string | null)[]) => void,
+    options?: DataURLOptions,
+  ) => {
+    if (!RNSVGSvgViewManager.exportToFiles) {
+      console.warn('Svg.exportToFiles is not supported on this platform');
+      return;
+    }
+    const handles = svgs.map(svg => findNodeHandle(svg.root as Component));
+    RNSVGSvgViewManager.exportToFiles(handles, options, callback);
   };
 
   render() {
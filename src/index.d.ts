@@ -359,10 +359,90 @@ export interface SvgProps extends GProps, ReactNative.ViewProperties {
   preserveAspectRatio?: string;
   color?: Color;
   title?: string;
+  hardwareAccelerated?: boolean;
+  /**
+   * Android: caches the rendered output on disk, keyed by a hash of the
+   * children and their props together with the size, scale and tint color.
+   */
+  rasterCache?: boolean;
+  /**
+   * Android: caches the rendered output under this key instead of the hash
+   * of the children. The key isn't checked against the content, so it must
+   * change whenever the content does.
+   */
+  rasterCacheKey?: string;
+  precomputeText?: boolean;
+}
+
+export interface DataURLOptions {
+  width?: number;
+  height?: number;
+  // Android: number of threads rendering export tiles
+  threads?: number;
+  // Android: called with the fraction of the export rendered so far
+  onProgress?: (progress: number) => void;
+  // Android: image format, png by default
+  format?: 'png' | 'jpeg' | 'webp';
+  // Android: compression quality of jpeg and webp images, from 0 to 1
+  quality?: number;
+  // Android: drawn behind jpeg images, white by default
+  backgroundColor?: string | number;
+  // Android: 'file' writes the image to a temporary file owned by the caller
+  result?: 'base64' | 'file';
+  // Android: file to write the image to, implies result 'file'
+  path?: string;
+}
+
+// Node of a tree rendered with Svg.renderTree, with native component names
+// as types, e.g. RNSVGSvgView, RNSVGGroup or RNSVGPath
+export interface SvgTreeNode {
+  type: string;
+  props?: { [prop: string]: unknown };
+  children?: SvgTreeNode[];
+}
+
+// Document mounted natively with mountXml, from its content or a uri
+export interface MountXmlSource {
+  xml?: string | null;
+  uri?: string | null;
+  // Stores the parsed document on disk, keyed by its content
+  cache?: boolean;
+}
+
+export interface SvgInstance extends React.Component<SvgProps> {
+  toDataURL(callback: (base64: string) => void, options?: DataURLOptions): void;
+  // Android: parses the document natively and mounts it into this Svg,
+  // replacing the previously mounted one. The callback receives the number
+  // of mounted nodes, or null on failure.
+  mountXml(
+    source: MountXmlSource,
+    callback?: (nodes: number | null) => void,
+  ): void;
+}
+
+export interface SvgStatic extends React.ComponentClass<SvgProps> {
+  new (props: SvgProps, context?: any): SvgInstance;
+  // Whether mountXml is supported on this platform
+  supportsNativeXml: boolean;
+  // Android: renders a tree with an RNSVGSvgView root without mounting it.
+  // The callback receives the same result as toDataURL, or null on failure.
+  renderTree(
+    tree: SvgTreeNode,
+    callback: (result: string | null) => void,
+    options: DataURLOptions & { width: number; height: number },
+  ): void;
+  // Android: writes each Svg into a temporary image file and calls back with
+  // their file URIs, null for those that failed. A path in the options is
+  // the directory to write them to instead, as svg-<index>.<extension>.
+  exportToFiles(
+    svgs: React.Component<SvgProps>[],
+    callback: (uris: (string | null)[]) => void,
+    options?: DataURLOptions,
+  ): void;
 }
 
 // Svg is both regular and default exported
-export const Svg: React.ComponentClass<SvgProps>;
+export const Svg: SvgStatic;
 export default Svg;
 
 export interface SymbolProps {
@@ -465,6 +545,14 @@ export interface XmlProps extends SvgProps {
 }
 export type XmlState = { ast: AST | null };
 
+export interface NativeProps extends SvgProps {
+  xml?: string | null;
+  uri?: string | null;
+  cache?: boolean;
+  onLoad?: (nodes: number | null) => void;
+  override?: SvgProps;
+}
+
 export interface AstProps extends SvgProps {
   ast: AST | null;
   override?: SvgProps;
@@ -479,3 +567,11 @@ export const SvgFromXml: React.ComponentClass<XmlProps, XmlState>;
 
 export const SvgUri: React.FunctionComponent<UriProps>;
 export const SvgFromUri: React.ComponentClass<UriProps, UriState>;
+
+/**
+ * Parses and mounts the document natively where supported.
+ * Mask, pattern, marker, filter and style elements, and the mask, marker-*,
+ * filter and class attributes referring to them, are skipped with a warning.
+ * Use SvgXml or SvgUri for documents relying on them.
+ */
+export const SvgNative: React.ComponentClass<NativeProps>;
@@ -170,6 +170,54 @@ export class SvgFromUri extends Component<UriProps, UriState> {
   }
 }
 
+export type NativeProps = {
+  xml?: string | null;
+  uri?: string | null;
+  cache?: boolean;
+  onLoad?: (nodes: number | null) => void;
+  override?: Object;
+};
+
+// Parses and mounts the document natively in a single call where supported,
+// falls back to SvgFromXml and SvgFromUri elsewhere.
+// The native parser doesn't support mask, pattern, marker, filter and style
+// elements, nor the mask, marker-*, filter and class attributes referring to
+// them; they are skipped with a warning. Use SvgXml or SvgUri for documents
+// relying on them.
+export class SvgNative extends Component<NativeProps> {
+  svg: Svg | null = null;
+  refSvg = (svg: Svg | null) => {
+    this.svg = svg;
+  };
+  componentDidMount() {
+    this.mount();
+  }
+  componentDidUpdate(prevProps: NativeProps) {
+    const { xml, uri } = this.props;
+    if (xml !== prevProps.xml || uri !== prevProps.uri) {
+      this.mount();
+    }
+  }
+  mount() {
+    const { svg, props } = this;
+    const { xml, uri, cache, onLoad } = props;
+    if (svg && Svg.supportsNativeXml && (xml || uri)) {
+      svg.mountXml(xml ? { xml, cache } : { uri, cache }, onLoad);
+    }
+  }
+  render() {
+    const { xml, uri, cache, onLoad, override, ...props } = this.props;
+    if (!Svg.supportsNativeXml) {
+      return xml || !uri ? (
+        <SvgFromXml xml={xml || null} override={override || props} />
+      ) : (
+        <SvgFromUri uri={uri} override={override || props} />
+      );
+    }
+    return <Svg ref={this.refSvg} {...props} {...override} />;
+  }
+}
+
 const upperCase = (_match: string, letter: string) => letter.toUpperCase();
 
 const camelCase = (phrase: string) =>